@@ -558,12 +558,12 @@ public class GUI extends JFrame {
                         updateBoardGUI();
 
                         if (currentPlayer.playerCell.equals(Cell.BLACK)) {
-                            if (!board.getAllAvailableMoves(Cell.WHITE).isEmpty()) {
+                            if (board.hasAnyMove(Cell.WHITE)) {
                                 currentPlayer = currentPlayer.playerCell == Cell.BLACK ? player2 : player1;
                             }
 
                         } else if (currentPlayer.playerCell.equals(Cell.WHITE)) {
-                            if (!board.getAllAvailableMoves(Cell.BLACK).isEmpty()) {
+                            if (board.hasAnyMove(Cell.BLACK)) {
                                 currentPlayer = currentPlayer.playerCell == Cell.BLACK ? player2 : player1;
                             }
 
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import logic.Board;
+import logic.Move;
+import logic.RandomPlay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Воспроизводимый набор позиций для бенчмарков: позиции из случайных партий с фиксированным зерном,
+ * взятые при заданном числе пустых клеток. Один и тот же набор на всех коммитах делает результаты сравнимыми.
+ */
+final class BenchmarkPositions {
+    static final long SEED = 20230701L;
+    static final int MIDGAME_EMPTIES = 36;
+    static final int ENDGAME_EMPTIES = 16;
+    static final int POSITIONS = 8;
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Возвращает позиции, в которых осталось empties пустых клеток и у стороны, которая ходит, больше одного хода.
+     */
+    static List<Board> positions(int empties, int count) {
+        Random random = new Random(SEED + empties);
+        List<Board> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Board board = RandomPlay.randomPosition(random, empties);
+            if (board.getQuantityOfEmpty() == empties && board.getAllAvailableMoves(board.getSideToMove()).size() > 1) {
+                positions.add(board);
+            }
+        }
+        return positions;
+    }
+
+    static List<Board> midgame() {
+        return positions(MIDGAME_EMPTIES, POSITIONS);
+    }
+
+    static List<Board> endgame() {
+        return positions(ENDGAME_EMPTIES, POSITIONS);
+    }
+
+    /**
+     * Записывает ходы одной случайной партии от начальной позиции до конца; пропуск хода записывается как null.
+     */
+    static List<Move> game(long seed) {
+        Random random = new Random(seed);
+        List<Move> game = new ArrayList<>();
+        Board board = new Board();
+        while (!board.isGameOver()) {
+            game.add(RandomPlay.playRandomMove(board, random));
+        }
+        return game;
+    }
+}
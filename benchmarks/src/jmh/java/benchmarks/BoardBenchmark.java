@@ -0,0 +1,102 @@
+package benchmarks;
+
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Symmetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация и выполнение ходов на Board. Позиции перебираются по кругу, чтобы замер не зависел от одной позиции.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+    private Board[] positions;
+    private Move[] firstMoves;
+    private int next;
+    private List<Move> game;
+    private Board replay;
+    private int ply;
+    private Cell side;
+
+    @Setup
+    public void setUp() {
+        List<Board> midgame = BenchmarkPositions.midgame();
+        List<Board> endgame = BenchmarkPositions.endgame();
+        positions = new Board[midgame.size() + endgame.size() + 1];
+        positions[0] = new Board();
+        for (int i = 0; i < midgame.size(); i++) {
+            positions[1 + i] = midgame.get(i);
+        }
+        for (int i = 0; i < endgame.size(); i++) {
+            positions[1 + midgame.size() + i] = endgame.get(i);
+        }
+        firstMoves = new Move[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            firstMoves[i] = positions[i].getAllAvailableMoves(positions[i].getSideToMove()).get(0);
+        }
+        game = BenchmarkPositions.game(BenchmarkPositions.SEED);
+        restartReplay();
+    }
+
+    private void restartReplay() {
+        replay = new Board();
+        ply = 0;
+        side = Cell.BLACK;
+    }
+
+    private int nextPosition() {
+        int index = next;
+        next = next + 1 == positions.length ? 0 : next + 1;
+        return index;
+    }
+
+    @Benchmark
+    public List<Move> getAllAvailableMoves() {
+        Board board = positions[nextPosition()];
+        return board.getAllAvailableMoves(board.getSideToMove());
+    }
+
+    @Benchmark
+    public Board placePieceAndGetCopy() {
+        int index = nextPosition();
+        Move move = firstMoves[index];
+        return positions[index].placePieceAndGetCopy(move.row, move.col, positions[index].getSideToMove());
+    }
+
+    /**
+     * Каноническая симметрия позиции, которую ищут таблицы с общими записями для симметричных позиций.
+     */
+    @Benchmark
+    public int canonicalSymmetry() {
+        Board board = positions[nextPosition()];
+        return Symmetry.canonicalSymmetry(board.getBlackMask(), board.getWhiteMask());
+    }
+
+    /**
+     * Один ход записанной партии на одной доске; в конце партии доска начинается заново.
+     */
+    @Benchmark
+    public Board placePiece() {
+        if (ply == game.size()) {
+            restartReplay();
+        }
+        Move move = game.get(ply++);
+        if (move != null) {
+            replay.placePiece(move.row, move.col, side);
+        }
+        side = side.reverse();
+        return replay;
+    }
+}
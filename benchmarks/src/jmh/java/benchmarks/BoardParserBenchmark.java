@@ -0,0 +1,41 @@
+package benchmarks;
+
+import logic.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import parsing.BoardParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор строки доски в том виде, в каком она приходит клиенту с сервера (boardStringWON).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardParserBenchmark {
+    private String[] boards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Board> positions = BenchmarkPositions.midgame();
+        boards = new String[positions.size()];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Board.displayBoardOnClientWithoutNumbers(positions.get(i));
+        }
+    }
+
+    @Benchmark
+    public Board parse() {
+        String board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return BoardParser.parse(board, 'B', 'W', '-');
+    }
+}
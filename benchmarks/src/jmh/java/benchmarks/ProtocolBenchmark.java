@@ -0,0 +1,66 @@
+package benchmarks;
+
+import clientrequest.MakeMoveRequest;
+import clientresponse.WhereIcanGoResponse;
+import com.google.gson.Gson;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и разбор JSON сообщений протокола, которыми клиент обменивается с сервером на каждом ходу.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProtocolBenchmark {
+    private final Gson gson = new Gson();
+    private WhereIcanGoResponse whereIcanGoResponse;
+    private MakeMoveRequest makeMoveRequest;
+    private String whereIcanGoJson;
+    private String makeMoveJson;
+
+    @Setup
+    public void setUp() {
+        Board board = BenchmarkPositions.midgame().get(0);
+        Cell side = board.getSideToMove();
+        StringBuilder moves = new StringBuilder();
+        for (Move move : board.getAllAvailableMoves(side)) {
+            moves.append(move.row + 1).append(' ').append(move.col + 1).append("; ");
+        }
+        whereIcanGoResponse = new WhereIcanGoResponse(moves.toString(), Board.displayBoardOnClient(board),
+                Board.displayBoardOnClientWithoutNumbers(board), side == Cell.BLACK ? "black" : "white");
+        makeMoveRequest = new MakeMoveRequest(3, 4);
+        whereIcanGoJson = gson.toJson(whereIcanGoResponse);
+        makeMoveJson = gson.toJson(makeMoveRequest);
+    }
+
+    @Benchmark
+    public String encodeWhereIcanGoResponse() {
+        return gson.toJson(whereIcanGoResponse);
+    }
+
+    @Benchmark
+    public WhereIcanGoResponse decodeWhereIcanGoResponse() {
+        return gson.fromJson(whereIcanGoJson, WhereIcanGoResponse.class);
+    }
+
+    @Benchmark
+    public String encodeMakeMoveRequest() {
+        return gson.toJson(makeMoveRequest);
+    }
+
+    @Benchmark
+    public MakeMoveRequest decodeMakeMoveRequest() {
+        return gson.fromJson(makeMoveJson, MakeMoveRequest.class);
+    }
+}
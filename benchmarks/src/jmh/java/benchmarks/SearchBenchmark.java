@@ -0,0 +1,87 @@
+package benchmarks;
+
+import client.BotPlayerMinMaxRuslan;
+import client.SearchSettings;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ход бота поиском фиксированной глубины. Время хода не ограничено, решатель эндшпиля выключен,
+ * таблица транспозиций очищается перед каждым ходом: замер зависит только от глубины и позиции.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+    private static final long MOVE_TIME_MILLIS = 600_000;
+    private static final int TRANSPOSITION_TABLE_MB = 8;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"midgame", "endgame"})
+    public String phase;
+
+    private BotPlayerMinMaxRuslan blackPlayer;
+    private BotPlayerMinMaxRuslan whitePlayer;
+    private List<Board> positions;
+    private int next;
+    private Board board;
+    private BotPlayerMinMaxRuslan player;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blackPlayer = new BotPlayerMinMaxRuslan(Cell.BLACK, settings(depth));
+        whitePlayer = new BotPlayerMinMaxRuslan(Cell.WHITE, settings(depth));
+        positions = phase.equals("endgame") ? BenchmarkPositions.endgame() : BenchmarkPositions.midgame();
+    }
+
+    private static SearchSettings settings(int depth) {
+        SearchSettings settings = new SearchSettings();
+        settings.setDepth(depth);
+        settings.setMoveTimeMillis(MOVE_TIME_MILLIS);
+        settings.setMaxMoveTimeMillis(MOVE_TIME_MILLIS);
+        settings.setEndgameEmpties(0);
+        settings.setThreads(1);
+        settings.setTranspositionTableMegabytes(TRANSPOSITION_TABLE_MB);
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        return settings;
+    }
+
+    /**
+     * makeMove делает ход на доске, поэтому каждый замер получает свою копию позиции и бота без памяти о прошлых ходах.
+     */
+    @Setup(Level.Invocation)
+    public void nextPosition() {
+        Board position = positions.get(next);
+        next = next + 1 == positions.size() ? 0 : next + 1;
+        board = position.getBoardCopy();
+        player = board.getSideToMove() == Cell.BLACK ? blackPlayer : whitePlayer;
+        player.newGame();
+    }
+
+    @Benchmark
+    public Move makeMove() {
+        return player.makeMove(board);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blackPlayer.close();
+        whitePlayer.close();
+    }
+}
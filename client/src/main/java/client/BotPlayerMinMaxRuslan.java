@@ -1,57 +1,421 @@
 package client;
 
+import logic.BitBoard;
 import logic.Board;
 import logic.Cell;
 import logic.Move;
+import logic.PatternEvaluator;
 import logic.Player;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class BotPlayerMinMaxRuslan extends Player {
+    private static final Logger logger = LogManager.getLogger(BotPlayerMinMaxRuslan.class);
+    static final int DEFAULT_TRANSPOSITION_TABLE_MB = 16;
+    private static final int ENDGAME_NEGAMAX_SHARE = 5;
+    private static final int PRINCIPAL_VARIATION_LENGTH = 16;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
     int moveCounter = 1;
+    private final SearchSettings settings;
+    private final TranspositionTable transpositionTable;
+    private final ParallelSearch negamaxSearch;
+    private final EndgameSolver endgameSolver;
+    private final TimeManager timeManager;
+    private final OpeningBook openingBook;
+    private Thread ponderThread;
+    private int ponderMove = TranspositionTable.NO_MOVE;
+    private long ponderExpectedBlack;
+    private long ponderExpectedWhite;
+    private long ponderHits;
+    private long ponderMisses;
+    private final List<SearchListener> listeners = new ArrayList<>();
+    private IterationListener iterationListener;
 
     public BotPlayerMinMaxRuslan(Cell playerCell) {
+        this(playerCell, new SearchSettings());
+    }
+
+    /**
+     * Создает бота с таблицей транспозиций заданного размера. Таблица живет, пока живет бот,
+     * поэтому результаты поиска переиспользуются между ходами одной партии.
+     *
+     * @param playerCell                  цвет бота.
+     * @param transpositionTableMegabytes объем памяти таблицы транспозиций в мегабайтах.
+     */
+    public BotPlayerMinMaxRuslan(Cell playerCell, int transpositionTableMegabytes) {
+        this(playerCell, settingsWithTable(transpositionTableMegabytes));
+    }
+
+    /**
+     * Создает бота с указанными настройками поиска.
+     *
+     * @param playerCell цвет бота.
+     * @param settings   настройки поиска, в том числе выбор движка (Tree или negamax).
+     */
+    public BotPlayerMinMaxRuslan(Cell playerCell, SearchSettings settings) {
         super(playerCell);
+        this.settings = settings;
+        this.transpositionTable = new TranspositionTable(settings.getTranspositionTableMegabytes());
+        this.negamaxSearch = new ParallelSearch(transpositionTable, createEvaluator(settings), settings);
+        this.endgameSolver = new EndgameSolver(transpositionTable, settings);
+        this.timeManager = new TimeManager(settings);
+        this.openingBook = openBook(settings);
+        this.negamaxSearch.setProbCut(loadProbCut(settings));
+        SearchListener listener = SearchListener.fromSettings(settings);
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Добавляет получателя статистики ходов. Получатель из настроек (SearchSettings.getTelemetry) добавляется
+     * конструктором.
+     */
+    public void addSearchListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Задает получателя итераций хода бота или убирает его (null): negamax сообщает о каждой завершенной глубине,
+     * решатель эндшпиля - о решенной позиции. Поиск на времени соперника и дерево Tree итерации не публикуют.
+     */
+    public void setIterationListener(IterationListener iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    /**
+     * Создает оценочную функцию из настроек. Если файл весов шаблонов не читается, используются веса по умолчанию.
+     */
+    static Evaluator createEvaluator(SearchSettings settings) {
+        if (settings.getEvaluation() == SearchSettings.Evaluation.SQUARE_WEIGHTS) {
+            return new SquareWeightEvaluator();
+        }
+        if (settings.getPatternWeightsPath() == null) {
+            return new PatternWeightEvaluator(PatternEvaluator.withDefaultWeights());
+        }
+        try {
+            return new PatternWeightEvaluator(PatternEvaluator.load(Path.of(settings.getPatternWeightsPath())));
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Cannot load pattern weights " + settings.getPatternWeightsPath());
+            return new PatternWeightEvaluator(PatternEvaluator.withDefaultWeights());
+        }
+    }
 
+    /**
+     * Открывает дебютную книгу из настроек. Если книгу не удалось открыть, бот играет без нее.
+     */
+    private static OpeningBook openBook(SearchSettings settings) {
+        if (settings.getOpeningBookPath() == null) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(Path.of(settings.getOpeningBookPath()), settings.getOpeningBookMinCount());
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Cannot open opening book " + settings.getOpeningBookPath());
+            return null;
+        }
+    }
+
+    /**
+     * Читает параметры Multi-ProbCut из настроек. Если файл не читается, бот ищет без выборочных отсечений.
+     */
+    private static ProbCut loadProbCut(SearchSettings settings) {
+        if (settings.getProbCutPath() == null) {
+            return null;
+        }
+        try {
+            return ProbCut.load(Path.of(settings.getProbCutPath()));
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Cannot load ProbCut parameters " + settings.getProbCutPath());
+            return null;
+        }
+    }
+
+    private static SearchSettings settingsWithTable(int transpositionTableMegabytes) {
+        SearchSettings settings = new SearchSettings();
+        settings.setTranspositionTableMegabytes(transpositionTableMegabytes);
+        return settings;
     }
 
     @Override
     public Move makeMove(Board board) {
+        stopPondering();
+        countPonderResult(board);
 
         List<Move> availableMoves = board.getAllAvailableMoves(playerCell);
         if (availableMoves.size() == 1) {
             Move move = availableMoves.get(0);
+            publish(newTelemetry(SearchTelemetry.Source.FORCED, move));
             board.placePiece(move.row, move.col, playerCell);
             return move;
         }
+        Move bookMove = lookupBook(board);
+        if (bookMove != null) {
+            publish(newTelemetry(SearchTelemetry.Source.BOOK, bookMove));
+            board.placePiece(bookMove.row, bookMove.col, playerCell);
+            return bookMove;
+        }
         Move zeroMove = new Move(-1, -1);
 
-        long time1 = System.nanoTime();
-        Tree father = new Tree(zeroMove, playerCell.reverse(), board, 1, 5000, playerCell, isCornersEmpty(board), board.getQuantityOfEmpty());
-        long time2 = System.nanoTime();
-
-        float timeLastMoves = (float) (time2 - time1) / 1000000000;
-        String result = String.format("%.2f", timeLastMoves);
-        if (isCornersEmpty(board) && board.getQuantityOfEmpty() > 10)
-            System.out.print(moveCounter + " poisk uglov: ");
-        else {
-            System.out.print(moveCounter + " endspil: ");
+        board.setSideToMove(playerCell);
+        transpositionTable.newSearch();
+        transpositionTable.resetStatistics();
+        long deadline = timeManager.startMove();
+        Move move;
+        boolean endgame = board.getQuantityOfEmpty() <= settings.getEndgameEmpties();
+        if (endgame) {
+            move = solveEndgame(board, deadline);
+        } else if (settings.getEngine() == SearchSettings.Engine.NEGAMAX) {
+            move = searchNegamax(board, deadline);
+        } else {
+            Tree father = new Tree(zeroMove, playerCell.reverse(), board, 1, 5000, playerCell, isCornersEmpty(board), board.getQuantityOfEmpty(), deadline, transpositionTable);
+            move = father.getGoldMove();
+        }
+        long timeUsed = timeManager.endMove();
+        if (!listeners.isEmpty()) {
+            publish(searchTelemetry(board, move, endgame, timeUsed));
         }
-        moveCounter++;
-        System.out.println(result);
-        Move move = father.getGoldMove();
         board.placePiece(move.row, move.col, playerCell);
         return move;
     }
 
+    /**
+     * Собирает статистику хода, найденного поиском. Вызывается до того, как ход сделан на доске.
+     */
+    private SearchTelemetry searchTelemetry(Board board, Move move, boolean endgame, long timeUsed) {
+        SearchTelemetry telemetry;
+        long nodes;
+        if (endgame && endgameSolver.getSolvedMode() != null) {
+            telemetry = newTelemetry(SearchTelemetry.Source.ENDGAME, move);
+            telemetry.score = endgameSolver.getBestScore();
+            telemetry.exact = endgameSolver.getSolvedMode() == SearchSettings.EndgameMode.EXACT;
+            telemetry.depth = board.getQuantityOfEmpty();
+            nodes = endgameSolver.getNodes() + negamaxSearch.getNodes();
+        } else if (endgame || settings.getEngine() == SearchSettings.Engine.NEGAMAX) {
+            telemetry = newTelemetry(SearchTelemetry.Source.NEGAMAX, move);
+            telemetry.score = negamaxSearch.getBestScore();
+            telemetry.depth = negamaxSearch.getCompletedDepth();
+            nodes = negamaxSearch.getNodes() + (endgame ? endgameSolver.getNodes() : 0);
+        } else {
+            telemetry = newTelemetry(SearchTelemetry.Source.TREE, move);
+            nodes = 0;
+        }
+        if (telemetry.source == SearchTelemetry.Source.NEGAMAX) {
+            SearchStatistics statistics = negamaxSearch.getStatistics();
+            telemetry.selectiveDepth = statistics.getSelectiveDepth();
+            telemetry.cutoffHistogram = statistics.getCutoffHistogram();
+            telemetry.firstMoveCutoffRate = statistics.getFirstMoveCutoffRate();
+            telemetry.effectiveBranchingFactor = statistics.getEffectiveBranchingFactor();
+            telemetry.pvsResearches = statistics.getPvsResearches();
+            telemetry.aspirationResearches = statistics.getAspirationResearches();
+            telemetry.probCutTries = statistics.getProbCutTries();
+            telemetry.probCuts = statistics.getProbCuts();
+        }
+        if (telemetry.source != SearchTelemetry.Source.TREE) {
+            telemetry.threadNodes = negamaxSearch.getThreadNodes();
+        }
+        if (endgame) {
+            telemetry.stabilityCutoffs = endgameSolver.getStabilityCutoffs();
+        }
+        telemetry.nodes = nodes;
+        telemetry.nodesPerSecond = timeUsed > 0 ? (long) (nodes * 1e9 / timeUsed) : 0;
+        telemetry.ttProbes = transpositionTable.getProbes();
+        telemetry.ttHits = transpositionTable.getHits();
+        telemetry.ttCutoffs = transpositionTable.getCutoffs();
+        telemetry.timeUsedMillis = timeUsed / NANOS_IN_MILLI;
+        telemetry.budgetMillis = timeManager.getMoveBudget() / NANOS_IN_MILLI;
+
+        int square = move.row * 8 + move.col;
+        long own = playerCell == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = playerCell == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        long flipped = BitBoard.flips(own, opp, square);
+        long ownAfter = own | flipped | (1L << square);
+        long oppAfter = opp & ~flipped;
+        telemetry.principalVariation.add(SearchTelemetry.squareName(square));
+        for (int next : transpositionTable.principalVariation(playerCell == Cell.BLACK ? ownAfter : oppAfter,
+                playerCell == Cell.BLACK ? oppAfter : ownAfter, playerCell.reverse(), PRINCIPAL_VARIATION_LENGTH - 1)) {
+            telemetry.principalVariation.add(SearchTelemetry.squareName(next));
+        }
+        return telemetry;
+    }
+
+    /**
+     * Создает статистику хода с общими для всех источников полями и увеличивает счетчик ходов.
+     */
+    private SearchTelemetry newTelemetry(SearchTelemetry.Source source, Move move) {
+        SearchTelemetry telemetry = new SearchTelemetry();
+        telemetry.moveNumber = moveCounter++;
+        telemetry.color = playerCell.name();
+        telemetry.source = source;
+        telemetry.move = SearchTelemetry.squareName(move.row * 8 + move.col);
+        telemetry.principalVariation = new ArrayList<>();
+        telemetry.ponderHits = ponderHits;
+        telemetry.ponderMisses = ponderMisses;
+        return telemetry;
+    }
+
+    private void publish(SearchTelemetry telemetry) {
+        for (SearchListener listener : listeners) {
+            listener.onMove(telemetry);
+        }
+    }
+
+    private Move searchNegamax(Board board, long deadline) {
+        long own = playerCell == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = playerCell == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        negamaxSearch.clearStopRequest();
+        negamaxSearch.setIterationListener(iterationListener);
+        int square = negamaxSearch.searchIterative(own, opp, playerCell, settings.getDepth(), deadline);
+        negamaxSearch.setIterationListener(null);
+        return new Move(square / 8, square % 8);
+    }
+
+    /**
+     * Начинает поиск на времени соперника: в фоновом потоке ищется позиция, где ходит соперник. Результаты
+     * поиска по всем ответам соперника остаются в таблице транспозиций и ускоряют следующий ход бота.
+     * Поиск идет, пока не будет вызван stopPondering или makeMove.
+     *
+     * @param board позиция после хода бота.
+     */
+    public void startPondering(Board board) {
+        stopPondering();
+        Cell opponent = playerCell.reverse();
+        if (!settings.isPondering() || settings.getEngine() != SearchSettings.Engine.NEGAMAX
+                || !board.hasAnyMove(opponent)) {
+            return;
+        }
+        long own = opponent == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = opponent == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        transpositionTable.newSearch();
+        negamaxSearch.clearStopRequest();
+        ponderThread = new Thread(() -> {
+            int move = negamaxSearch.searchIterative(own, opp, opponent, settings.getDepth(), Long.MAX_VALUE);
+            if (move != TranspositionTable.NO_MOVE) {
+                long flipped = BitBoard.flips(own, opp, move);
+                long ownAfter = own | flipped | (1L << move);
+                long oppAfter = opp & ~flipped;
+                ponderExpectedBlack = opponent == Cell.BLACK ? ownAfter : oppAfter;
+                ponderExpectedWhite = opponent == Cell.BLACK ? oppAfter : ownAfter;
+            }
+            ponderMove = move;
+        }, "ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * Останавливает поиск на времени соперника и ждет завершения фонового потока.
+     */
+    public void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+        negamaxSearch.requestStop();
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+
+    /**
+     * Завершает работу бота в конце партии: останавливает поиск на времени соперника и потоки параллельного поиска.
+     * Таблицы бота освобождаются вместе с ним.
+     */
+    public void close() {
+        stopPondering();
+        negamaxSearch.close();
+        for (SearchListener listener : listeners) {
+            listener.close();
+        }
+    }
+
+    /**
+     * Готовит бота к новой партии: останавливает поиск на времени соперника, очищает таблицу транспозиций
+     * и сортировку ходов и сбрасывает часы партии и номер хода.
+     */
+    public void newGame() {
+        stopPondering();
+        ponderMove = TranspositionTable.NO_MOVE;
+        transpositionTable.clear();
+        negamaxSearch.clearMoveOrdering();
+        timeManager.newGame();
+        moveCounter = 1;
+    }
+
+    /**
+     * Отмечает, угадал ли поиск на времени соперника его ход.
+     */
+    private void countPonderResult(Board board) {
+        if (ponderMove == TranspositionTable.NO_MOVE) {
+            return;
+        }
+        if (board.getBlackMask() == ponderExpectedBlack && board.getWhiteMask() == ponderExpectedWhite) {
+            ponderHits++;
+        } else {
+            ponderMisses++;
+        }
+        ponderMove = TranspositionTable.NO_MOVE;
+    }
+
+    /**
+     * Возвращает ход соперника, который предсказал последний поиск на его времени, или TranspositionTable.NO_MOVE.
+     */
+    public int getPonderMove() {
+        return ponderMove;
+    }
+
+    public long getPonderHits() {
+        return ponderHits;
+    }
+
+    public long getPonderMisses() {
+        return ponderMisses;
+    }
+
+    private Move lookupBook(Board board) {
+        if (openingBook == null) {
+            return null;
+        }
+        int square = openingBook.lookup(board.getBlackMask(), board.getWhiteMask(), playerCell);
+        if (square == TranspositionTable.NO_MOVE || (board.getAvailableMovesMask(playerCell) & (1L << square)) == 0) {
+            return null;
+        }
+        return new Move(square / 8, square % 8);
+    }
+
+    /**
+     * Решает эндшпиль точным перебором. Первую часть времени хода ищет negamax: его ход остается запасным,
+     * если решатель не успеет, а таблица транспозиций подсказывает решателю порядок ходов.
+     */
+    private Move solveEndgame(Board board, long deadline) {
+        long now = System.nanoTime();
+        Move fallback = searchNegamax(board, now + (deadline - now) / ENDGAME_NEGAMAX_SHARE);
+        long own = playerCell == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = playerCell == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        int square = endgameSolver.solve(own, opp, playerCell, deadline);
+        if (square == TranspositionTable.NO_MOVE) {
+            return fallback;
+        }
+        if (iterationListener != null) {
+            iterationListener.onIteration(board.getQuantityOfEmpty(), square, endgameSolver.getBestScore());
+        }
+        return new Move(square / 8, square % 8);
+    }
+
     private boolean isCornersEmpty(Board board) {
-        Cell[][] cells = board.getBoard();
         int[] angleCoordinates = {0, 7};
         for (int cord1 : angleCoordinates
         ) {
             for (int cord2 : angleCoordinates
             ) {
-                if (cells[cord1][cord2].equals(Cell.EMPTY)) {
+                if (board.get(cord1, cord2).equals(Cell.EMPTY)) {
                     return true;
                 }
 
@@ -71,13 +435,18 @@ public class BotPlayerMinMaxRuslan extends Player {
         static final int MAX_DEEP = 7;//6 пока что условный максимум
         static final int EMPTY_LIMIT = 10;
         static final int MAX_DEEP_EMPTY_LIMIT = 10;
-        static final long MAX_TIME = 50;
+        //оценки Tree даны с точки зрения игрока в корне и в своей шкале, а таблица общая с negamax и решателем
+        //эндшпиля, поэтому ключи Tree всегда отличаются от ключей negamax
+        static final long TREE_KEY = 0xD1B54A32D192ED03L;
+        //оценка зависит от того, пусты ли углы в корне, поэтому такие позиции хранятся в таблице отдельно
+        static final long CORNERS_EMPTY_KEY = 0x9E3779B97F4A7C15L;
         private int value = 0;
         private final Move move;
 
         private Move goldMove;
+        private Move bestChildMove;
 
-        private Tree(Move move, Cell whoMadeMove, Board board, int deep, int bestValueTopLevel, Cell fatherCell, boolean isFatherCornersEmpty, int countOfEmptyMotherBoard) {
+        private Tree(Move move, Cell whoMadeMove, Board board, int deep, int bestValueTopLevel, Cell fatherCell, boolean isFatherCornersEmpty, int countOfEmptyMotherBoard, long deadline, TranspositionTable table) {
 
             this.move = move;
 
@@ -86,21 +455,55 @@ public class BotPlayerMinMaxRuslan extends Player {
             Cell whoWillMakeMove = whoMadeMove.reverse();
             List<Tree> nodes = new ArrayList<>();
 
-
-            long timeStart = System.nanoTime();
-
             if (countOfEmptyMotherBoard <= EMPTY_LIMIT) maxDeepInThisSituation = MAX_DEEP_EMPTY_LIMIT;
 
-            if (deep < maxDeepInThisSituation) createNodes(whoMadeMove, board, deep, fatherCell, bestValueTopLevel, isFatherCornersEmpty, countOfEmptyMotherBoard, timeStart, nodes);
+            int remainingDepth = maxDeepInThisSituation - deep;
+            boolean isMaxNode = whoWillMakeMove.equals(fatherCell);
+            long key = board.getZobristKey() ^ (isFatherCornersEmpty ? CORNERS_EMPTY_KEY : TREE_KEY);
+            int hashMove = TranspositionTable.NO_MOVE;
+
+            if (remainingDepth > 0) {
+                long entry = table.probe(key);
+                if (entry != TranspositionTable.MISS) {
+                    hashMove = TranspositionTable.bestMove(entry);
+                    if (deep > 1 && TranspositionTable.depth(entry) >= remainingDepth && isCutoff(entry, isMaxNode, bestValueTopLevel)) {
+                        value = TranspositionTable.score(entry);
+                        table.recordCutoff();
+                        return;
+                    }
+                }
+            }
+
+            boolean allNodesCreated = true;
+            if (deep < maxDeepInThisSituation) allNodesCreated = createNodes(whoMadeMove, board, deep, fatherCell, bestValueTopLevel, isFatherCornersEmpty, countOfEmptyMotherBoard, deadline, nodes, table, hashMove);
 
             setValue(board, deep, fatherCell, isFatherCornersEmpty, whoWillMakeMove, maxDeepInThisSituation, nodes);
+
+            if (remainingDepth > 0 && !nodes.isEmpty()) {
+                int bound = TranspositionTable.EXACT;
+                if (isMaxNode && (!allNodesCreated || value > bestValueTopLevel)) bound = TranspositionTable.LOWER;
+                if (!isMaxNode && (!allNodesCreated || value < bestValueTopLevel)) bound = TranspositionTable.UPPER;
+                int bestMove = bestChildMove == null ? TranspositionTable.NO_MOVE : bestChildMove.row * 8 + bestChildMove.col;
+                table.store(key, remainingDepth, bound, value, bestMove);
+            }
+        }
+
+        /**
+         * Проверяет, можно ли взять оценку из таблицы, не раскрывая узел: точная оценка подходит всегда,
+         * нижняя граница - если она уже больше границы узла-максимума, верхняя - если меньше границы узла-минимума.
+         */
+        private static boolean isCutoff(long entry, boolean isMaxNode, int bestValueTopLevel) {
+            int score = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT) return true;
+            if (bound == TranspositionTable.LOWER) return isMaxNode && score > bestValueTopLevel;
+            return !isMaxNode && score < bestValueTopLevel;
         }
 
         private void setValue(Board board, int deep, Cell fatherCell, boolean isFatherCornersEmpty, Cell whoWillMakeMove, int maxDeepInThisSituation, List<Tree> nodes) {
             if (isFatherCornersEmpty && board.getQuantityOfEmpty() > EMPTY_LIMIT) {
                 if (deep == maxDeepInThisSituation || Objects.requireNonNull(nodes).isEmpty()) {
 
-                    Cell[][] cells = board.getBoard();
                     int winOrLose = winOrLose(board, fatherCell);
 
                     if (winOrLose != 0) value = winOrLose;
@@ -108,15 +511,15 @@ public class BotPlayerMinMaxRuslan extends Player {
 
                         //проверяем углы
                         int[][] cornersCoordinates = {{0, 7}, {7, 0}, {0, 0}, {7, 7}};
-                        value = value + calculateDeltaValue(cornersCoordinates, 25, fatherCell, cells);
+                        value = value + calculateDeltaValue(cornersCoordinates, 25, fatherCell, board);
 
                         //проверяем то, что рядом с углами
                         int[][] closeToCornersCoordinates = {{0, 1}, {1, 0}, {1, 1}, {0, 6}, {1, 6}, {1, 7}, {6, 0}, {6, 1}, {7, 1}, {6, 6}, {6, 7}, {7, 6}};
-                        value = value + calculateDeltaValue(closeToCornersCoordinates, 15, fatherCell.reverse(), cells);
+                        value = value + calculateDeltaValue(closeToCornersCoordinates, 15, fatherCell.reverse(), board);
 
                         //проверяем то, что далеко от углов
                         int[][] notCloseToCornersCoordinates = {{0, 2}, {1, 2}, {2, 2}, {2, 1}, {2, 0}, {0, 5}, {1, 5}, {2, 5}, {2, 6}, {2, 7}, {5, 0}, {5, 1}, {5, 2}, {6, 2}, {7, 2}, {5, 5}, {5, 6}, {5, 7}, {6, 5}, {7, 5}};
-                        value = value + calculateDeltaValue(notCloseToCornersCoordinates, 7, fatherCell, cells);
+                        value = value + calculateDeltaValue(notCloseToCornersCoordinates, 7, fatherCell, board);
                     }
                 } else {
 
@@ -143,11 +546,19 @@ public class BotPlayerMinMaxRuslan extends Player {
             }
         }
 
-        private static void createNodes(Cell whoMadeMove, Board board, int deep, Cell fatherCell, int bestValueTopLevel, boolean isFatherCornersEmpty, int countOfEmptyMotherBoard, long timeStart, List<Tree> nodes) {
+        private static boolean createNodes(Cell whoMadeMove, Board board, int deep, Cell fatherCell, int bestValueTopLevel, boolean isFatherCornersEmpty, int countOfEmptyMotherBoard, long deadline, List<Tree> nodes, TranspositionTable table, int hashMove) {
             boolean createMaxNodes = false;
             int bestValue;
             ArrayList<Integer> sosedi = new ArrayList<>();
             List<Move> availableMoves = board.getAllAvailableMoves(whoMadeMove.reverse());
+            //ход из таблицы транспозиций проверяем первым
+            for (int i = 1; i < availableMoves.size(); i++) {
+                Move thisMove = availableMoves.get(i);
+                if (thisMove.row * 8 + thisMove.col == hashMove) {
+                    Collections.swap(availableMoves, 0, i);
+                    break;
+                }
+            }
             if (whoMadeMove == fatherCell) {
                 createMaxNodes = true;
                 bestValue = 5000;
@@ -156,25 +567,23 @@ public class BotPlayerMinMaxRuslan extends Player {
             }
             for (Move thisMove : availableMoves
             ) {
-                long timeEnd = System.nanoTime();
-                if ((timeEnd - timeStart) / 100000000 > MAX_TIME) {
-                    System.out.println((timeEnd - timeStart) / 100000000);
-                    break;
-                }
-                Board boardAfterMove = board.placePieceAndGetCopy(thisMove.row, thisMove.col, whoMadeMove.reverse());
+                if (System.nanoTime() >= deadline) break;
+                board.makeMove(thisMove.row, thisMove.col, whoMadeMove.reverse());
 
                 if (!sosedi.isEmpty()) {
                     if (createMaxNodes) bestValue = Collections.min(sosedi);
                     if (!createMaxNodes) bestValue = Collections.max(sosedi);
                 }
 
-                Tree newNode = new Tree(thisMove, whoMadeMove.reverse(), boardAfterMove, deep + 1, bestValue, fatherCell, isFatherCornersEmpty, countOfEmptyMotherBoard);
+                Tree newNode = new Tree(thisMove, whoMadeMove.reverse(), board, deep + 1, bestValue, fatherCell, isFatherCornersEmpty, countOfEmptyMotherBoard, deadline, table);
+                board.unmakeMove();
                 sosedi.add(newNode.getValue());
                 nodes.add(newNode);
                 if (createMaxNodes && newNode.getValue() < bestValueTopLevel) break;
                 if (!createMaxNodes && newNode.getValue() > bestValueTopLevel) break;
 
             }
+            return nodes.size() == availableMoves.size();
         }
 
         private void setValueNodeEnemyColor(List<Tree> nodes) {
@@ -183,6 +592,7 @@ public class BotPlayerMinMaxRuslan extends Player {
             ) {
                 if (node.getValue() <= value) {
                     value = node.getValue();
+                    bestChildMove = node.getMove();
                 }
 
             }
@@ -194,6 +604,7 @@ public class BotPlayerMinMaxRuslan extends Player {
             ) {
                 if (node.getValue() >= value) {
                     value = node.getValue();
+                    bestChildMove = node.getMove();
                     if (deep == 1) {
                         goldMove = node.getMove();
                     }
@@ -202,13 +613,14 @@ public class BotPlayerMinMaxRuslan extends Player {
             }
         }
 
-        private int calculateDeltaValue(int[][] coordinates, int changeValue, Cell mainCell, Cell[][] cells) {
+        private int calculateDeltaValue(int[][] coordinates, int changeValue, Cell mainCell, Board board) {
             int deltaValue = 0;
             for (int[] coord : coordinates
             ) {
-                if (cells[coord[0]][coord[1]].equals(mainCell)) {
+                Cell cell = board.get(coord[0], coord[1]);
+                if (cell.equals(mainCell)) {
                     deltaValue = deltaValue + changeValue;
-                } else if (cells[coord[0]][coord[1]].equals(mainCell.reverse())) {
+                } else if (cell.equals(mainCell.reverse())) {
                     deltaValue = deltaValue - changeValue;
                 }
             }
@@ -229,7 +641,7 @@ public class BotPlayerMinMaxRuslan extends Player {
         }
 
         private int winOrLose(Board board, Cell cell) {
-            if (!board.getAllAvailableMoves(Cell.BLACK).isEmpty() || !board.getAllAvailableMoves(Cell.WHITE).isEmpty()) {
+            if (!board.isGameOver()) {
                 return 0;
             }
             if (board.getQuantityOfBlack() > board.getQuantityOfWhite()) {
@@ -6,6 +6,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import logic.Board;
 import logic.Cell;
 import logic.Move;
 import logic.Player;
@@ -30,6 +31,7 @@ class Client {
     private final BufferedWriter bufferedWriter;
     private final Gson gson;
     private int roomId = 0;
+    private BotPlayerMinMaxRuslan botPlayer;
 
     private static int countGame = 0;
 
@@ -488,6 +490,7 @@ class Client {
     private void commandGameOverBot(Client client, String input) throws IOException {
         GameoverResponse gameoverResponse = client.getResponse(GameoverResponse.class, input);
         System.out.println("Game over response " + gameoverResponse.message);
+        closeBotPlayer();
         countGame++;
         System.out.println("game "+ (countGame-1)  +" end");
         if (gameoverResponse.roomCreator && countGame < gameoverResponse.quantityOfGame) {
@@ -514,25 +517,39 @@ class Client {
     private void commandStartGameBot(Client client, String input) throws IOException {
         StartGameResponse startGameResponse = client.getResponse(StartGameResponse.class, input);
         System.out.println("StartGame response " + startGameResponse.message);
+        closeBotPlayer();
+    }
+
+    /**
+     * Завершает работу бота партии: останавливает его потоки и отпускает таблицы, чтобы память освободилась
+     * до следующей партии серии.
+     */
+    private void closeBotPlayer() {
+        if (botPlayer != null) {
+            botPlayer.close();
+            botPlayer = null;
+        }
     }
 
     private void commandWhereICanGoGameBot(Client client, String input) throws IOException {
         WhereIcanGoResponse whereIcanGoResponse = client.getResponse(WhereIcanGoResponse.class, input);
 
         System.out.println(whereIcanGoResponse.availableMoves);
-        if (whereIcanGoResponse.color.equals("black")) {
-            BotPlayerMinMaxRuslan botPlayer = new BotPlayerMinMaxRuslan(Cell.BLACK);
-            Move move = botPlayer.makeMove(BoardParser.parse(whereIcanGoResponse.boardStringWON, 'B', 'W', '-'));
-
-            MakeMoveRequest makeMoveRequest = new MakeMoveRequest(move.row + 1, move.col + 1);
-            client.sendRequest(makeMoveRequest);
-        } else {
-            BotPlayerMinMaxRuslan botPlayer = new BotPlayerMinMaxRuslan(Cell.WHITE);
-            Move move = botPlayer.makeMove(BoardParser.parse(whereIcanGoResponse.boardStringWON, 'B', 'W', '-'));
-
-            MakeMoveRequest makeMoveRequest = new MakeMoveRequest(move.row + 1, move.col + 1);
-            client.sendRequest(makeMoveRequest);
+        Cell color = whereIcanGoResponse.color.equals("black") ? Cell.BLACK : Cell.WHITE;
+        if (botPlayer == null || botPlayer.playerCell != color) {
+            // цвет приходит только с первым ходом партии, поэтому бот создается здесь и живет до GAMEOVER
+            closeBotPlayer();
+            SearchSettings settings = new SearchSettings();
+            settings.setPondering(true);
+            botPlayer = new BotPlayerMinMaxRuslan(color, settings);
         }
+        Board board = BoardParser.parse(whereIcanGoResponse.boardStringWON, 'B', 'W', '-');
+        Move move = botPlayer.makeMove(board);
+
+        MakeMoveRequest makeMoveRequest = new MakeMoveRequest(move.row + 1, move.col + 1);
+        client.sendRequest(makeMoveRequest);
+        // пока соперник думает, бот ищет ответы на его ходы
+        botPlayer.startPondering(board);
     }
 
     private void commandMakeMoveBot(Client client, String input) throws IOException {
@@ -0,0 +1,345 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.Stability;
+import logic.Zobrist;
+
+/**
+ * Точный решатель эндшпиля: перебирает партию до конца и находит итоговую разницу фишек
+ * (или только победу, ничью и поражение в режиме WIN_LOSS_DRAW).
+ *
+ * Оценки решателя в той же шкале, что и у NegamaxSearch (NegamaxSearch.finalScore), а глубина записи в таблице
+ * транспозиций равна числу пустых клеток, поэтому таблица общая с negamax.
+ * Ходы сортируются по мобильности соперника после хода (fastest-first), при равенстве первыми идут ходы
+ * в квадранты с нечетным числом пустых клеток (parity). Последние четыре пустые клетки перебираются
+ * прямо по маске пустых клеток без буферов ходов, последняя пустая клетка считается отдельно.
+ *
+ * Стабильные фишки соперника останутся его до конца партии, поэтому итоговая разница не больше
+ * 64 - 2 * (число стабильных фишек соперника). Если эта граница не выше alpha, узел отсекается без перебора
+ * (stability cutoff). Стабильность считается, только если отсечение возможно хотя бы при всех фишках соперника
+ * стабильных.
+ */
+public final class EndgameSolver {
+    private static final int SHALLOW_EMPTIES = 4;
+    private static final int TABLE_MIN_EMPTIES = 7;
+    private static final int STABILITY_MIN_EMPTIES = 7;
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final int HASH_MOVE_SCORE = 1 << 20;
+    private static final int MOBILITY_SHIFT = 2;
+    private static final int PARITY_SCORE = 1;
+    private static final long[] QUADRANTS = {
+            0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L};
+
+    private final TranspositionTable table;
+    private final SearchSettings settings;
+    private final int[][] moveBuffers = new int[NegamaxSearch.MAX_PLY][NegamaxSearch.MAX_MOVES];
+    private final int[][] scoreBuffers = new int[NegamaxSearch.MAX_PLY][NegamaxSearch.MAX_MOVES];
+
+    private long nodes;
+    private long stabilityCutoffs;
+    private long deadline = Long.MAX_VALUE;
+    private boolean stopped;
+    private int bestMove = TranspositionTable.NO_MOVE;
+    private int bestScore;
+    private SearchSettings.EndgameMode solvedMode;
+
+    public EndgameSolver(TranspositionTable table, SearchSettings settings) {
+        this.table = table;
+        this.settings = settings;
+    }
+
+    /**
+     * Решает позицию до дедлайна. Сначала позиция решается на победу, ничью и поражение, затем, в режиме EXACT,
+     * на точную разницу фишек в окне, которое уже известно из первого перебора. Если точный перебор не успел,
+     * возвращается ход из первого перебора.
+     *
+     * @param own      маска фишек игрока, чей ход.
+     * @param opp      маска фишек соперника.
+     * @param side     цвет игрока, чей ход.
+     * @param deadline абсолютный дедлайн в единицах System.nanoTime().
+     * @return номер клетки лучшего хода или TranspositionTable.NO_MOVE, если ходов нет или не успел закончиться
+     * даже первый перебор.
+     */
+    public int solve(long own, long opp, Cell side, long deadline) {
+        nodes = 0;
+        stabilityCutoffs = 0;
+        stopped = false;
+        solvedMode = null;
+        this.deadline = deadline;
+        if (BitBoard.legalMoves(own, opp) == 0) {
+            bestMove = TranspositionTable.NO_MOVE;
+            return bestMove;
+        }
+        long key = side == Cell.BLACK ? Zobrist.hash(own, opp, side) : Zobrist.hash(opp, own, side);
+        long empty = ~(own | opp);
+        int empties = Long.bitCount(empty);
+        int parity = parity(empty);
+
+        bestMove = TranspositionTable.NO_MOVE;
+        int score = search(own, opp, side, key, -1, 1, empties, parity, 0);
+        if (stopped) {
+            bestMove = TranspositionTable.NO_MOVE;
+        } else {
+            int resultMove = bestMove;
+            int resultScore = score;
+            boolean exact = settings.getEndgameMode() == SearchSettings.EndgameMode.EXACT;
+            solvedMode = exact && score == 0 ? SearchSettings.EndgameMode.EXACT : SearchSettings.EndgameMode.WIN_LOSS_DRAW;
+            if (exact && score != 0) {
+                int alpha = score > 0 ? 0 : -NegamaxSearch.INFINITY;
+                int beta = score > 0 ? NegamaxSearch.INFINITY : 0;
+                bestMove = TranspositionTable.NO_MOVE;
+                score = search(own, opp, side, key, alpha, beta, empties, parity, 0);
+                if (!stopped) {
+                    resultMove = bestMove;
+                    resultScore = score;
+                    solvedMode = SearchSettings.EndgameMode.EXACT;
+                }
+            }
+            bestMove = resultMove;
+            bestScore = resultScore;
+        }
+        this.deadline = Long.MAX_VALUE;
+        return bestMove;
+    }
+
+    private int search(long own, long opp, Cell side, long key, int alpha, int beta, int empties, int parity, int ply) {
+        nodes++;
+        if ((nodes & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (empties <= SHALLOW_EMPTIES && ply > 0) {
+            return searchShallow(own, opp, alpha, beta, empties, parity, false);
+        }
+        if (empties >= STABILITY_MIN_EMPTIES && ply > 0
+                && NegamaxSearch.differenceScore(64 - 2 * Long.bitCount(opp)) <= alpha) {
+            int bound = NegamaxSearch.differenceScore(64 - 2 * Long.bitCount(Stability.stableDiscs(opp, own)));
+            if (bound <= alpha) {
+                stabilityCutoffs++;
+                return bound;
+            }
+        }
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return NegamaxSearch.finalScore(own, opp);
+            }
+            return -search(opp, own, side.reverse(), key ^ Zobrist.sideChangeKey(), -beta, -alpha, empties, parity, ply + 1);
+        }
+
+        int alphaOriginal = alpha;
+        int hashMove = TranspositionTable.NO_MOVE;
+        boolean useTable = empties >= TABLE_MIN_EMPTIES;
+        if (useTable) {
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                hashMove = TranspositionTable.bestMove(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= empties) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && score >= beta
+                            || bound == TranspositionTable.UPPER && score <= alpha) {
+                        table.recordCutoff();
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int[] buffer = moveBuffers[ply];
+        int count = orderMoves(buffer, scoreBuffers[ply], moves, own, opp, hashMove, parity);
+        int best = -NegamaxSearch.INFINITY;
+        int bestSquare = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int square = buffer[i];
+            long flipped = BitBoard.flips(own, opp, square);
+            long childKey = key ^ Zobrist.discKey(square, side) ^ Zobrist.flipKeys(flipped) ^ Zobrist.sideChangeKey();
+            int score = -search(opp & ~flipped, own | flipped | (1L << square), side.reverse(), childKey,
+                    -beta, -alpha, empties - 1, parity ^ (1 << quadrant(square)), ply + 1);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestSquare = square;
+                if (ply == 0) {
+                    bestMove = square;
+                }
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        if (useTable) {
+            int bound = best <= alphaOriginal ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, empties, bound, best, bestSquare);
+        }
+        return best;
+    }
+
+    /**
+     * Перебор последних пустых клеток: ходы берутся прямо из маски пустых клеток, сначала в нечетных квадрантах.
+     * Ход допустим, если он что-то переворачивает.
+     */
+    private int searchShallow(long own, long opp, int alpha, int beta, int empties, int parity, boolean passed) {
+        nodes++;
+        if (empties == 0) {
+            return NegamaxSearch.finalScore(own, opp);
+        }
+        if (empties == 1) {
+            return lastMove(own, opp);
+        }
+        long empty = ~(own | opp);
+        long oddQuadrants = oddQuadrants(parity);
+        int best = -NegamaxSearch.INFINITY;
+        for (int pass = 0; pass < 2; pass++) {
+            long candidates = empty & (pass == 0 ? oddQuadrants : ~oddQuadrants);
+            for (; candidates != 0; candidates &= candidates - 1) {
+                int square = Long.numberOfTrailingZeros(candidates);
+                long flipped = BitBoard.flips(own, opp, square);
+                if (flipped == 0) {
+                    continue;
+                }
+                int score = -searchShallow(opp & ~flipped, own | flipped | (1L << square), -beta, -alpha,
+                        empties - 1, parity ^ (1 << quadrant(square)), false);
+                if (score > best) {
+                    best = score;
+                    if (best > alpha) {
+                        alpha = best;
+                        if (alpha >= beta) {
+                            return best;
+                        }
+                    }
+                }
+            }
+        }
+        if (best == -NegamaxSearch.INFINITY) {
+            if (passed) {
+                return NegamaxSearch.finalScore(own, opp);
+            }
+            return -searchShallow(opp, own, -beta, -alpha, empties, parity, true);
+        }
+        return best;
+    }
+
+    /**
+     * Оценка позиции с одной пустой клеткой: в нее ходит игрок, чей ход, иначе соперник, иначе партия окончена.
+     */
+    private int lastMove(long own, long opp) {
+        nodes++;
+        int square = Long.numberOfTrailingZeros(~(own | opp));
+        long bit = 1L << square;
+        long flipped = BitBoard.flips(own, opp, square);
+        if (flipped != 0) {
+            return NegamaxSearch.finalScore(own | flipped | bit, opp & ~flipped);
+        }
+        flipped = BitBoard.flips(opp, own, square);
+        if (flipped != 0) {
+            return NegamaxSearch.finalScore(own & ~flipped, opp | flipped | bit);
+        }
+        return NegamaxSearch.finalScore(own, opp);
+    }
+
+    private static int orderMoves(int[] buffer, int[] scores, long moves, long own, long opp, int hashMove, int parity) {
+        long oddQuadrants = oddQuadrants(parity);
+        int count = 0;
+        for (long rest = moves; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            long bit = 1L << square;
+            int score;
+            if (square == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else {
+                long flipped = BitBoard.flips(own, opp, square);
+                int opponentMobility = Long.bitCount(BitBoard.legalMoves(opp & ~flipped, own | flipped | bit));
+                score = (NegamaxSearch.MAX_MOVES - opponentMobility) << MOBILITY_SHIFT;
+                if ((bit & oddQuadrants) != 0) {
+                    score += PARITY_SCORE;
+                }
+            }
+
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            buffer[i] = square;
+        }
+        return count;
+    }
+
+    private static int quadrant(int square) {
+        return (BitBoard.row(square) >= 4 ? 2 : 0) + (BitBoard.col(square) >= 4 ? 1 : 0);
+    }
+
+    /**
+     * Возвращает биты четности квадрантов: бит q установлен, если в квадранте q нечетное число пустых клеток.
+     */
+    private static int parity(long empty) {
+        int parity = 0;
+        for (int quadrant = 0; quadrant < QUADRANTS.length; quadrant++) {
+            parity |= (Long.bitCount(empty & QUADRANTS[quadrant]) & 1) << quadrant;
+        }
+        return parity;
+    }
+
+    private static long oddQuadrants(int parity) {
+        long mask = 0;
+        for (int quadrant = 0; quadrant < QUADRANTS.length; quadrant++) {
+            if ((parity & (1 << quadrant)) != 0) {
+                mask |= QUADRANTS[quadrant];
+            }
+        }
+        return mask;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Возвращает число узлов последнего решения, отсеченных по стабильным фишкам.
+     */
+    public long getStabilityCutoffs() {
+        return stabilityCutoffs;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Возвращает оценку решенной позиции в шкале NegamaxSearch.finalScore. В режиме WIN_LOSS_DRAW
+     * надежен только знак оценки.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Возвращает режим, в котором позиция была решена до конца, или null, если решатель не успел.
+     */
+    public SearchSettings.EndgameMode getSolvedMode() {
+        return solvedMode;
+    }
+
+    @Override
+    public String toString() {
+        if (solvedMode == null) {
+            return "solver: unsolved nodes: " + nodes + " stability cutoffs: " + stabilityCutoffs;
+        }
+        return String.format("solver: %s score: %d nodes: %d stability cutoffs: %d",
+                solvedMode, bestScore, nodes, stabilityCutoffs);
+    }
+}
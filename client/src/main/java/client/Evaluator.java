@@ -0,0 +1,17 @@
+package client;
+
+/**
+ * Оценочная функция позиции для поиска бота.
+ */
+public interface Evaluator {
+
+    /**
+     * Оценивает позицию с точки зрения игрока, чей сейчас ход.
+     * Оценка должна быть антисимметричной: evaluate(own, opp) == -evaluate(opp, own).
+     *
+     * @param own маска фишек игрока, чей ход.
+     * @param opp маска фишек соперника.
+     * @return оценка позиции.
+     */
+    int evaluate(long own, long opp);
+}
@@ -0,0 +1,16 @@
+package client;
+
+/**
+ * Получатель результатов итераций поиска: лучшего хода после каждой завершенной глубины.
+ */
+public interface IterationListener {
+
+    /**
+     * Вызывается в потоке поиска сразу после завершенной итерации.
+     *
+     * @param depth глубина итерации в полуходах; для решателя эндшпиля - число пустых клеток.
+     * @param move  номер клетки лучшего хода итерации.
+     * @param score оценка хода в шкале NegamaxSearch.
+     */
+    void onIteration(int depth, int move, int score);
+}
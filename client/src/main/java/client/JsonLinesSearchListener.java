@@ -0,0 +1,49 @@
+package client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Дописывает статистику каждого хода в файл JSON lines: один ход - одна строка JSON.
+ * Несколько ботов одного процесса могут писать в свои файлы или в один общий объект получателя.
+ */
+public class JsonLinesSearchListener implements SearchListener {
+    private static final Logger logger = LogManager.getLogger(JsonLinesSearchListener.class);
+
+    private final BufferedWriter writer;
+
+    /**
+     * @param path файл, в конец которого дописываются строки.
+     * @throws IOException если файл не открывается на запись.
+     */
+    public JsonLinesSearchListener(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void onMove(SearchTelemetry telemetry) {
+        try {
+            writer.write(telemetry.toJson());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Cannot write telemetry");
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Cannot close telemetry file");
+        }
+    }
+}
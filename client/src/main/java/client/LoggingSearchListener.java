@@ -0,0 +1,18 @@
+package client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Пишет статистику каждого хода строкой JSON в log4j с уровнем INFO. Строка собирается,
+ * только если уровень INFO включен для этого логгера.
+ */
+public class LoggingSearchListener implements SearchListener {
+    private static final Logger logger = LogManager.getLogger(LoggingSearchListener.class);
+
+    @Override
+    public void onMove(SearchTelemetry telemetry) {
+        logger.log(Level.INFO, "{}", telemetry);
+    }
+}
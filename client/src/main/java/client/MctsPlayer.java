@@ -0,0 +1,496 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бот на поиске Монте-Карло по дереву (MCTS) с выбором хода по UCT.
+ *
+ * Узлы дерева не объекты, а номера в массивах пула: ход, ведущий в узел, номер первого потомка, число потомков,
+ * число посещений и сумма результатов (2 за победу, 1 за ничью, 0 за поражение того, кто сделал ход в узел).
+ * Позиция узла не хранится, а получается ходами от корня при спуске. Потомки узла занимают подряд идущие
+ * номера и выделяются все сразу при раскрытии узла.
+ *
+ * Все потоки спускаются по одному дереву (tree-parallel). Посещение засчитывается при спуске, а результат -
+ * после разыгрыша, поэтому незавершенный разыгрыш временно выглядит как поражение (virtual loss) и другие
+ * потоки расходятся по другим ветвям. Разыгрыши случайные на масках фишек, угол играется, если он доступен.
+ *
+ * Между ходами дерево переиспользуется: новым корнем становится узел позиции после хода соперника.
+ * Если пул заполнен больше чем на три четверти, дерево строится заново.
+ */
+public class MctsPlayer extends Player {
+    static final int PASS = 64;
+    private static final int NO_NODE = -1;
+    private static final int EXPANDING = -1;
+    private static final int TERMINAL = -2;
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final int MAX_PATH = 128;
+    private static final int TIME_CHECK_MASK = 63;
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final int PRINCIPAL_VARIATION_LENGTH = 16;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+    private static final long SEED = 1;
+
+    int moveCounter = 1;
+    private final SearchSettings settings;
+    private final TimeManager timeManager;
+    private final int capacity;
+    private final byte[] moves;
+    private final int[] firstChild;
+    private final AtomicIntegerArray childCounts;
+    private final AtomicIntegerArray visits;
+    private final AtomicIntegerArray wins;
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicLong playouts = new AtomicLong();
+    private final Worker[] workers;
+    private final ForkJoinPool pool;
+    private final ForkJoinTask<?>[] tasks;
+
+    private int root = NO_NODE;
+    private long rootBlack;
+    private long rootWhite;
+    private Cell rootSide;
+    private int reusedVisits;
+    private final List<SearchListener> listeners = new ArrayList<>();
+
+    public MctsPlayer(Cell playerCell) {
+        this(playerCell, new SearchSettings());
+    }
+
+    /**
+     * Создает бота. Из настроек берутся время на ход, число потоков и параметры MCTS.
+     *
+     * @param playerCell цвет бота.
+     * @param settings   настройки.
+     */
+    public MctsPlayer(Cell playerCell, SearchSettings settings) {
+        super(playerCell);
+        if (settings.getThreads() <= 0 || settings.getMctsNodes() < PASS) {
+            throw new IllegalArgumentException();
+        }
+        this.settings = settings;
+        this.timeManager = new TimeManager(settings);
+        this.capacity = settings.getMctsNodes();
+        this.moves = new byte[capacity];
+        this.firstChild = new int[capacity];
+        this.childCounts = new AtomicIntegerArray(capacity);
+        this.visits = new AtomicIntegerArray(capacity);
+        this.wins = new AtomicIntegerArray(capacity);
+        this.workers = new Worker[settings.getThreads()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(SEED + i);
+        }
+        this.pool = workers.length == 1 ? null : new ForkJoinPool(workers.length - 1);
+        this.tasks = new ForkJoinTask<?>[workers.length - 1];
+        SearchListener listener = SearchListener.fromSettings(settings);
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Добавляет получателя статистики ходов.
+     */
+    public void addSearchListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Move makeMove(Board board) {
+        List<Move> availableMoves = board.getAllAvailableMoves(playerCell);
+        if (availableMoves.size() == 1) {
+            Move move = availableMoves.get(0);
+            publish(newTelemetry(SearchTelemetry.Source.FORCED, move.row * 8 + move.col));
+            board.placePiece(move.row, move.col, playerCell);
+            return move;
+        }
+        long deadline = timeManager.startMove();
+        prepareRoot(board.getBlackMask(), board.getWhiteMask());
+        search(deadline);
+        int best = bestChild();
+        long timeUsed = timeManager.endMove();
+        int square = moves[best];
+        if (!listeners.isEmpty()) {
+            publish(searchTelemetry(best, timeUsed));
+        }
+        long own = playerCell == Cell.BLACK ? rootBlack : rootWhite;
+        long opp = playerCell == Cell.BLACK ? rootWhite : rootBlack;
+        long flipped = BitBoard.flips(own, opp, square);
+        own |= flipped | (1L << square);
+        opp &= ~flipped;
+        root = best;
+        rootBlack = playerCell == Cell.BLACK ? own : opp;
+        rootWhite = playerCell == Cell.BLACK ? opp : own;
+        rootSide = playerCell.reverse();
+
+        Move move = new Move(BitBoard.row(square), BitBoard.col(square));
+        board.placePiece(move.row, move.col, playerCell);
+        return move;
+    }
+
+    /**
+     * Делает корнем узел текущей позиции: прежний корень или его потомка, если позиция получена из прежней
+     * ходом соперника (или его пропуском). Иначе начинает новое дерево. Корень раскрывается сразу, поэтому
+     * bestChild всегда выбирает из настоящих ходов; если для раскрытия прежнего узла в пуле нет места,
+     * дерево строится заново.
+     */
+    private void prepareRoot(long black, long white) {
+        int found = NO_NODE;
+        if (root != NO_NODE && allocated.get() <= capacity - capacity / 4) {
+            if (rootBlack == black && rootWhite == white && rootSide == playerCell) {
+                found = root;
+            } else if (rootSide == playerCell.reverse()) {
+                found = findChild(root, black, white);
+            }
+        }
+        if (found != NO_NODE && childCounts.get(found) <= 0
+                && allocated.get() + NegamaxSearch.MAX_MOVES > capacity) {
+            found = NO_NODE;
+        }
+        if (found == NO_NODE) {
+            allocated.set(0);
+            found = allocate(1);
+            initNode(found, PASS);
+        }
+        root = found;
+        rootBlack = black;
+        rootWhite = white;
+        rootSide = playerCell;
+        reusedVisits = visits.get(root);
+        if (childCounts.get(root) <= 0) {
+            expand(root, playerCell == Cell.BLACK ? black : white, playerCell == Cell.BLACK ? white : black);
+        }
+    }
+
+    private int findChild(int node, long black, long white) {
+        int count = childCounts.get(node);
+        long own = rootSide == Cell.BLACK ? rootBlack : rootWhite;
+        long opp = rootSide == Cell.BLACK ? rootWhite : rootBlack;
+        for (int child = firstChild[node]; child < firstChild[node] + count; child++) {
+            long childOwn = own;
+            long childOpp = opp;
+            if (moves[child] != PASS) {
+                long flipped = BitBoard.flips(own, opp, moves[child]);
+                childOwn = own | flipped | (1L << moves[child]);
+                childOpp = opp & ~flipped;
+            }
+            long childBlack = rootSide == Cell.BLACK ? childOwn : childOpp;
+            long childWhite = rootSide == Cell.BLACK ? childOpp : childOwn;
+            if (childBlack == black && childWhite == white) {
+                return child;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Разыгрывает партии во всех потоках до дедлайна или до лимита разыгрышей из настроек.
+     */
+    private void search(long deadline) {
+        playouts.set(0);
+        for (int i = 0; i < tasks.length; i++) {
+            Worker worker = workers[i + 1];
+            tasks[i] = pool.submit(() -> worker.run(deadline));
+        }
+        workers[0].run(deadline);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].join();
+            tasks[i] = null;
+        }
+    }
+
+    /**
+     * Возвращает потомка корня с наибольшим числом посещений.
+     */
+    private int bestChild() {
+        int count = childCounts.get(root);
+        int best = firstChild[root];
+        for (int child = best + 1; child < firstChild[root] + count; child++) {
+            if (visits.get(child) > visits.get(best)) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Собирает статистику хода: узлы - число разыгрышей, оценка - процент выигрыша выбранного хода,
+     * главный вариант - путь по самым посещаемым потомкам.
+     */
+    private SearchTelemetry searchTelemetry(int best, long timeUsed) {
+        SearchTelemetry telemetry = newTelemetry(SearchTelemetry.Source.MCTS, moves[best]);
+        telemetry.score = (int) Math.round(100.0 * wins.get(best) / (WIN * Math.max(1, visits.get(best))));
+        telemetry.nodes = playouts.get();
+        telemetry.nodesPerSecond = timeUsed > 0 ? (long) (telemetry.nodes * 1e9 / timeUsed) : 0;
+        telemetry.timeUsedMillis = timeUsed / NANOS_IN_MILLI;
+        telemetry.budgetMillis = timeManager.getMoveBudget() / NANOS_IN_MILLI;
+        int node = best;
+        while (telemetry.principalVariation.size() < PRINCIPAL_VARIATION_LENGTH) {
+            telemetry.principalVariation.add(moves[node] == PASS ? "pass" : SearchTelemetry.squareName(moves[node]));
+            int count = childCounts.get(node);
+            if (count <= 0) {
+                break;
+            }
+            int next = firstChild[node];
+            for (int child = next + 1; child < firstChild[node] + count; child++) {
+                if (visits.get(child) > visits.get(next)) {
+                    next = child;
+                }
+            }
+            if (visits.get(next) == 0) {
+                break;
+            }
+            node = next;
+        }
+        telemetry.depth = telemetry.principalVariation.size();
+        return telemetry;
+    }
+
+    private SearchTelemetry newTelemetry(SearchTelemetry.Source source, int square) {
+        SearchTelemetry telemetry = new SearchTelemetry();
+        telemetry.moveNumber = moveCounter++;
+        telemetry.color = playerCell.name();
+        telemetry.source = source;
+        telemetry.move = SearchTelemetry.squareName(square);
+        telemetry.principalVariation = new ArrayList<>();
+        return telemetry;
+    }
+
+    private void publish(SearchTelemetry telemetry) {
+        for (SearchListener listener : listeners) {
+            listener.onMove(telemetry);
+        }
+    }
+
+    private int allocate(int count) {
+        int first = allocated.getAndAdd(count);
+        return first + count <= capacity ? first : NO_NODE;
+    }
+
+    private void initNode(int node, int square) {
+        moves[node] = (byte) square;
+        childCounts.set(node, 0);
+        visits.set(node, 0);
+        wins.set(node, 0);
+    }
+
+    /**
+     * Раскрывает узел: выделяет потомков на все ходы (или один потомок-пропуск) и публикует их число.
+     *
+     * @return число потомков или неположительное число, если узел раскрывает другой поток, партия
+     * закончена или пул заполнен.
+     */
+    private int expand(int node, long own, long opp) {
+        if (!childCounts.compareAndSet(node, 0, EXPANDING)) {
+            return EXPANDING;
+        }
+        long legal = BitBoard.legalMoves(own, opp);
+        if (legal == 0 && BitBoard.legalMoves(opp, own) == 0) {
+            childCounts.set(node, TERMINAL);
+            return TERMINAL;
+        }
+        int count = legal == 0 ? 1 : Long.bitCount(legal);
+        int first = allocated.get() + count <= capacity ? allocate(count) : NO_NODE;
+        if (first == NO_NODE) {
+            childCounts.set(node, 0);
+            return EXPANDING;
+        }
+        if (legal == 0) {
+            initNode(first, PASS);
+        } else {
+            for (int child = first; legal != 0; legal &= legal - 1, child++) {
+                initNode(child, Long.numberOfTrailingZeros(legal));
+            }
+        }
+        firstChild[node] = first;
+        childCounts.set(node, count);
+        return count;
+    }
+
+    /**
+     * Выбирает потомка по UCT: сначала непосещенные, затем с наибольшей суммой доли побед и поправки
+     * на малое число посещений.
+     */
+    private int select(int node, int count) {
+        int first = firstChild[node];
+        double logParent = Math.log(Math.max(1, visits.get(node)));
+        double exploration = settings.getMctsExploration();
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count; child++) {
+            int childVisits = visits.get(child);
+            if (childVisits == 0) {
+                return child;
+            }
+            double value = wins.get(child) / (2.0 * childVisits) + exploration * Math.sqrt(logParent / childVisits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Поток поиска со своим путем спуска и генератором случайных чисел.
+     */
+    private final class Worker {
+        private final int[] path = new int[MAX_PATH];
+        private long random;
+
+        Worker(long seed) {
+            this.random = seed * 0x9E3779B97F4A7C15L + 1;
+        }
+
+        void run(long deadline) {
+            long limit = settings.getMctsPlayouts();
+            for (long done = 1; ; done++) {
+                if (limit > 0 && playouts.incrementAndGet() > limit) {
+                    playouts.decrementAndGet();
+                    return;
+                }
+                if (limit <= 0) {
+                    playouts.incrementAndGet();
+                }
+                iterate();
+                if ((done & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Один цикл MCTS: спуск по UCT до нового узла, раскрытие, разыгрыш и обратное распространение результата.
+         */
+        private void iterate() {
+            long own = rootSide == Cell.BLACK ? rootBlack : rootWhite;
+            long opp = rootSide == Cell.BLACK ? rootWhite : rootBlack;
+            int node = root;
+            int length = 0;
+            path[length++] = node;
+            visits.incrementAndGet(node);
+            while (length < MAX_PATH) {
+                int count = childCounts.get(node);
+                if (count == 0) {
+                    count = expand(node, own, opp);
+                }
+                if (count <= 0) {
+                    break;
+                }
+                int child = select(node, count);
+                int square = moves[child];
+                if (square == PASS) {
+                    long swap = own;
+                    own = opp;
+                    opp = swap;
+                } else {
+                    long flipped = BitBoard.flips(own, opp, square);
+                    long ownAfter = own | flipped | (1L << square);
+                    own = opp & ~flipped;
+                    opp = ownAfter;
+                }
+                path[length++] = child;
+                if (visits.getAndIncrement(child) == 0) {
+                    break;
+                }
+                node = child;
+            }
+
+            int difference = playout(own, opp);
+            int reward = difference < 0 ? WIN : difference == 0 ? DRAW : 0;
+            for (int i = length - 1; i > 0; i--) {
+                wins.addAndGet(path[i], reward);
+                reward = WIN - reward;
+            }
+        }
+
+        /**
+         * Доигрывает партию случайными ходами, угол играется, если он доступен.
+         *
+         * @return итоговая разница фишек с точки зрения игрока, чей ход в начале разыгрыша.
+         */
+        private int playout(long own, long opp) {
+            boolean starterToMove = true;
+            while (true) {
+                long legal = BitBoard.legalMoves(own, opp);
+                if (legal == 0) {
+                    if (BitBoard.legalMoves(opp, own) == 0) {
+                        break;
+                    }
+                } else {
+                    long corners = legal & CORNERS;
+                    long candidates = corners != 0 ? corners : legal;
+                    for (int skip = nextInt(Long.bitCount(candidates)); skip > 0; skip--) {
+                        candidates &= candidates - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(candidates);
+                    long flipped = BitBoard.flips(own, opp, square);
+                    own |= flipped | (1L << square);
+                    opp &= ~flipped;
+                }
+                long swap = own;
+                own = opp;
+                opp = swap;
+                starterToMove = !starterToMove;
+            }
+            int difference = Long.bitCount(own) - Long.bitCount(opp);
+            return starterToMove ? difference : -difference;
+        }
+
+        private int nextInt(int bound) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) (((random >>> 32) * bound) >>> 32);
+        }
+    }
+
+    /**
+     * Останавливает потоки пула и закрывает получателей статистики.
+     */
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        for (SearchListener listener : listeners) {
+            listener.close();
+        }
+    }
+
+    /**
+     * Возвращает число разыгрышей последнего хода.
+     */
+    public long getPlayouts() {
+        return playouts.get();
+    }
+
+    /**
+     * Возвращает число занятых узлов пула.
+     */
+    public int getTreeSize() {
+        return Math.min(capacity, allocated.get());
+    }
+
+    /**
+     * Возвращает число посещений корня, унаследованных от предыдущего хода при переиспользовании дерева.
+     */
+    public int getReusedVisits() {
+        return reusedVisits;
+    }
+
+    public String getPlayerID() {
+        return "Mcts" + playerId;
+    }
+}
@@ -0,0 +1,153 @@
+package client;
+
+import logic.BitBoard;
+
+import java.util.Arrays;
+
+/**
+ * Сортировка ходов для альфа-бета поиска.
+ *
+ * Каждому ходу выставляется приоритет, ходы сортируются по убыванию приоритета:
+ * ход из таблицы транспозиций, углы (и штраф за клетки по диагонали от свободных углов), ходы-убийцы
+ * текущего уровня, мобильность соперника после хода (только на больших оставшихся глубинах)
+ * и таблица истории по клетке и цвету. Каждую эвристику можно отключить в настройках поиска.
+ */
+public final class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CORNER_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = 1 << 27;
+    private static final int SECOND_KILLER_SCORE = 1 << 26;
+    private static final int X_SQUARE_PENALTY = 1 << 25;
+    private static final int MOBILITY_SHIFT = 16;
+    private static final int MAX_HISTORY = (1 << MOBILITY_SHIFT) - 1;
+    private static final int NO_KILLER = -1;
+
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long X_SQUARES = 0x0042000000004200L;
+
+    private final SearchSettings settings;
+    private final int[][] killers;
+    private final int[][] history = new int[2][64];
+    private final int[][] scoreBuffers;
+
+    public MoveOrdering(SearchSettings settings, int maxPly, int maxMoves) {
+        this.settings = settings;
+        this.killers = new int[maxPly][2];
+        this.scoreBuffers = new int[maxPly][maxMoves];
+        clearKillers();
+    }
+
+    /**
+     * Раскладывает ходы из маски в буфер уровня ply в порядке убывания приоритета.
+     *
+     * @param buffer   буфер ходов уровня ply.
+     * @param moves    маска допустимых ходов.
+     * @param own      маска фишек игрока, чей ход.
+     * @param opp      маска фишек соперника.
+     * @param hashMove ход из таблицы транспозиций или TranspositionTable.NO_MOVE.
+     * @param ply      расстояние от корня.
+     * @param depth    оставшаяся глубина поиска.
+     * @param color    0 - черные, 1 - белые.
+     * @return количество ходов.
+     */
+    public int order(int[] buffer, long moves, long own, long opp, int hashMove, int ply, int depth, int color) {
+        int[] scores = scoreBuffers[ply];
+        boolean useMobility = settings.isMobilityOrdering() && depth >= settings.getMobilityOrderingMinDepth();
+        int count = 0;
+        for (long rest = moves; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            long bit = 1L << square;
+            int score = 0;
+            if (settings.isHashMoveOrdering() && square == hashMove) {
+                score += HASH_MOVE_SCORE;
+            }
+            if (settings.isSquarePriorityOrdering()) {
+                if ((bit & CORNERS) != 0) {
+                    score += CORNER_SCORE;
+                } else if ((bit & X_SQUARES) != 0 && (adjacentCorner(square) & (own | opp)) == 0) {
+                    score -= X_SQUARE_PENALTY;
+                }
+            }
+            if (settings.isKillerMoves()) {
+                if (killers[ply][0] == square) {
+                    score += FIRST_KILLER_SCORE;
+                } else if (killers[ply][1] == square) {
+                    score += SECOND_KILLER_SCORE;
+                }
+            }
+            if (useMobility) {
+                long flipped = BitBoard.flips(own, opp, square);
+                int opponentMobility = Long.bitCount(BitBoard.legalMoves(opp & ~flipped, own | flipped | bit));
+                score += (64 - opponentMobility) << MOBILITY_SHIFT;
+            }
+            if (settings.isHistoryHeuristic()) {
+                score += history[color][square];
+            }
+
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            buffer[i] = square;
+        }
+        return count;
+    }
+
+    /**
+     * Запоминает ход, который вызвал отсечение: он становится ходом-убийцей уровня и получает бонус в истории.
+     */
+    public void recordCutoff(int square, int ply, int depth, int color) {
+        if (settings.isKillerMoves() && killers[ply][0] != square) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = square;
+        }
+        if (settings.isHistoryHeuristic()) {
+            history[color][square] += depth * depth;
+            if (history[color][square] > MAX_HISTORY) {
+                ageHistory();
+            }
+        }
+    }
+
+    /**
+     * Готовит сортировку к новому поиску: ходы-убийцы забываются, история ослабевает вдвое.
+     */
+    public void newSearch() {
+        clearKillers();
+        ageHistory();
+    }
+
+    /**
+     * Забывает все, что сортировка узнала в прежних поисках: ходы-убийцы и историю. Вызывается перед новой партией.
+     */
+    public void clear() {
+        clearKillers();
+        for (int[] colorHistory : history) {
+            Arrays.fill(colorHistory, 0);
+        }
+    }
+
+    private void clearKillers() {
+        for (int[] killer : killers) {
+            killer[0] = NO_KILLER;
+            killer[1] = NO_KILLER;
+        }
+    }
+
+    private void ageHistory() {
+        for (int[] colorHistory : history) {
+            for (int square = 0; square < colorHistory.length; square++) {
+                colorHistory[square] >>= 1;
+            }
+        }
+    }
+
+    private static long adjacentCorner(int square) {
+        int row = BitBoard.row(square) < 4 ? 0 : 7;
+        int col = BitBoard.col(square) < 4 ? 0 : 7;
+        return 1L << BitBoard.square(row, col);
+    }
+}
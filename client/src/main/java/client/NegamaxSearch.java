@@ -0,0 +1,442 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.PatternEvaluator;
+import logic.Symmetry;
+import logic.Zobrist;
+
+/**
+ * Поиск negamax с альфа-бета отсечением по окну (alpha, beta).
+ *
+ * Поиск работает прямо с масками фишек и не создает объектов: дочерние узлы не хранятся,
+ * а ходы каждого уровня раскладываются в заранее выделенные буферы.
+ *
+ * Итеративное углубление ищет на глубину 1, 2, ... до дедлайна и возвращает лучший ход последней
+ * полностью завершенной итерации.
+ *
+ * Ходы после первого ищутся нулевым окном (PVS) и перепроверяются полным окном, только если оказались
+ * лучше alpha. Каждая итерация углубления начинается с окна вокруг оценки предыдущей итерации
+ * (aspiration windows), окно расширяется, если оценка вышла за его границу.
+ *
+ * В позициях, где пустых клеток не меньше symmetricTableEmpties, таблица транспозиций индексируется ключом
+ * канонической формы позиции (Symmetry), а лучший ход записывается в ориентации канонической формы, поэтому
+ * симметричные позиции дебюта делят одну запись.
+ *
+ * С параметрами ProbCut узлы, для которых короткий поиск предсказывает выход оценки за окно,
+ * отсекаются без полного поиска (Multi-ProbCut).
+ *
+ * Порядок ходов в каждом узле задает MoveOrdering, статистика поиска собирается в SearchStatistics.
+ * С оценкой PatternWeightEvaluator индексы шаблонов обновляются на каждом ходе и возврате хода,
+ * и лист оценивается чтением готовых весов.
+ */
+public final class NegamaxSearch {
+    public static final int WIN_SCORE = 5000;
+    static final int INFINITY = WIN_SCORE + 100;
+    static final int MAX_PLY = 128;
+    static final int MAX_MOVES = 64;
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final int NO_CUT = Integer.MIN_VALUE;
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final PatternEvaluator patterns;
+    private final int[] patternIndices;
+    private final MoveOrdering moveOrdering;
+    private final boolean principalVariationSearch;
+    private final boolean aspirationWindows;
+    private final int aspirationWindow;
+    private final double probCutThreshold;
+    private final int symmetricTableEmpties;
+    private ProbCut probCut;
+    private IterationListener iterationListener;
+    private final SearchStatistics statistics = new SearchStatistics();
+    private final int[][] moveBuffers = new int[MAX_PLY][MAX_MOVES];
+
+    private int bestMove = TranspositionTable.NO_MOVE;
+    private int bestScore;
+    private int completedDepth;
+    private long deadline = Long.MAX_VALUE;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    public NegamaxSearch(TranspositionTable table, Evaluator evaluator) {
+        this(table, evaluator, new SearchSettings());
+    }
+
+    /**
+     * Создает поиск с сортировкой ходов по эвристикам, включенным в настройках.
+     */
+    public NegamaxSearch(TranspositionTable table, Evaluator evaluator, SearchSettings settings) {
+        this.table = table;
+        this.evaluator = evaluator;
+        this.patterns = evaluator instanceof PatternWeightEvaluator patternEvaluator
+                ? patternEvaluator.getPatterns() : null;
+        this.patternIndices = patterns == null ? null : new int[PatternEvaluator.getInstanceCount()];
+        this.moveOrdering = new MoveOrdering(settings, MAX_PLY, MAX_MOVES);
+        this.principalVariationSearch = settings.isPrincipalVariationSearch();
+        this.aspirationWindows = settings.isAspirationWindows();
+        this.aspirationWindow = settings.getAspirationWindow();
+        this.probCutThreshold = settings.getProbCutThreshold();
+        this.symmetricTableEmpties = settings.getSymmetricTableEmpties();
+    }
+
+    /**
+     * Ищет лучший ход на заданную глубину.
+     *
+     * @param own   маска фишек игрока, чей ход.
+     * @param opp   маска фишек соперника.
+     * @param side  цвет игрока, чей ход.
+     * @param depth глубина поиска в полуходах.
+     * @return номер клетки лучшего хода или TranspositionTable.NO_MOVE, если ходов нет.
+     */
+    public int search(long own, long opp, Cell side, int depth) {
+        statistics.reset();
+        moveOrdering.newSearch();
+        stopped = false;
+        deadline = Long.MAX_VALUE;
+        bestMove = TranspositionTable.NO_MOVE;
+        long key = side == Cell.BLACK ? Zobrist.hash(own, opp, side) : Zobrist.hash(opp, own, side);
+        computePatternIndices(own, opp, side);
+        bestScore = negamax(own, opp, side, key, depth, -INFINITY, INFINITY, 0);
+        completedDepth = depth;
+        statistics.recordIteration(depth, statistics.getNodes());
+        return bestMove;
+    }
+
+    /**
+     * Ищет лучший ход итеративным углублением до дедлайна.
+     *
+     * @param own      маска фишек игрока, чей ход.
+     * @param opp      маска фишек соперника.
+     * @param side     цвет игрока, чей ход.
+     * @param maxDepth максимальная глубина поиска в полуходах.
+     * @param deadline абсолютный дедлайн в единицах System.nanoTime().
+     * @return номер клетки лучшего хода последней завершенной итерации или TranspositionTable.NO_MOVE,
+     * если ходов нет.
+     */
+    public int searchIterative(long own, long opp, Cell side, int maxDepth, long deadline) {
+        return searchIterative(own, opp, side, 1, maxDepth, deadline);
+    }
+
+    /**
+     * Итеративное углубление, которое начинается с глубины firstDepth. Вспомогательные потоки
+     * параллельного поиска начинают с разных глубин, чтобы не повторять работу друг друга.
+     */
+    int searchIterative(long own, long opp, Cell side, int firstDepth, int maxDepth, long deadline) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            return TranspositionTable.NO_MOVE;
+        }
+        statistics.reset();
+        moveOrdering.newSearch();
+        stopped = false;
+        this.deadline = deadline;
+        long key = side == Cell.BLACK ? Zobrist.hash(own, opp, side) : Zobrist.hash(opp, own, side);
+        computePatternIndices(own, opp, side);
+        int lastDepth = Math.min(maxDepth, 64 - Long.bitCount(own | opp));
+        int resultMove = Long.numberOfTrailingZeros(moves);
+        int resultScore = 0;
+        completedDepth = 0;
+        for (int depth = Math.min(firstDepth, lastDepth); depth <= lastDepth; depth++) {
+            long nodesBefore = statistics.getNodes();
+            int score;
+            if (aspirationWindows && completedDepth > 0) {
+                score = searchAspiration(own, opp, side, key, depth, resultScore);
+            } else {
+                bestMove = TranspositionTable.NO_MOVE;
+                score = negamax(own, opp, side, key, depth, -INFINITY, INFINITY, 0);
+            }
+            if (stopped) {
+                break;
+            }
+            statistics.recordIteration(depth, statistics.getNodes() - nodesBefore);
+            resultMove = bestMove;
+            resultScore = score;
+            completedDepth = depth;
+            if (iterationListener != null) {
+                iterationListener.onIteration(depth, resultMove, resultScore);
+            }
+        }
+        this.deadline = Long.MAX_VALUE;
+        bestMove = resultMove;
+        bestScore = resultScore;
+        return bestMove;
+    }
+
+    /**
+     * Ищет итерацию в окне вокруг оценки предыдущей итерации, расширяя окно вдвое в ту сторону,
+     * куда вышла оценка, пока оценка не окажется внутри окна.
+     */
+    private int searchAspiration(long own, long opp, Cell side, long key, int depth, int previousScore) {
+        int delta = aspirationWindow;
+        int alpha = Math.max(-INFINITY, previousScore - delta);
+        int beta = Math.min(INFINITY, previousScore + delta);
+        while (true) {
+            bestMove = TranspositionTable.NO_MOVE;
+            int score = negamax(own, opp, side, key, depth, alpha, beta, 0);
+            if (stopped) {
+                return score;
+            }
+            if (score <= alpha && alpha > -INFINITY) {
+                delta *= 2;
+                alpha = Math.max(-INFINITY, score - delta);
+            } else if (score >= beta && beta < INFINITY) {
+                delta *= 2;
+                beta = Math.min(INFINITY, score + delta);
+            } else {
+                return score;
+            }
+            statistics.recordAspirationResearch();
+        }
+    }
+
+    private int negamax(long own, long opp, Cell side, long key, int depth, int alpha, int beta, int ply) {
+        statistics.addNode(ply);
+        if ((statistics.getNodes() & TIME_CHECK_MASK) == 0 && (stopRequested || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return finalScore(own, opp);
+            }
+            return -negamax(opp, own, side.reverse(), key ^ Zobrist.sideChangeKey(), depth, -beta, -alpha, ply + 1);
+        }
+        if (depth == 0) {
+            return evaluate(own, opp, side);
+        }
+
+        int alphaOriginal = alpha;
+        int hashMove = TranspositionTable.NO_MOVE;
+        int symmetry = Symmetry.IDENTITY;
+        long tableKey = key;
+        if (64 - Long.bitCount(own | opp) >= symmetricTableEmpties) {
+            long black = side == Cell.BLACK ? own : opp;
+            long white = side == Cell.BLACK ? opp : own;
+            symmetry = Symmetry.canonicalSymmetry(black, white);
+            if (symmetry != Symmetry.IDENTITY) {
+                tableKey = Zobrist.hash(Symmetry.transform(black, symmetry), Symmetry.transform(white, symmetry), side);
+            }
+        }
+        long entry = table.probe(tableKey);
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.bestMove(entry);
+            if (symmetry != Symmetry.IDENTITY && hashMove != TranspositionTable.NO_MOVE) {
+                hashMove = Symmetry.transformSquare(hashMove, Symmetry.inverse(symmetry));
+            }
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    table.recordCutoff();
+                    return score;
+                }
+            }
+        }
+
+        if (probCut != null && ply > 0 && alpha > -WIN_SCORE && beta < WIN_SCORE) {
+            int cut = probCut(own, opp, side, key, depth, alpha, beta, ply);
+            if (stopped) {
+                return 0;
+            }
+            if (cut != NO_CUT) {
+                return cut;
+            }
+        }
+
+        int[] buffer = moveBuffers[ply];
+        int color = side == Cell.BLACK ? 0 : 1;
+        int count = moveOrdering.order(buffer, moves, own, opp, hashMove, ply, depth, color);
+        int best = -INFINITY;
+        int bestSquare = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int square = buffer[i];
+            long flipped = BitBoard.flips(own, opp, square);
+            long childKey = key ^ Zobrist.discKey(square, side) ^ Zobrist.flipKeys(flipped) ^ Zobrist.sideChangeKey();
+            if (patterns != null) {
+                PatternEvaluator.play(patternIndices, square, flipped, side);
+            }
+            long childOwn = opp & ~flipped;
+            long childOpp = own | flipped | (1L << square);
+            int score;
+            if (principalVariationSearch && i > 0 && beta - alpha > 1) {
+                score = -negamax(childOwn, childOpp, side.reverse(), childKey, depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta && !stopped) {
+                    statistics.recordPvsResearch();
+                    score = -negamax(childOwn, childOpp, side.reverse(), childKey, depth - 1, -beta, -alpha, ply + 1);
+                }
+            } else {
+                score = -negamax(childOwn, childOpp, side.reverse(), childKey, depth - 1, -beta, -alpha, ply + 1);
+            }
+            if (patterns != null) {
+                PatternEvaluator.undo(patternIndices, square, flipped, side);
+            }
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestSquare = square;
+                if (ply == 0) {
+                    bestMove = square;
+                }
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                statistics.recordBetaCutoff(i);
+                moveOrdering.recordCutoff(square, ply, depth, color);
+                break;
+            }
+        }
+
+        int bound = best <= alphaOriginal ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        if (symmetry != Symmetry.IDENTITY && bestSquare != TranspositionTable.NO_MOVE) {
+            bestSquare = Symmetry.transformSquare(bestSquare, symmetry);
+        }
+        table.store(tableKey, depth, bound, best, bestSquare);
+        return best;
+    }
+
+    /**
+     * Проверки Multi-ProbCut для фазы и глубины узла: короткий поиск нулевым окном на границе,
+     * за которой оценка глубокого поиска выходит за окно с запасом в probCutThreshold ошибок регрессии.
+     *
+     * @return beta или alpha, если узел отсечен, иначе NO_CUT.
+     */
+    private int probCut(long own, long opp, Cell side, long key, int depth, int alpha, int beta, int ply) {
+        int phase = PatternEvaluator.phase(64 - Long.bitCount(own | opp));
+        for (ProbCut.Check check : probCut.checks(phase, depth)) {
+            statistics.recordProbCutTry();
+            double margin = probCutThreshold * check.sigma;
+            int high = (int) Math.ceil((beta + margin - check.b) / check.a);
+            if (high < WIN_SCORE
+                    && negamax(own, opp, side, key, check.shallowDepth, high - 1, high, ply) >= high) {
+                statistics.recordProbCut();
+                return beta;
+            }
+            int low = (int) Math.floor((alpha - margin - check.b) / check.a);
+            if (!stopped && low > -WIN_SCORE
+                    && negamax(own, opp, side, key, check.shallowDepth, low, low + 1, ply) <= low) {
+                statistics.recordProbCut();
+                return alpha;
+            }
+            if (stopped) {
+                return NO_CUT;
+            }
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Задает параметры Multi-ProbCut или выключает его (null).
+     */
+    void setProbCut(ProbCut probCut) {
+        this.probCut = probCut;
+    }
+
+    /**
+     * Забывает ходы-убийцы и историю сортировки, накопленные прежними поисками.
+     */
+    void clearMoveOrdering() {
+        moveOrdering.clear();
+    }
+
+    /**
+     * Задает получателя результатов итераций searchIterative или убирает его (null).
+     */
+    void setIterationListener(IterationListener iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    private void computePatternIndices(long own, long opp, Cell side) {
+        if (patterns != null) {
+            PatternEvaluator.computeIndices(side == Cell.BLACK ? own : opp, side == Cell.BLACK ? opp : own,
+                    patternIndices);
+        }
+    }
+
+    private int evaluate(long own, long opp, Cell side) {
+        if (patterns == null) {
+            return evaluator.evaluate(own, opp);
+        }
+        return side == Cell.BLACK ? patterns.evaluate(patternIndices, own, opp)
+                : -patterns.evaluate(patternIndices, opp, own);
+    }
+
+    /**
+     * Просит поиск, запущенный в другом потоке, остановиться. Запрос действует, пока не будет снят
+     * методом clearStopRequest.
+     */
+    void requestStop() {
+        stopRequested = true;
+    }
+
+    void clearStopRequest() {
+        stopRequested = false;
+    }
+
+    /**
+     * Оценка законченной партии: победа и поражение всегда важнее любой эвристической оценки.
+     */
+    static int finalScore(long own, long opp) {
+        return differenceScore(Long.bitCount(own) - Long.bitCount(opp));
+    }
+
+    /**
+     * Оценка законченной партии по разнице фишек.
+     */
+    static int differenceScore(int difference) {
+        if (difference > 0) {
+            return WIN_SCORE + difference;
+        }
+        if (difference < 0) {
+            return -WIN_SCORE + difference;
+        }
+        return 0;
+    }
+
+    /**
+     * Переводит оценку законченной партии обратно в разницу фишек; обратна differenceScore.
+     */
+    static int discDifference(int score) {
+        if (score > WIN_SCORE) {
+            return score - WIN_SCORE;
+        }
+        if (score < -WIN_SCORE) {
+            return score + WIN_SCORE;
+        }
+        return 0;
+    }
+
+    public long getNodes() {
+        return statistics.getNodes();
+    }
+
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Возвращает глубину последней полностью завершенной итерации.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+}
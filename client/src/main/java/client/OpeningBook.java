@@ -0,0 +1,139 @@
+package client;
+
+import logic.Cell;
+import logic.Symmetry;
+import logic.Zobrist;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Дебютная книга: отсортированный двоичный файл записей (ключ позиции, ход, оценка, число партий).
+ *
+ * Файл начинается с заголовка (MAGIC и число записей), за ним идут записи по RECORD_BYTES байт,
+ * отсортированные по ключу. Ключ - ключ Зобриста канонической формы позиции (Symmetry.canonicalKey),
+ * ход записан в ориентации канонической формы. Файл отображается в память, поиск - двоичный,
+ * поэтому ответ книги не требует ни поиска, ни чтения всего файла.
+ */
+public final class OpeningBook {
+    static final long MAGIC = 0x4F424F4F4B563032L;
+    static final int HEADER_BYTES = 2 * Long.BYTES;
+    static final int RECORD_BYTES = 16;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int minCount;
+
+    private OpeningBook(ByteBuffer buffer, int size, int minCount) {
+        this.buffer = buffer;
+        this.size = size;
+        this.minCount = minCount;
+    }
+
+    /**
+     * Отображает файл книги в память.
+     *
+     * @param path     путь к файлу книги.
+     * @param minCount минимальное число партий, при котором ход книги считается надежным.
+     * @return книга.
+     * @throws IOException если файл не читается или это не файл книги.
+     */
+    public static OpeningBook open(Path path, int minCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            long size = buffer.getLong(Long.BYTES);
+            if (size < 0 || HEADER_BYTES + size * RECORD_BYTES != buffer.capacity()) {
+                throw new IOException("Broken opening book: " + path);
+            }
+            return new OpeningBook(buffer, (int) size, minCount);
+        }
+    }
+
+    /**
+     * Ищет ход в книге для позиции с учетом восьми симметрий доски.
+     *
+     * @param black маска черных фишек.
+     * @param white маска белых фишек.
+     * @param side  цвет игрока, чей ход.
+     * @return номер клетки хода с лучшей оценкой (при равенстве - сыгранного в большем числе партий)
+     * или TranspositionTable.NO_MOVE, если позиции нет в книге.
+     */
+    public int lookup(long black, long white, Cell side) {
+        int symmetry = Symmetry.canonicalSymmetry(black, white);
+        long key = Zobrist.hash(Symmetry.transform(black, symmetry), Symmetry.transform(white, symmetry), side);
+        int index = lowerBound(key);
+        int bestMove = TranspositionTable.NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+        int bestCount = 0;
+        for (; index < size && keyAt(index) == key; index++) {
+            int offset = HEADER_BYTES + index * RECORD_BYTES;
+            int count = buffer.getInt(offset + Long.BYTES);
+            int score = buffer.getShort(offset + Long.BYTES + Integer.BYTES);
+            int move = buffer.get(offset + Long.BYTES + Integer.BYTES + Short.BYTES);
+            if (count >= minCount && (score > bestScore || score == bestScore && count > bestCount)) {
+                bestMove = move;
+                bestScore = score;
+                bestCount = count;
+            }
+        }
+        if (bestMove == TranspositionTable.NO_MOVE) {
+            return bestMove;
+        }
+        return Symmetry.transformSquare(bestMove, Symmetry.inverse(symmetry));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    /**
+     * Записывает книгу в файл. Записи сортируются по ключу, порядок записей в массивах не важен.
+     */
+    static void write(Path path, long[] keys, int[] moves, int[] scores, int[] counts) throws IOException {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> keys[first] != keys[second]
+                ? Long.compare(keys[first], keys[second]) : Integer.compare(moves[first], moves[second]));
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.writeLong(MAGIC);
+            output.writeLong(keys.length);
+            for (int i : order) {
+                output.writeLong(keys[i]);
+                output.writeInt(counts[i]);
+                output.writeShort(scores[i]);
+                output.writeByte(moves[i]);
+                output.writeByte(0);
+            }
+        }
+    }
+}
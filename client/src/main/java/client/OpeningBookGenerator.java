@@ -0,0 +1,276 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.Symmetry;
+import logic.Zobrist;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Генератор дебютной книги.
+ *
+ * Партии берутся из самоигры (negamax на небольшую глубину со случайными ходами) или из текстового файла,
+ * где каждая строка - партия в записи вида "f5d6c3d3...". Первые plies ходов каждой партии складываются
+ * в дерево позиций, приведенных к канонической симметрии. Позиции за границей книги оцениваются negamax
+ * на глубину LEAF_DEPTH, оценки поднимаются по дереву минимаксом и записываются в файл книги.
+ *
+ * Запуск: OpeningBookGenerator <файл книги> <число партий самоигры> <глубина книги в ходах> [файл партий].
+ */
+public final class OpeningBookGenerator {
+    private static final Logger logger = LogManager.getLogger(OpeningBookGenerator.class);
+    static final int LEAF_DEPTH = 6;
+    private static final int SELF_PLAY_DEPTH = 4;
+    private static final double SELF_PLAY_RANDOMNESS = 0.2;
+    private static final long SELF_PLAY_SEED = 1;
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final NegamaxSearch search = new NegamaxSearch(new TranspositionTable(64), new SquareWeightEvaluator());
+    private final int plies;
+
+    /**
+     * Позиция книги в канонической ориентации и число партий, в которых из нее был сделан каждый ход.
+     */
+    private static final class Node {
+        final long black;
+        final long white;
+        final Cell side;
+        final int[] counts = new int[64];
+        final int[] scores = new int[64];
+        boolean evaluated;
+        int value;
+
+        Node(long black, long white, Cell side) {
+            this.black = black;
+            this.white = white;
+            this.side = side;
+        }
+    }
+
+    OpeningBookGenerator(int plies) {
+        this.plies = plies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            logger.log(Level.ERROR, "Usage: OpeningBookGenerator <book> <self-play games> <plies> [games file]");
+            throw new IllegalArgumentException();
+        }
+        OpeningBookGenerator generator = new OpeningBookGenerator(Integer.parseInt(args[2]));
+        List<int[]> games = generator.playGames(Integer.parseInt(args[1]), new Random(SELF_PLAY_SEED));
+        if (args.length > 3) {
+            games.addAll(importGames(Path.of(args[3])));
+        }
+        for (int[] game : games) {
+            generator.addGame(game);
+        }
+        int records = generator.write(Path.of(args[0]));
+        System.out.println("games: " + games.size() + " positions: " + generator.nodes.size() + " records: " + records);
+    }
+
+    /**
+     * Играет партии самоигры на глубину книги.
+     *
+     * @return ходы каждой партии (номера клеток), пропуски ходов не записываются.
+     */
+    List<int[]> playGames(int games, Random random) {
+        List<int[]> result = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            BitBoard initial = new BitBoard();
+            long own = initial.getBlack();
+            long opp = initial.getWhite();
+            Cell side = Cell.BLACK;
+            int[] moves = new int[plies];
+            int count = 0;
+            while (count < plies) {
+                long legal = BitBoard.legalMoves(own, opp);
+                if (legal == 0) {
+                    if (BitBoard.legalMoves(opp, own) == 0) {
+                        break;
+                    }
+                    long swap = own;
+                    own = opp;
+                    opp = swap;
+                    side = side.reverse();
+                    continue;
+                }
+                int square;
+                if (random.nextDouble() < SELF_PLAY_RANDOMNESS) {
+                    square = randomMove(legal, random);
+                } else {
+                    square = search.search(own, opp, side, SELF_PLAY_DEPTH);
+                }
+                moves[count++] = square;
+                long flipped = BitBoard.flips(own, opp, square);
+                long ownAfter = own | flipped | (1L << square);
+                own = opp & ~flipped;
+                opp = ownAfter;
+                side = side.reverse();
+            }
+            result.add(count == plies ? moves : Arrays.copyOf(moves, count));
+        }
+        return result;
+    }
+
+    /**
+     * Читает партии из текстового файла: одна партия в строке, ходы в записи "f5d6c3...".
+     */
+    static List<int[]> importGames(Path path) throws IOException {
+        List<int[]> games = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            String game = line.trim().toLowerCase();
+            if (game.isEmpty()) {
+                continue;
+            }
+            int[] moves = new int[game.length() / 2];
+            for (int i = 0; i < moves.length; i++) {
+                int col = game.charAt(2 * i) - 'a';
+                int row = game.charAt(2 * i + 1) - '1';
+                if (col < 0 || col >= 8 || row < 0 || row >= 8) {
+                    logger.log(Level.ERROR, "Wrong move in games file: " + line);
+                    throw new IllegalArgumentException();
+                }
+                moves[i] = BitBoard.square(row, col);
+            }
+            games.add(moves);
+        }
+        return games;
+    }
+
+    /**
+     * Добавляет первые plies ходов партии в дерево книги. Партия обрывается на первом недопустимом ходе.
+     */
+    void addGame(int[] moves) {
+        BitBoard initial = new BitBoard();
+        long black = initial.getBlack();
+        long white = initial.getWhite();
+        Cell side = Cell.BLACK;
+        for (int ply = 0; ply < Math.min(plies, moves.length); ply++) {
+            long own = side == Cell.BLACK ? black : white;
+            long opp = side == Cell.BLACK ? white : black;
+            if (BitBoard.legalMoves(own, opp) == 0) {
+                side = side.reverse();
+                own = side == Cell.BLACK ? black : white;
+                opp = side == Cell.BLACK ? white : black;
+            }
+            int square = moves[ply];
+            if ((BitBoard.legalMoves(own, opp) & (1L << square)) == 0) {
+                logger.log(Level.ERROR, "Illegal move " + square + " at ply " + ply);
+                return;
+            }
+            int symmetry = Symmetry.canonicalSymmetry(black, white);
+            long nodeBlack = Symmetry.transform(black, symmetry);
+            long nodeWhite = Symmetry.transform(white, symmetry);
+            Cell nodeSide = side;
+            Node node = nodes.computeIfAbsent(Zobrist.hash(nodeBlack, nodeWhite, side),
+                    key -> new Node(nodeBlack, nodeWhite, nodeSide));
+            node.counts[Symmetry.transformSquare(square, symmetry)]++;
+
+            long flipped = BitBoard.flips(own, opp, square);
+            own |= flipped | (1L << square);
+            opp &= ~flipped;
+            black = side == Cell.BLACK ? own : opp;
+            white = side == Cell.BLACK ? opp : own;
+            side = side.reverse();
+        }
+    }
+
+    /**
+     * Оценивает дерево минимаксом и записывает книгу.
+     *
+     * @return число записей книги.
+     */
+    int write(Path path) throws IOException {
+        int records = 0;
+        for (Node node : nodes.values()) {
+            value(node);
+            for (int count : node.counts) {
+                if (count > 0) {
+                    records++;
+                }
+            }
+        }
+        long[] keys = new long[records];
+        int[] moves = new int[records];
+        int[] scores = new int[records];
+        int[] counts = new int[records];
+        int index = 0;
+        for (Map.Entry<Long, Node> entry : nodes.entrySet()) {
+            Node node = entry.getValue();
+            for (int square = 0; square < 64; square++) {
+                if (node.counts[square] > 0) {
+                    keys[index] = entry.getKey();
+                    moves[index] = square;
+                    scores[index] = node.scores[square];
+                    counts[index] = node.counts[square];
+                    index++;
+                }
+            }
+        }
+        OpeningBook.write(path, keys, moves, scores, counts);
+        return records;
+    }
+
+    /**
+     * Возвращает оценку позиции книги для игрока, чей ход, и запоминает оценку каждого ее хода.
+     */
+    private int value(Node node) {
+        if (node.evaluated) {
+            return node.value;
+        }
+        long own = node.side == Cell.BLACK ? node.black : node.white;
+        long opp = node.side == Cell.BLACK ? node.white : node.black;
+        int best = -NegamaxSearch.INFINITY;
+        for (int square = 0; square < 64; square++) {
+            if (node.counts[square] == 0) {
+                continue;
+            }
+            long flipped = BitBoard.flips(own, opp, square);
+            long ownAfter = own | flipped | (1L << square);
+            long oppAfter = opp & ~flipped;
+            int score;
+            if (BitBoard.legalMoves(oppAfter, ownAfter) != 0) {
+                score = -childValue(oppAfter, ownAfter, node.side.reverse());
+            } else if (BitBoard.legalMoves(ownAfter, oppAfter) != 0) {
+                score = childValue(ownAfter, oppAfter, node.side);
+            } else {
+                score = NegamaxSearch.finalScore(ownAfter, oppAfter);
+            }
+            node.scores[square] = score;
+            best = Math.max(best, score);
+        }
+        node.evaluated = true;
+        node.value = best;
+        return best;
+    }
+
+    private int childValue(long own, long opp, Cell side) {
+        long black = side == Cell.BLACK ? own : opp;
+        long white = side == Cell.BLACK ? opp : own;
+        Node child = nodes.get(Symmetry.canonicalKey(black, white, side));
+        if (child != null) {
+            return value(child);
+        }
+        search.search(own, opp, side, LEAF_DEPTH);
+        return search.getBestScore();
+    }
+
+    private static int randomMove(long legal, Random random) {
+        int skip = random.nextInt(Long.bitCount(legal));
+        for (int i = 0; i < skip; i++) {
+            legal &= legal - 1;
+        }
+        return Long.numberOfTrailingZeros(legal);
+    }
+}
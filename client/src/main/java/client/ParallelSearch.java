@@ -0,0 +1,181 @@
+package client;
+
+import logic.Cell;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Параллельный поиск по схеме Lazy SMP.
+ *
+ * Все потоки ищут одну и ту же позицию итеративным углублением и обмениваются результатами только через общую
+ * таблицу транспозиций. Главный поиск идет в вызывающем потоке, вспомогательные - в ForkJoinPool и начинают
+ * с разных глубин. Ответ - ход потока, который завершил самую глубокую итерацию (при равенстве - главного).
+ * С одним потоком пул не создается и поиск полностью детерминирован.
+ */
+public final class ParallelSearch {
+    private final NegamaxSearch mainSearch;
+    private final NegamaxSearch[] helpers;
+    private final ForkJoinPool pool;
+    private final ForkJoinTask<?>[] tasks;
+    private NegamaxSearch resultSearch;
+
+    /**
+     * @param table     общая таблица транспозиций.
+     * @param evaluator оценочная функция, общая для всех потоков.
+     * @param settings  настройки поиска, в том числе число потоков.
+     */
+    public ParallelSearch(TranspositionTable table, Evaluator evaluator, SearchSettings settings) {
+        if (settings.getThreads() <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.mainSearch = new NegamaxSearch(table, evaluator, settings);
+        this.helpers = new NegamaxSearch[settings.getThreads() - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new NegamaxSearch(table, evaluator, settings);
+        }
+        this.pool = helpers.length == 0 ? null : new ForkJoinPool(helpers.length);
+        this.tasks = new ForkJoinTask<?>[helpers.length];
+        this.resultSearch = mainSearch;
+    }
+
+    /**
+     * Ищет лучший ход итеративным углублением до дедлайна во всех потоках.
+     *
+     * @param own      маска фишек игрока, чей ход.
+     * @param opp      маска фишек соперника.
+     * @param side     цвет игрока, чей ход.
+     * @param maxDepth максимальная глубина поиска в полуходах.
+     * @param deadline абсолютный дедлайн в единицах System.nanoTime().
+     * @return номер клетки лучшего хода или TranspositionTable.NO_MOVE, если ходов нет.
+     */
+    public int searchIterative(long own, long opp, Cell side, int maxDepth, long deadline) {
+        resultSearch = mainSearch;
+        if (pool == null) {
+            return mainSearch.searchIterative(own, opp, side, maxDepth, deadline);
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            NegamaxSearch helper = helpers[i];
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.clearStopRequest();
+            tasks[i] = pool.submit(() -> helper.searchIterative(own, opp, side, firstDepth, maxDepth, deadline));
+        }
+        mainSearch.searchIterative(own, opp, side, maxDepth, deadline);
+        for (NegamaxSearch helper : helpers) {
+            helper.requestStop();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            tasks[i].join();
+            tasks[i] = null;
+            NegamaxSearch helper = helpers[i];
+            if (helper.getCompletedDepth() > resultSearch.getCompletedDepth()
+                    && helper.getBestMove() != TranspositionTable.NO_MOVE) {
+                resultSearch = helper;
+            }
+        }
+        return resultSearch.getBestMove();
+    }
+
+    /**
+     * Задает параметры Multi-ProbCut всем потокам или выключает его (null).
+     */
+    public void setProbCut(ProbCut probCut) {
+        mainSearch.setProbCut(probCut);
+        for (NegamaxSearch helper : helpers) {
+            helper.setProbCut(probCut);
+        }
+    }
+
+    /**
+     * Задает получателя результатов итераций или убирает его (null). Итерации публикует только главный поток,
+     * в потоке, который вызвал searchIterative; ответ вспомогательного потока виден только в его результате.
+     */
+    public void setIterationListener(IterationListener iterationListener) {
+        mainSearch.setIterationListener(iterationListener);
+    }
+
+    /**
+     * Просит поиск, запущенный в другом потоке, остановиться во всех потоках. Запрос действует, пока не будет
+     * снят методом clearStopRequest.
+     */
+    void requestStop() {
+        mainSearch.requestStop();
+        for (NegamaxSearch helper : helpers) {
+            helper.requestStop();
+        }
+    }
+
+    void clearStopRequest() {
+        mainSearch.clearStopRequest();
+    }
+
+    /**
+     * Забывает ходы-убийцы и историю сортировки во всех потоках.
+     */
+    void clearMoveOrdering() {
+        mainSearch.clearMoveOrdering();
+        for (NegamaxSearch helper : helpers) {
+            helper.clearMoveOrdering();
+        }
+    }
+
+    /**
+     * Останавливает потоки пула. После этого доступен только однопоточный поиск главного потока.
+     */
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Возвращает глубину последней полностью завершенной итерации у потока, чей ход выбран.
+     */
+    public int getCompletedDepth() {
+        return resultSearch.getCompletedDepth();
+    }
+
+    public int getBestScore() {
+        return resultSearch.getBestScore();
+    }
+
+    /**
+     * Возвращает статистику главного потока.
+     */
+    public SearchStatistics getStatistics() {
+        return mainSearch.getStatistics();
+    }
+
+    /**
+     * Возвращает число узлов, просмотренных каждым потоком: сначала главным, затем вспомогательными.
+     */
+    public long[] getThreadNodes() {
+        long[] nodes = new long[getThreads()];
+        nodes[0] = mainSearch.getNodes();
+        for (int i = 0; i < helpers.length; i++) {
+            nodes[i + 1] = helpers[i].getNodes();
+        }
+        return nodes;
+    }
+
+    public long getNodes() {
+        long total = 0;
+        for (long threadNodes : getThreadNodes()) {
+            total += threadNodes;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("threads:");
+        for (long threadNodes : getThreadNodes()) {
+            result.append(' ').append(threadNodes);
+        }
+        return result.toString();
+    }
+}
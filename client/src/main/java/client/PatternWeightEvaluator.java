@@ -0,0 +1,27 @@
+package client;
+
+import logic.PatternEvaluator;
+
+/**
+ * Оценка позиции по шаблонам PatternEvaluator. NegamaxSearch узнает эту оценку и ведет индексы шаблонов
+ * инкрементально, без нее индексы считаются заново в каждом листе.
+ */
+public final class PatternWeightEvaluator implements Evaluator {
+    private final PatternEvaluator patterns;
+
+    public PatternWeightEvaluator(PatternEvaluator patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Оценка шаблонов антисимметрична, поэтому позицию можно считать так, будто игрок, чей ход, играет черными.
+     */
+    @Override
+    public int evaluate(long own, long opp) {
+        return patterns.evaluate(own, opp);
+    }
+
+    public PatternEvaluator getPatterns() {
+        return patterns;
+    }
+}
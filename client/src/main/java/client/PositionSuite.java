@@ -0,0 +1,232 @@
+package client;
+
+import logic.Board;
+import logic.Cell;
+import parsing.BoardParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Набор тестовых позиций с известными лучшими ходами и, для позиций эндшпиля, точной оценкой.
+ *
+ * Формат файла - блоки позиций; пустые строки и строки, начинающиеся с '#', пропускаются:
+ * <pre>
+ * position &lt;имя&gt;
+ * восемь строк доски в формате BoardParser: 'B' - черные, 'W' - белые, '_' - пусто
+ * side black|white
+ * best &lt;ходы через пробел в записи "d3"&gt;
+ * score &lt;разница фишек в конце партии для стороны, которая ходит&gt; (необязательно)
+ * </pre>
+ * Оценка считается без передачи пустых клеток победителю, как в NegamaxSearch.finalScore.
+ */
+public final class PositionSuite {
+    private static final int SIZE = 8;
+    private static final String POSITION = "position";
+    private static final String SIDE = "side";
+    private static final String BEST = "best";
+    private static final String SCORE = "score";
+
+    private final List<Position> positions;
+
+    /**
+     * Позиция набора. Доска хранит сторону, которая ходит.
+     */
+    public static final class Position {
+        private final String name;
+        private final Board board;
+        private final Set<String> bestMoves;
+        private final Integer score;
+
+        /**
+         * @param bestMoves лучшие ходы в записи "d3"; ход, совпадающий с любым из них, считается решением.
+         * @param score     точная разница фишек в конце партии для стороны, которая ходит, или null, если неизвестна.
+         */
+        public Position(String name, Board board, Set<String> bestMoves, Integer score) {
+            if (bestMoves.isEmpty()) {
+                throw new IllegalArgumentException();
+            }
+            this.name = name;
+            this.board = board.getBoardCopy();
+            this.bestMoves = Collections.unmodifiableSet(new LinkedHashSet<>(bestMoves));
+            this.score = score;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Возвращает копию доски позиции.
+         */
+        public Board getBoard() {
+            return board.getBoardCopy();
+        }
+
+        public Cell getSideToMove() {
+            return board.getSideToMove();
+        }
+
+        public Set<String> getBestMoves() {
+            return bestMoves;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+    }
+
+    public PositionSuite(List<Position> positions) {
+        this.positions = Collections.unmodifiableList(new ArrayList<>(positions));
+    }
+
+    public List<Position> getPositions() {
+        return positions;
+    }
+
+    /**
+     * Читает набор позиций из файла.
+     *
+     * @throws IOException если файл не читается или нарушен формат.
+     */
+    public static PositionSuite read(Path path) throws IOException {
+        return parse(Files.readAllLines(path), path.toString());
+    }
+
+    /**
+     * Разбирает строки набора позиций.
+     *
+     * @param source имя источника для сообщений об ошибках.
+     * @throws IOException если нарушен формат.
+     */
+    static PositionSuite parse(List<String> lines, String source) throws IOException {
+        List<String> content = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                content.add(line);
+            }
+        }
+        List<Position> positions = new ArrayList<>();
+        int index = 0;
+        while (index < content.size()) {
+            String header = content.get(index).trim();
+            if (!header.startsWith(POSITION)) {
+                throw new IOException("Expected '" + POSITION + "' in " + source + ": " + header);
+            }
+            String name = header.substring(POSITION.length()).trim();
+            if (index + SIZE >= content.size()) {
+                throw new IOException("Position " + name + " needs " + SIZE + " board lines: " + source);
+            }
+            Board board = parseBoard(content.subList(index + 1, index + 1 + SIZE), name, source);
+            index += 1 + SIZE;
+
+            Cell side = null;
+            Set<String> bestMoves = new LinkedHashSet<>();
+            Integer score = null;
+            for (; index < content.size() && !content.get(index).trim().startsWith(POSITION); index++) {
+                String[] fields = content.get(index).trim().split("\\s+");
+                switch (fields[0]) {
+                    case SIDE:
+                        side = fields.length == 2 && fields[1].equals("black") ? Cell.BLACK
+                                : fields.length == 2 && fields[1].equals("white") ? Cell.WHITE : null;
+                        break;
+                    case BEST:
+                        for (int i = 1; i < fields.length; i++) {
+                            if (!isSquareName(fields[i])) {
+                                throw new IOException("Wrong move " + fields[i] + " in position " + name + ": " + source);
+                            }
+                            bestMoves.add(fields[i]);
+                        }
+                        break;
+                    case SCORE:
+                        try {
+                            score = Integer.parseInt(fields[1]);
+                        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                            throw new IOException("Wrong score in position " + name + ": " + source, e);
+                        }
+                        break;
+                    default:
+                        throw new IOException("Unknown field " + fields[0] + " in position " + name + ": " + source);
+                }
+            }
+            if (side == null || bestMoves.isEmpty()) {
+                throw new IOException("Position " + name + " needs side and best moves: " + source);
+            }
+            board.setSideToMove(side);
+            for (String move : bestMoves) {
+                int square = squareIndex(move);
+                if (!board.isValidMove(square / SIZE, square % SIZE, side)) {
+                    throw new IOException("Illegal best move " + move + " in position " + name + ": " + source);
+                }
+            }
+            positions.add(new Position(name, board, bestMoves, score));
+        }
+        return new PositionSuite(positions);
+    }
+
+    private static Board parseBoard(List<String> lines, String name, String source) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            StringBuilder row = new StringBuilder(line.trim());
+            while (row.length() < 2 * SIZE) {
+                row.append(' ');
+            }
+            text.append(row).append('\n');
+        }
+        try {
+            return BoardParser.parse(text.toString(), 'B', 'W', '_');
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Wrong board in position " + name + ": " + source, e);
+        }
+    }
+
+    /**
+     * Записывает набор позиций в файл в формате, который читает read.
+     */
+    public void write(Path path, String comment) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (comment != null) {
+            lines.add("# " + comment);
+        }
+        for (Position position : positions) {
+            lines.add("");
+            lines.add(POSITION + " " + position.name);
+            for (int row = 0; row < SIZE; row++) {
+                StringBuilder line = new StringBuilder();
+                for (int col = 0; col < SIZE; col++) {
+                    Cell cell = position.board.get(row, col);
+                    line.append(cell == Cell.BLACK ? 'B' : cell == Cell.WHITE ? 'W' : '_');
+                    if (col + 1 < SIZE) {
+                        line.append(' ');
+                    }
+                }
+                lines.add(line.toString());
+            }
+            lines.add(SIDE + " " + (position.getSideToMove() == Cell.BLACK ? "black" : "white"));
+            lines.add(BEST + " " + String.join(" ", position.bestMoves));
+            if (position.score != null) {
+                lines.add(SCORE + " " + position.score);
+            }
+        }
+        Files.write(path, lines);
+    }
+
+    private static boolean isSquareName(String move) {
+        return move.length() == 2 && move.charAt(0) >= 'a' && move.charAt(0) <= 'h'
+                && move.charAt(1) >= '1' && move.charAt(1) <= '8';
+    }
+
+    /**
+     * Возвращает номер клетки по записи "d3".
+     */
+    static int squareIndex(String move) {
+        return (move.charAt(1) - '1') * SIZE + move.charAt(0) - 'a';
+    }
+}
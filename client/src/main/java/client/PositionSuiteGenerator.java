@@ -0,0 +1,107 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.RandomPlay;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Генератор набора позиций эндшпиля с эталонными ответами.
+ *
+ * Позиции берутся из случайных партий при заданном числе пустых клеток. Каждый ход позиции решается
+ * EndgameSolver до конца партии, поэтому лучшие ходы - все ходы с наибольшей точной разницей фишек,
+ * а оценка позиции точная.
+ *
+ * Запуск: PositionSuiteGenerator <файл набора> <число позиций> <число пустых клеток> [зерно].
+ */
+public final class PositionSuiteGenerator {
+    private static final Logger logger = LogManager.getLogger(PositionSuiteGenerator.class);
+    private static final long DEFAULT_SEED = 1;
+    private static final int TRANSPOSITION_TABLE_MB = 64;
+
+    private final EndgameSolver solver;
+
+    PositionSuiteGenerator() {
+        SearchSettings settings = new SearchSettings();
+        settings.setEndgameMode(SearchSettings.EndgameMode.EXACT);
+        this.solver = new EndgameSolver(new TranspositionTable(TRANSPOSITION_TABLE_MB), settings);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            logger.log(Level.ERROR, "Usage: PositionSuiteGenerator <suite file> <positions> <empties> [seed]");
+            throw new IllegalArgumentException();
+        }
+        int count = Integer.parseInt(args[1]);
+        int empties = Integer.parseInt(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        PositionSuite suite = new PositionSuiteGenerator().generate(count, empties, new Random(seed));
+        suite.write(Path.of(args[0]), "random positions with " + empties + " empties, seed " + seed
+                + ", solved exactly by EndgameSolver");
+        System.out.println("positions: " + suite.getPositions().size());
+    }
+
+    /**
+     * Собирает count решенных позиций с empties пустыми клетками, в которых у стороны, которая ходит,
+     * больше одного хода.
+     */
+    PositionSuite generate(int count, int empties, Random random) {
+        List<PositionSuite.Position> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Board board = RandomPlay.randomPosition(random, empties);
+            if (board.getQuantityOfEmpty() == empties && board.getAllAvailableMoves(board.getSideToMove()).size() > 1) {
+                positions.add(solve(String.valueOf(positions.size() + 1), board));
+            }
+        }
+        return new PositionSuite(positions);
+    }
+
+    /**
+     * Решает каждый ход позиции и возвращает позицию набора с лучшими ходами и точной оценкой.
+     */
+    PositionSuite.Position solve(String name, Board board) {
+        Cell side = board.getSideToMove();
+        long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        Set<String> bestMoves = new LinkedHashSet<>();
+        int bestScore = Integer.MIN_VALUE;
+        for (long moves = BitBoard.legalMoves(own, opp); moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, square);
+            int score = -exactDifference(opp & ~flipped, own | flipped | (1L << square), side.reverse());
+            if (score > bestScore) {
+                bestScore = score;
+                bestMoves.clear();
+            }
+            if (score == bestScore) {
+                bestMoves.add(SearchTelemetry.squareName(square));
+            }
+        }
+        return new PositionSuite.Position(name, board, bestMoves, bestScore);
+    }
+
+    /**
+     * Возвращает точную разницу фишек в конце партии для игрока own, чей ход, с учетом пропусков хода.
+     */
+    private int exactDifference(long own, long opp, Cell side) {
+        if (BitBoard.legalMoves(own, opp) == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return Long.bitCount(own) - Long.bitCount(opp);
+            }
+            return -exactDifference(opp, own, side.reverse());
+        }
+        solver.solve(own, opp, side, Long.MAX_VALUE);
+        return NegamaxSearch.discDifference(solver.getBestScore());
+    }
+}
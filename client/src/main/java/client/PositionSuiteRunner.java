@@ -0,0 +1,237 @@
+package client;
+
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Player;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Прогон набора позиций PositionSuite любым игроком.
+ *
+ * Каждая позиция решается новым игроком из фабрики, позиции решаются параллельно в ForkJoinPool. Решение -
+ * ход из лучших ходов позиции. Время до решения - время от начала хода до итерации, после которой лучший ход
+ * был решением и больше не менялся; итерации публикует BotPlayerMinMaxRuslan через IterationListener.
+ * Для остальных игроков (MctsPlayer, Tree, игроки из logic) и для ответа, которого не было среди итераций,
+ * время до решения - время всего хода. Узлы, глубина и оценка берутся из SearchTelemetry, если игрок ее
+ * публикует (BotPlayerMinMaxRuslan, MctsPlayer). Оценка сравнивается с эталонной, только если решатель
+ * эндшпиля игрока нашел точную оценку.
+ *
+ * Запуск: PositionSuiteRunner <файл набора> [depth <глубина>] [time <мс на ход>] [threads <потоков>] [negamax|mcts].
+ */
+public final class PositionSuiteRunner {
+    private static final Logger logger = LogManager.getLogger(PositionSuiteRunner.class);
+    private static final int TRANSPOSITION_TABLE_MB = 16;
+    private static final long DEPTH_LIMITED_MOVE_TIME_MILLIS = 3_600_000;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+    private static final long NOT_SOLVED = -1;
+
+    private final Function<Cell, Player> players;
+    private final int threads;
+
+    /**
+     * Результат одной позиции.
+     */
+    public static final class Result {
+        public final PositionSuite.Position position;
+        /**
+         * Ход игрока в записи "d3".
+         */
+        public final String move;
+        public final boolean solved;
+        /**
+         * Точная разница фишек из решателя эндшпиля игрока или null, если решатель не нашел точную оценку.
+         */
+        public final Integer score;
+        public final long nodes;
+        public final int depth;
+        public final double timeMillis;
+        /**
+         * Время до решения (см. описание класса); для нерешенной позиции - время хода.
+         */
+        public final double solutionTimeMillis;
+
+        Result(PositionSuite.Position position, String move, Integer score, long nodes, int depth, double timeMillis,
+               double solutionTimeMillis) {
+            this.position = position;
+            this.move = move;
+            this.solved = position.getBestMoves().contains(move);
+            this.score = score;
+            this.nodes = nodes;
+            this.depth = depth;
+            this.timeMillis = timeMillis;
+            this.solutionTimeMillis = solved ? solutionTimeMillis : timeMillis;
+        }
+
+        /**
+         * Возвращает true, если игрок нашел точную оценку позиции и она совпала с эталонной.
+         */
+        public boolean isScoreCorrect() {
+            return score != null && score.equals(position.getScore());
+        }
+    }
+
+    /**
+     * @param players фабрика игроков по цвету; игрок создается для каждой позиции и решает только ее.
+     * @param threads число позиций, которые решаются одновременно.
+     */
+    public PositionSuiteRunner(Function<Cell, Player> players, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.players = players;
+        this.threads = threads;
+    }
+
+    /**
+     * Решает все позиции набора и возвращает результаты в порядке позиций.
+     */
+    public List<Result> run(PositionSuite suite) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+            for (PositionSuite.Position position : suite.getPositions()) {
+                tasks.add(pool.submit(() -> solve(position)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (ForkJoinTask<Result> task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result solve(PositionSuite.Position position) {
+        Player player = players.apply(position.getSideToMove());
+        SearchTelemetry[] telemetry = new SearchTelemetry[1];
+        long[] solvedSince = {NOT_SOLVED};
+        if (player instanceof BotPlayerMinMaxRuslan) {
+            BotPlayerMinMaxRuslan bot = (BotPlayerMinMaxRuslan) player;
+            bot.addSearchListener(moveTelemetry -> telemetry[0] = moveTelemetry);
+            bot.setIterationListener((depth, square, score) -> {
+                if (!position.getBestMoves().contains(SearchTelemetry.squareName(square))) {
+                    solvedSince[0] = NOT_SOLVED;
+                } else if (solvedSince[0] == NOT_SOLVED) {
+                    solvedSince[0] = System.nanoTime();
+                }
+            });
+        } else if (player instanceof MctsPlayer) {
+            ((MctsPlayer) player).addSearchListener(moveTelemetry -> telemetry[0] = moveTelemetry);
+        }
+        try {
+            Board board = position.getBoard();
+            long start = System.nanoTime();
+            Move move = player.makeMove(board);
+            double timeMillis = (System.nanoTime() - start) / NANOS_IN_MILLI;
+            double solutionTimeMillis = solvedSince[0] == NOT_SOLVED
+                    ? timeMillis : (solvedSince[0] - start) / NANOS_IN_MILLI;
+            String name = SearchTelemetry.squareName(move.row * 8 + move.col);
+            if (telemetry[0] == null) {
+                return new Result(position, name, null, 0, 0, timeMillis, solutionTimeMillis);
+            }
+            Integer score = telemetry[0].exact ? NegamaxSearch.discDifference(telemetry[0].score) : null;
+            return new Result(position, name, score, telemetry[0].nodes, telemetry[0].depth, timeMillis,
+                    solutionTimeMillis);
+        } finally {
+            if (player instanceof BotPlayerMinMaxRuslan) {
+                ((BotPlayerMinMaxRuslan) player).close();
+            } else if (player instanceof MctsPlayer) {
+                ((MctsPlayer) player).close();
+            }
+        }
+    }
+
+    /**
+     * Возвращает отчет: строку на позицию и итог - точность, время до решения, узлы и совпадение оценок.
+     */
+    public static String report(List<Result> results) {
+        StringBuilder report = new StringBuilder();
+        int solved = 0;
+        int scored = 0;
+        int correctScores = 0;
+        long nodes = 0;
+        double time = 0;
+        double solutionTime = 0;
+        for (Result result : results) {
+            report.append(String.format("%-8s %-4s %-7s best %-16s score %4s/%-4s nodes %10d depth %2d time %9.1f ms"
+                            + " solution %9.1f ms%n",
+                    result.position.getName(), result.move, result.solved ? "solved" : "missed",
+                    String.join(",", result.position.getBestMoves()),
+                    result.score == null ? "-" : result.score.toString(),
+                    result.position.getScore() == null ? "-" : result.position.getScore().toString(),
+                    result.nodes, result.depth, result.timeMillis, result.solutionTimeMillis));
+            nodes += result.nodes;
+            time += result.timeMillis;
+            if (result.solved) {
+                solved++;
+                solutionTime += result.solutionTimeMillis;
+            }
+            if (result.position.getScore() != null) {
+                scored++;
+                if (result.isScoreCorrect()) {
+                    correctScores++;
+                }
+            }
+        }
+        report.append(String.format("solved %d/%d (%.1f%%) exact scores %d/%d nodes %d time %.1f ms nodes/s %.0f"
+                        + " mean time to solution %.1f ms%n",
+                solved, results.size(), 100.0 * solved / Math.max(results.size(), 1), correctScores, scored,
+                nodes, time, nodes / Math.max(time / 1000, 1e-9), solutionTime / Math.max(solved, 1)));
+        return report.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            logger.log(Level.ERROR, "Usage: PositionSuiteRunner <suite file> [depth <n>] [time <ms>] [threads <n>]"
+                    + " [negamax|mcts]");
+            throw new IllegalArgumentException();
+        }
+        PositionSuite suite = PositionSuite.read(Path.of(args[0]));
+        SearchSettings settings = new SearchSettings();
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        settings.setTranspositionTableMegabytes(TRANSPOSITION_TABLE_MB);
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean mcts = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "depth":
+                    settings.setDepth(Integer.parseInt(args[++i]));
+                    settings.setMoveTimeMillis(DEPTH_LIMITED_MOVE_TIME_MILLIS);
+                    settings.setMaxMoveTimeMillis(DEPTH_LIMITED_MOVE_TIME_MILLIS);
+                    break;
+                case "time":
+                    settings.setMoveTimeMillis(Long.parseLong(args[++i]));
+                    settings.setMaxMoveTimeMillis(Long.parseLong(args[i]));
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "negamax":
+                    mcts = false;
+                    break;
+                case "mcts":
+                    mcts = true;
+                    break;
+                default:
+                    logger.log(Level.ERROR, "Unknown argument " + args[i]);
+                    throw new IllegalArgumentException();
+            }
+        }
+        boolean useMcts = mcts;
+        PositionSuiteRunner runner = new PositionSuiteRunner(
+                cell -> useMcts ? new MctsPlayer(cell, settings) : new BotPlayerMinMaxRuslan(cell, settings), threads);
+        System.out.print(report(runner.run(suite)));
+    }
+}
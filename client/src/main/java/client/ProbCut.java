@@ -0,0 +1,135 @@
+package client;
+
+import logic.PatternEvaluator;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Параметры Multi-ProbCut: для фазы партии и глубины поиска - одна или несколько проверок.
+ *
+ * Проверка задает глубину короткого поиска и линейную регрессию оценки глубокого поиска по оценке
+ * короткого: deep = a * shallow + b с ошибкой sigma. Если короткий поиск показывает, что глубокий с большой
+ * вероятностью выйдет за окно (дальше чем на threshold * sigma), узел отсекается без глубокого поиска.
+ * Параметры подбирает ProbCutFitter на позициях самоигры и записывает текстовым файлом: одна проверка
+ * в строке, "фаза глубина глубина_короткого a b sigma", строки с # - комментарии.
+ */
+public final class ProbCut {
+    static final int MIN_DEPTH = 3;
+    static final int MAX_DEPTH = 24;
+    private static final Check[] NO_CHECKS = new Check[0];
+
+    /**
+     * Одна проверка: глубина короткого поиска и параметры регрессии.
+     */
+    static final class Check {
+        final int shallowDepth;
+        final double a;
+        final double b;
+        final double sigma;
+
+        Check(int shallowDepth, double a, double b, double sigma) {
+            if (shallowDepth <= 0 || a <= 0 || sigma < 0) {
+                throw new IllegalArgumentException();
+            }
+            this.shallowDepth = shallowDepth;
+            this.a = a;
+            this.b = b;
+            this.sigma = sigma;
+        }
+    }
+
+    private final Check[][][] checks = new Check[PatternEvaluator.PHASES][MAX_DEPTH + 1][];
+
+    ProbCut() {
+        for (Check[][] phaseChecks : checks) {
+            Arrays.fill(phaseChecks, NO_CHECKS);
+        }
+    }
+
+    /**
+     * Добавляет проверку для фазы и глубины.
+     */
+    void add(int phase, int depth, Check check) {
+        if (phase < 0 || phase >= PatternEvaluator.PHASES || depth < MIN_DEPTH || depth > MAX_DEPTH
+                || check.shallowDepth >= depth) {
+            throw new IllegalArgumentException();
+        }
+        Check[] old = checks[phase][depth];
+        Check[] updated = Arrays.copyOf(old, old.length + 1);
+        updated[old.length] = check;
+        checks[phase][depth] = updated;
+    }
+
+    /**
+     * Возвращает проверки для фазы и глубины (пустой массив, если проверок нет).
+     */
+    Check[] checks(int phase, int depth) {
+        return depth < MIN_DEPTH || depth > MAX_DEPTH ? NO_CHECKS : checks[phase][depth];
+    }
+
+    /**
+     * Глубина короткого поиска по умолчанию: примерно половина глубины той же четности.
+     */
+    static int shallowDepth(int depth) {
+        int shallow = depth / 2;
+        if ((depth - shallow) % 2 != 0) {
+            shallow--;
+        }
+        return Math.max(1, shallow);
+    }
+
+    /**
+     * Читает параметры из текстового файла.
+     *
+     * @throws IOException если файл не читается.
+     */
+    public static ProbCut load(Path path) throws IOException {
+        ProbCut probCut = new ProbCut();
+        for (String line : Files.readAllLines(path)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\s+");
+            if (fields.length != 6) {
+                throw new IOException("Wrong ProbCut line: " + line);
+            }
+            try {
+                probCut.add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                        new Check(Integer.parseInt(fields[2]), Double.parseDouble(fields[3]),
+                                Double.parseDouble(fields[4]), Double.parseDouble(fields[5])));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Wrong ProbCut line: " + line, e);
+            }
+        }
+        return probCut;
+    }
+
+    /**
+     * Записывает параметры в текстовый файл, который читает load.
+     */
+    public void save(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# phase depth shallowDepth a b sigma");
+        for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+            for (int depth = MIN_DEPTH; depth <= MAX_DEPTH; depth++) {
+                for (Check check : checks[phase][depth]) {
+                    lines.add(String.format(Locale.ROOT, "%d %d %d %.4f %.4f %.4f",
+                            phase, depth, check.shallowDepth, check.a, check.b, check.sigma));
+                }
+            }
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.PatternEvaluator;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Подбор параметров Multi-ProbCut на позициях самоигры.
+ *
+ * Позиции берутся из партий negamax на небольшую глубину со случайными ходами. Каждая позиция ищется
+ * на все глубины от 1 до максимальной, каждый раз с чистой таблицей транспозиций, чтобы оценка короткого поиска
+ * не подсматривала в записи глубокого. Для каждой фазы и глубины оценка глубокого поиска приближается
+ * линейной функцией оценки короткого методом наименьших квадратов, sigma - среднеквадратичная ошибка.
+ * Параметры подходят только для той оценочной функции, с которой они подобраны.
+ *
+ * Запуск: ProbCutFitter <файл параметров> <число позиций> <максимальная глубина> [файл весов шаблонов].
+ */
+public final class ProbCutFitter {
+    private static final Logger logger = LogManager.getLogger(ProbCutFitter.class);
+    static final int MIN_SAMPLES = 10;
+    private static final int SELF_PLAY_DEPTH = 2;
+    private static final double SELF_PLAY_RANDOMNESS = 0.25;
+    private static final long SEED = 1;
+    private static final int MIN_EMPTIES = 21;
+    private static final int MAX_EMPTIES = 56;
+
+    private final Evaluator evaluator;
+    private final int maxDepth;
+    private final TranspositionTable table = new TranspositionTable(4);
+    private final double[][][] sums;
+
+    /**
+     * @param evaluator оценочная функция, для которой подбираются параметры.
+     * @param maxDepth  максимальная глубина глубокого поиска.
+     */
+    ProbCutFitter(Evaluator evaluator, int maxDepth) {
+        if (maxDepth < ProbCut.MIN_DEPTH || maxDepth > ProbCut.MAX_DEPTH) {
+            throw new IllegalArgumentException();
+        }
+        this.evaluator = evaluator;
+        this.maxDepth = maxDepth;
+        this.sums = new double[PatternEvaluator.PHASES][maxDepth + 1][6];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            logger.log(Level.ERROR, "Usage: ProbCutFitter <parameters file> <positions> <max depth> [pattern weights]");
+            throw new IllegalArgumentException();
+        }
+        SearchSettings settings = new SearchSettings();
+        if (args.length > 3) {
+            settings.setEvaluation(SearchSettings.Evaluation.PATTERNS);
+            settings.setPatternWeightsPath(args[3]);
+        }
+        ProbCutFitter fitter = new ProbCutFitter(BotPlayerMinMaxRuslan.createEvaluator(settings),
+                Integer.parseInt(args[2]));
+        int positions = fitter.addSelfPlayPositions(Integer.parseInt(args[1]), new Random(SEED));
+        ProbCut probCut = fitter.fit();
+        probCut.save(Path.of(args[0]));
+        System.out.println("positions: " + positions);
+    }
+
+    /**
+     * Играет партии самоигры, пока не наберет нужное число позиций середины партии, и ищет каждую позицию.
+     *
+     * @return число добавленных позиций.
+     */
+    int addSelfPlayPositions(int count, Random random) {
+        NegamaxSearch player = new NegamaxSearch(new TranspositionTable(1), evaluator);
+        int added = 0;
+        while (added < count) {
+            BitBoard initial = new BitBoard();
+            long own = initial.getBlack();
+            long opp = initial.getWhite();
+            Cell side = Cell.BLACK;
+            while (added < count) {
+                long legal = BitBoard.legalMoves(own, opp);
+                if (legal == 0) {
+                    if (BitBoard.legalMoves(opp, own) == 0) {
+                        break;
+                    }
+                    long swap = own;
+                    own = opp;
+                    opp = swap;
+                    side = side.reverse();
+                    continue;
+                }
+                int empties = 64 - Long.bitCount(own | opp);
+                if (empties >= MIN_EMPTIES && empties <= MAX_EMPTIES) {
+                    addPosition(own, opp, side);
+                    added++;
+                }
+                int square;
+                if (random.nextDouble() < SELF_PLAY_RANDOMNESS) {
+                    int skip = random.nextInt(Long.bitCount(legal));
+                    for (int i = 0; i < skip; i++) {
+                        legal &= legal - 1;
+                    }
+                    square = Long.numberOfTrailingZeros(legal);
+                } else {
+                    square = player.search(own, opp, side, SELF_PLAY_DEPTH);
+                }
+                long flipped = BitBoard.flips(own, opp, square);
+                long ownAfter = own | flipped | (1L << square);
+                own = opp & ~flipped;
+                opp = ownAfter;
+                side = side.reverse();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Ищет позицию на все глубины и добавляет пары (оценка короткого поиска, оценка глубокого) в суммы регрессии.
+     */
+    void addPosition(long own, long opp, Cell side) {
+        int[] scores = new int[maxDepth + 1];
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            table.clear();
+            NegamaxSearch search = new NegamaxSearch(table, evaluator);
+            search.search(own, opp, side, depth);
+            scores[depth] = search.getBestScore();
+        }
+        int phase = PatternEvaluator.phase(64 - Long.bitCount(own | opp));
+        for (int depth = ProbCut.MIN_DEPTH; depth <= maxDepth; depth++) {
+            double x = scores[ProbCut.shallowDepth(depth)];
+            double y = scores[depth];
+            if (Math.abs(x) >= NegamaxSearch.WIN_SCORE || Math.abs(y) >= NegamaxSearch.WIN_SCORE) {
+                continue;
+            }
+            double[] sum = sums[phase][depth];
+            sum[0]++;
+            sum[1] += x;
+            sum[2] += y;
+            sum[3] += x * x;
+            sum[4] += x * y;
+            sum[5] += y * y;
+        }
+    }
+
+    /**
+     * Подбирает регрессию для каждой фазы и глубины, где набралось хотя бы MIN_SAMPLES позиций.
+     */
+    ProbCut fit() {
+        ProbCut probCut = new ProbCut();
+        for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+            for (int depth = ProbCut.MIN_DEPTH; depth <= maxDepth; depth++) {
+                double[] sum = sums[phase][depth];
+                double n = sum[0];
+                double varianceX = n * sum[3] - sum[1] * sum[1];
+                if (n < MIN_SAMPLES || varianceX <= 0) {
+                    continue;
+                }
+                double a = (n * sum[4] - sum[1] * sum[2]) / varianceX;
+                if (a <= 0) {
+                    continue;
+                }
+                double b = (sum[2] - a * sum[1]) / n;
+                double residual = sum[5] - 2 * a * sum[4] - 2 * b * sum[2]
+                        + a * a * sum[3] + 2 * a * b * sum[1] + n * b * b;
+                double sigma = Math.sqrt(Math.max(0, residual) / n);
+                probCut.add(phase, depth, new ProbCut.Check(ProbCut.shallowDepth(depth), a, b, sigma));
+            }
+        }
+        return probCut;
+    }
+}
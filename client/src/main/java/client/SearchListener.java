@@ -0,0 +1,46 @@
+package client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Получатель статистики ходов бота.
+ */
+public interface SearchListener {
+
+    /**
+     * Вызывается после каждого хода бота в потоке, который сделал ход.
+     */
+    void onMove(SearchTelemetry telemetry);
+
+    /**
+     * Освобождает ресурсы получателя в конце работы бота.
+     */
+    default void close() {
+    }
+
+    /**
+     * Создает получателя из настроек: log4j, файл JSON lines или null, если статистика не нужна.
+     * Если файл не открывается, статистика пишется в log4j.
+     */
+    static SearchListener fromSettings(SearchSettings settings) {
+        switch (settings.getTelemetry()) {
+            case JSON_LINES:
+                try {
+                    return new JsonLinesSearchListener(Path.of(settings.getTelemetryPath()));
+                } catch (IOException | RuntimeException e) {
+                    Logger logger = LogManager.getLogger(SearchListener.class);
+                    logger.log(Level.ERROR, "Cannot open telemetry file " + settings.getTelemetryPath());
+                    return new LoggingSearchListener();
+                }
+            case LOG:
+                return new LoggingSearchListener();
+            default:
+                return null;
+        }
+    }
+}
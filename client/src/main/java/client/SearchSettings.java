@@ -0,0 +1,421 @@
+package client;
+
+/**
+ * Настройки поиска бота BotPlayerMinMaxRuslan.
+ */
+public class SearchSettings {
+
+    /**
+     * Движок поиска: старое дерево Tree или negamax с альфа-бета отсечением.
+     */
+    public enum Engine {
+        TREE, NEGAMAX
+    }
+
+    /**
+     * Режим решателя эндшпиля: точная разница фишек или только победа, ничья и поражение.
+     */
+    public enum EndgameMode {
+        EXACT, WIN_LOSS_DRAW
+    }
+
+    /**
+     * Куда пишется статистика ходов: никуда, в log4j (уровень INFO) или в файл JSON lines.
+     */
+    public enum Telemetry {
+        NONE, LOG, JSON_LINES
+    }
+
+    /**
+     * Оценочная функция negamax: веса клеток или шаблоны с весами по фазам партии.
+     */
+    public enum Evaluation {
+        SQUARE_WEIGHTS, PATTERNS
+    }
+
+    private Engine engine = Engine.NEGAMAX;
+    private int transpositionTableMegabytes = BotPlayerMinMaxRuslan.DEFAULT_TRANSPOSITION_TABLE_MB;
+    private int depth = 60;
+    private long moveTimeMillis = 500;
+    private long gameTimeMillis = 0;
+    private double gameTimeFraction = 0.1;
+    private long maxMoveTimeMillis = 5000;
+    private long safetyMarginMillis = 50;
+    private boolean hashMoveOrdering = true;
+    private boolean squarePriorityOrdering = true;
+    private boolean killerMoves = true;
+    private boolean historyHeuristic = true;
+    private boolean mobilityOrdering = true;
+    private int mobilityOrderingMinDepth = 4;
+    private int endgameEmpties = 20;
+    private EndgameMode endgameMode = EndgameMode.EXACT;
+    private int threads = 1;
+    private boolean pondering = false;
+    private String openingBookPath = null;
+    private int openingBookMinCount = 1;
+    private Evaluation evaluation = Evaluation.SQUARE_WEIGHTS;
+    private String patternWeightsPath = null;
+    private boolean principalVariationSearch = true;
+    private boolean aspirationWindows = true;
+    private int aspirationWindow = 50;
+    private String probCutPath = null;
+    private double probCutThreshold = 1.5;
+    private int mctsNodes = 1 << 21;
+    private double mctsExploration = 1.0;
+    private long mctsPlayouts = 0;
+    private Telemetry telemetry = Telemetry.LOG;
+    private int symmetricTableEmpties = 56;
+    private String telemetryPath = null;
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public int getTranspositionTableMegabytes() {
+        return transpositionTableMegabytes;
+    }
+
+    public void setTranspositionTableMegabytes(int transpositionTableMegabytes) {
+        this.transpositionTableMegabytes = transpositionTableMegabytes;
+    }
+
+    /**
+     * Возвращает максимальную глубину итеративного углубления negamax в полуходах.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Возвращает фиксированное время на ход. Используется, если не задано время на партию.
+     */
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    public void setMoveTimeMillis(long moveTimeMillis) {
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    /**
+     * Возвращает время на всю партию. Если оно больше нуля, на ход отводится доля оставшегося времени партии.
+     */
+    public long getGameTimeMillis() {
+        return gameTimeMillis;
+    }
+
+    public void setGameTimeMillis(long gameTimeMillis) {
+        this.gameTimeMillis = gameTimeMillis;
+    }
+
+    /**
+     * Возвращает долю оставшегося времени партии, которая отводится на один ход.
+     */
+    public double getGameTimeFraction() {
+        return gameTimeFraction;
+    }
+
+    public void setGameTimeFraction(double gameTimeFraction) {
+        this.gameTimeFraction = gameTimeFraction;
+    }
+
+    /**
+     * Возвращает максимальное время хода (таймаут сервера).
+     */
+    public long getMaxMoveTimeMillis() {
+        return maxMoveTimeMillis;
+    }
+
+    public void setMaxMoveTimeMillis(long maxMoveTimeMillis) {
+        this.maxMoveTimeMillis = maxMoveTimeMillis;
+    }
+
+    /**
+     * Возвращает запас времени, который оставляется от максимального времени хода на отправку хода.
+     */
+    public long getSafetyMarginMillis() {
+        return safetyMarginMillis;
+    }
+
+    public void setSafetyMarginMillis(long safetyMarginMillis) {
+        this.safetyMarginMillis = safetyMarginMillis;
+    }
+
+    /**
+     * Возвращает, ставится ли первым ход из таблицы транспозиций.
+     */
+    public boolean isHashMoveOrdering() {
+        return hashMoveOrdering;
+    }
+
+    public void setHashMoveOrdering(boolean hashMoveOrdering) {
+        this.hashMoveOrdering = hashMoveOrdering;
+    }
+
+    /**
+     * Возвращает, поднимаются ли углы и опускаются ли клетки по диагонали от свободных углов.
+     */
+    public boolean isSquarePriorityOrdering() {
+        return squarePriorityOrdering;
+    }
+
+    public void setSquarePriorityOrdering(boolean squarePriorityOrdering) {
+        this.squarePriorityOrdering = squarePriorityOrdering;
+    }
+
+    /**
+     * Возвращает, используются ли ходы-убийцы (ходы, вызвавшие отсечение на том же уровне).
+     */
+    public boolean isKillerMoves() {
+        return killerMoves;
+    }
+
+    public void setKillerMoves(boolean killerMoves) {
+        this.killerMoves = killerMoves;
+    }
+
+    /**
+     * Возвращает, используется ли таблица истории отсечений по клетке и цвету.
+     */
+    public boolean isHistoryHeuristic() {
+        return historyHeuristic;
+    }
+
+    public void setHistoryHeuristic(boolean historyHeuristic) {
+        this.historyHeuristic = historyHeuristic;
+    }
+
+    /**
+     * Возвращает, сортируются ли ходы по мобильности соперника после хода.
+     */
+    public boolean isMobilityOrdering() {
+        return mobilityOrdering;
+    }
+
+    public void setMobilityOrdering(boolean mobilityOrdering) {
+        this.mobilityOrdering = mobilityOrdering;
+    }
+
+    /**
+     * Возвращает минимальную оставшуюся глубину, начиная с которой ходы сортируются по мобильности:
+     * у листьев подсчет мобильности стоит дороже, чем выигрыш от сортировки.
+     */
+    public int getMobilityOrderingMinDepth() {
+        return mobilityOrderingMinDepth;
+    }
+
+    public void setMobilityOrderingMinDepth(int mobilityOrderingMinDepth) {
+        this.mobilityOrderingMinDepth = mobilityOrderingMinDepth;
+    }
+
+    /**
+     * Возвращает число пустых клеток, начиная с которого ход выбирает решатель эндшпиля.
+     */
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    public EndgameMode getEndgameMode() {
+        return endgameMode;
+    }
+
+    public void setEndgameMode(EndgameMode endgameMode) {
+        this.endgameMode = endgameMode;
+    }
+
+    /**
+     * Возвращает число потоков поиска negamax. С одним потоком поиск детерминирован.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Возвращает, ищет ли бот на времени соперника (только движок NEGAMAX).
+     */
+    public boolean isPondering() {
+        return pondering;
+    }
+
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+    }
+
+    /**
+     * Возвращает путь к файлу дебютной книги или null, если книга не используется.
+     */
+    public String getOpeningBookPath() {
+        return openingBookPath;
+    }
+
+    public void setOpeningBookPath(String openingBookPath) {
+        this.openingBookPath = openingBookPath;
+    }
+
+    /**
+     * Возвращает минимальное число партий, в которых должен встретиться ход книги, чтобы бот его сыграл.
+     */
+    public int getOpeningBookMinCount() {
+        return openingBookMinCount;
+    }
+
+    public void setOpeningBookMinCount(int openingBookMinCount) {
+        this.openingBookMinCount = openingBookMinCount;
+    }
+
+    public Evaluation getEvaluation() {
+        return evaluation;
+    }
+
+    public void setEvaluation(Evaluation evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Возвращает путь к файлу весов шаблонов или null, если используются веса по умолчанию.
+     */
+    public String getPatternWeightsPath() {
+        return patternWeightsPath;
+    }
+
+    public void setPatternWeightsPath(String patternWeightsPath) {
+        this.patternWeightsPath = patternWeightsPath;
+    }
+
+    /**
+     * Возвращает, ищутся ли ходы после первого нулевым окном с перепоиском при выходе за alpha (PVS).
+     */
+    public boolean isPrincipalVariationSearch() {
+        return principalVariationSearch;
+    }
+
+    public void setPrincipalVariationSearch(boolean principalVariationSearch) {
+        this.principalVariationSearch = principalVariationSearch;
+    }
+
+    /**
+     * Возвращает, начинается ли каждая итерация углубления с окна вокруг оценки предыдущей итерации.
+     */
+    public boolean isAspirationWindows() {
+        return aspirationWindows;
+    }
+
+    public void setAspirationWindows(boolean aspirationWindows) {
+        this.aspirationWindows = aspirationWindows;
+    }
+
+    /**
+     * Возвращает начальную полуширину окна в единицах оценки. При выходе оценки за окно полуширина удваивается.
+     */
+    public int getAspirationWindow() {
+        return aspirationWindow;
+    }
+
+    public void setAspirationWindow(int aspirationWindow) {
+        this.aspirationWindow = aspirationWindow;
+    }
+
+    /**
+     * Возвращает путь к файлу параметров Multi-ProbCut или null, если выборочный поиск выключен.
+     * Параметры подбираются ProbCutFitter для той же оценочной функции.
+     */
+    public String getProbCutPath() {
+        return probCutPath;
+    }
+
+    public void setProbCutPath(String probCutPath) {
+        this.probCutPath = probCutPath;
+    }
+
+    /**
+     * Возвращает порог отсечения Multi-ProbCut в ошибках регрессии: чем он меньше, тем больше отсечений
+     * и глубже поиск, но тем чаще отсечение ошибается.
+     */
+    public double getProbCutThreshold() {
+        return probCutThreshold;
+    }
+
+    public void setProbCutThreshold(double probCutThreshold) {
+        this.probCutThreshold = probCutThreshold;
+    }
+
+    /**
+     * Возвращает размер пула узлов MctsPlayer. Каждый узел занимает 17 байт.
+     */
+    public int getMctsNodes() {
+        return mctsNodes;
+    }
+
+    public void setMctsNodes(int mctsNodes) {
+        this.mctsNodes = mctsNodes;
+    }
+
+    /**
+     * Возвращает коэффициент исследования UCT: чем он больше, тем чаще MctsPlayer проверяет редко посещенные ходы.
+     */
+    public double getMctsExploration() {
+        return mctsExploration;
+    }
+
+    public void setMctsExploration(double mctsExploration) {
+        this.mctsExploration = mctsExploration;
+    }
+
+    /**
+     * Возвращает лимит разыгрышей MctsPlayer на ход или 0, если поиск ограничен только временем.
+     */
+    public long getMctsPlayouts() {
+        return mctsPlayouts;
+    }
+
+    public void setMctsPlayouts(long mctsPlayouts) {
+        this.mctsPlayouts = mctsPlayouts;
+    }
+
+    /**
+     * Возвращает число пустых клеток, начиная с которого negamax ищет позицию в таблице транспозиций по ключу
+     * канонической формы (симметричные позиции делят запись). Значение больше 60 выключает симметрию.
+     */
+    public int getSymmetricTableEmpties() {
+        return symmetricTableEmpties;
+    }
+
+    public void setSymmetricTableEmpties(int symmetricTableEmpties) {
+        this.symmetricTableEmpties = symmetricTableEmpties;
+    }
+
+    public Telemetry getTelemetry() {
+        return telemetry;
+    }
+
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Возвращает путь к файлу JSON lines для статистики ходов в режиме Telemetry.JSON_LINES.
+     */
+    public String getTelemetryPath() {
+        return telemetryPath;
+    }
+
+    public void setTelemetryPath(String telemetryPath) {
+        this.telemetryPath = telemetryPath;
+    }
+}
@@ -0,0 +1,175 @@
+package client;
+
+import java.util.Arrays;
+
+/**
+ * Статистика одного поиска: узлы, отсечения и узлы по итерациям углубления.
+ *
+ * Доля отсечений на первом ходе и эффективный коэффициент ветвления показывают, насколько хорошо
+ * сортировка ходов помогает альфа-бета отсечению.
+ */
+public final class SearchStatistics {
+    private static final int MAX_DEPTH = 64;
+    static final int CUTOFF_HISTOGRAM_SIZE = 8;
+
+    private long nodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long pvsResearches;
+    private long aspirationResearches;
+    private long probCutTries;
+    private long probCuts;
+    private final long[] iterationNodes = new long[MAX_DEPTH + 1];
+    private final long[] cutoffHistogram = new long[CUTOFF_HISTOGRAM_SIZE];
+    private int iterations;
+    private int selectiveDepth;
+
+    public void reset() {
+        nodes = 0;
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        pvsResearches = 0;
+        aspirationResearches = 0;
+        probCutTries = 0;
+        probCuts = 0;
+        Arrays.fill(iterationNodes, 0);
+        Arrays.fill(cutoffHistogram, 0);
+        iterations = 0;
+        selectiveDepth = 0;
+    }
+
+    /**
+     * Отмечает узел на расстоянии ply полуходов от корня (с учетом пропусков хода).
+     */
+    void addNode(int ply) {
+        nodes++;
+        if (ply > selectiveDepth) {
+            selectiveDepth = ply;
+        }
+    }
+
+    /**
+     * Отмечает отсечение по beta.
+     *
+     * @param moveIndex номер хода в отсортированном списке, который вызвал отсечение.
+     */
+    void recordBetaCutoff(int moveIndex) {
+        betaCutoffs++;
+        cutoffHistogram[Math.min(moveIndex, CUTOFF_HISTOGRAM_SIZE - 1)]++;
+        if (moveIndex == 0) {
+            firstMoveCutoffs++;
+        }
+    }
+
+    /**
+     * Отмечает перепоиск полным окном хода, который поиск нулевым окном оценил выше alpha.
+     */
+    void recordPvsResearch() {
+        pvsResearches++;
+    }
+
+    /**
+     * Отмечает перепоиск итерации с расширенным окном после выхода оценки за окно.
+     */
+    void recordAspirationResearch() {
+        aspirationResearches++;
+    }
+
+    void recordProbCutTry() {
+        probCutTries++;
+    }
+
+    /**
+     * Отмечает узел, отсеченный Multi-ProbCut.
+     */
+    void recordProbCut() {
+        probCuts++;
+    }
+
+    /**
+     * Запоминает, сколько узлов понадобилось завершенной итерации на глубину depth.
+     */
+    void recordIteration(int depth, long iterationNodeCount) {
+        if (depth <= MAX_DEPTH) {
+            iterationNodes[depth] = iterationNodeCount;
+            iterations = Math.max(iterations, depth);
+        }
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Возвращает наибольшее расстояние от корня в полуходах, на котором побывал поиск.
+     */
+    public int getSelectiveDepth() {
+        return selectiveDepth;
+    }
+
+    /**
+     * Возвращает число отсечений по номеру хода, который его вызвал; последний элемент - ходы
+     * с номером CUTOFF_HISTOGRAM_SIZE - 1 и дальше.
+     */
+    public long[] getCutoffHistogram() {
+        return cutoffHistogram.clone();
+    }
+
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    public long getPvsResearches() {
+        return pvsResearches;
+    }
+
+    public long getAspirationResearches() {
+        return aspirationResearches;
+    }
+
+    public long getProbCutTries() {
+        return probCutTries;
+    }
+
+    public long getProbCuts() {
+        return probCuts;
+    }
+
+    /**
+     * Возвращает долю отсечений, которые вызвал первый же ход.
+     */
+    public double getFirstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    public long getIterationNodes(int depth) {
+        return depth <= MAX_DEPTH ? iterationNodes[depth] : 0;
+    }
+
+    /**
+     * Возвращает эффективный коэффициент ветвления: во сколько раз в среднем каждая следующая итерация
+     * дороже предыдущей (среднее геометрическое от первой до последней завершенной итерации).
+     * Если завершено меньше двух итераций, возвращает 0.
+     */
+    public double getEffectiveBranchingFactor() {
+        if (iterations < 2 || iterationNodes[1] == 0) {
+            return 0;
+        }
+        return Math.pow((double) iterationNodes[iterations] / iterationNodes[1], 1.0 / (iterations - 1));
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format("nodes: %d cutoffs: %d first move: %.1f%% EBF: %.2f re-searches: pvs %d aspiration %d",
+                nodes, betaCutoffs, getFirstMoveCutoffRate() * 100, getEffectiveBranchingFactor(),
+                pvsResearches, aspirationResearches);
+        if (probCutTries > 0) {
+            result += " probcut: " + probCuts + "/" + probCutTries;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package client;
+
+import com.google.gson.Gson;
+
+import java.util.List;
+
+/**
+ * Статистика одного хода бота, которую получают SearchListener. Поля публичные, объект сериализуется Gson
+ * в одну строку JSON.
+ */
+public class SearchTelemetry {
+    private static final Gson gson = new Gson();
+
+    /**
+     * Откуда взят ход: единственный ход, дебютная книга, negamax, решатель эндшпиля, дерево Tree или MCTS.
+     */
+    public enum Source {
+        FORCED, BOOK, NEGAMAX, ENDGAME, TREE, MCTS
+    }
+
+    public int moveNumber;
+    public String color;
+    public Source source;
+    public String move;
+    /**
+     * Оценка хода в шкале NegamaxSearch, для MCTS - процент выигрыша.
+     */
+    public int score;
+    /**
+     * Оценка точная: решатель эндшпиля нашел точную разницу фишек, а не только победу, ничью или поражение.
+     */
+    public boolean exact;
+    public long nodes;
+    public long nodesPerSecond;
+    public int depth;
+    /**
+     * Наибольшее расстояние от корня в полуходах. Заполняется только для хода negamax, как и cutoffHistogram
+     * и остальная статистика SearchStatistics: решатель эндшпиля ее не собирает.
+     */
+    public int selectiveDepth;
+    public long ttProbes;
+    public long ttHits;
+    public long ttCutoffs;
+    /**
+     * Число отсечений по номеру хода, который его вызвал; последний элемент - ходы с этим номером и дальше.
+     */
+    public long[] cutoffHistogram;
+    /**
+     * Доля отсечений, которые вызвал первый же ход, и эффективный коэффициент ветвления итераций (SearchStatistics).
+     */
+    public double firstMoveCutoffRate;
+    public double effectiveBranchingFactor;
+    public long pvsResearches;
+    public long aspirationResearches;
+    public long probCutTries;
+    public long probCuts;
+    /**
+     * Узлы negamax по потокам: сначала главный, затем вспомогательные.
+     */
+    public long[] threadNodes;
+    /**
+     * Узлы решателя эндшпиля, отсеченные по стабильным фишкам.
+     */
+    public long stabilityCutoffs;
+    public double timeUsedMillis;
+    public double budgetMillis;
+    public List<String> principalVariation;
+    public long ponderHits;
+    public long ponderMisses;
+
+    /**
+     * Возвращает обозначение клетки в записи "d3": столбец буквой, строка числом с единицы.
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + square % 8) + (square / 8 + 1);
+    }
+
+    public String toJson() {
+        return gson.toJson(this);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
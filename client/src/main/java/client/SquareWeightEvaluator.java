@@ -0,0 +1,41 @@
+package client;
+
+/**
+ * Оценка позиции по весам клеток, перенесенная из Tree: пока углы свободны и пустых клеток много, ценятся углы
+ * и клетки вдали от углов, а клетки рядом со свободными углами штрафуются. Иначе считается разница фишек.
+ */
+public final class SquareWeightEvaluator implements Evaluator {
+    static final int EMPTY_LIMIT = 10;
+    private static final int CORNER_WEIGHT = 25;
+    private static final int CLOSE_TO_CORNER_WEIGHT = 15;
+    private static final int NOT_CLOSE_TO_CORNER_WEIGHT = 7;
+
+    private static final long CORNERS = mask(new int[][]{{0, 7}, {7, 0}, {0, 0}, {7, 7}});
+    private static final long CLOSE_TO_CORNERS = mask(new int[][]{{0, 1}, {1, 0}, {1, 1}, {0, 6}, {1, 6}, {1, 7},
+            {6, 0}, {6, 1}, {7, 1}, {6, 6}, {6, 7}, {7, 6}});
+    private static final long NOT_CLOSE_TO_CORNERS = mask(new int[][]{{0, 2}, {1, 2}, {2, 2}, {2, 1}, {2, 0}, {0, 5},
+            {1, 5}, {2, 5}, {2, 6}, {2, 7}, {5, 0}, {5, 1}, {5, 2}, {6, 2}, {7, 2}, {5, 5}, {5, 6}, {5, 7}, {6, 5}, {7, 5}});
+
+    @Override
+    public int evaluate(long own, long opp) {
+        long occupied = own | opp;
+        if ((occupied & CORNERS) == CORNERS || 64 - Long.bitCount(occupied) <= EMPTY_LIMIT) {
+            return Long.bitCount(own) - Long.bitCount(opp);
+        }
+        return CORNER_WEIGHT * balance(own, opp, CORNERS)
+                - CLOSE_TO_CORNER_WEIGHT * balance(own, opp, CLOSE_TO_CORNERS)
+                + NOT_CLOSE_TO_CORNER_WEIGHT * balance(own, opp, NOT_CLOSE_TO_CORNERS);
+    }
+
+    private static int balance(long own, long opp, long squares) {
+        return Long.bitCount(own & squares) - Long.bitCount(opp & squares);
+    }
+
+    private static long mask(int[][] coordinates) {
+        long mask = 0;
+        for (int[] coord : coordinates) {
+            mask |= 1L << (coord[0] * 8 + coord[1]);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,71 @@
+package client;
+
+/**
+ * Распределяет время на ходы бота.
+ *
+ * Бюджет хода задается либо фиксированным числом миллисекунд, либо долей оставшегося времени партии,
+ * если в настройках задано общее время на партию. В обоих случаях бюджет ограничен максимальным временем хода
+ * за вычетом запаса на передачу хода серверу. Результат - один абсолютный дедлайн в единицах System.nanoTime(),
+ * который передается в поиск.
+ */
+public class TimeManager {
+    private static final long NANOS_IN_MILLI = 1_000_000L;
+    private static final long MIN_MOVE_NANOS = NANOS_IN_MILLI;
+
+    private final SearchSettings settings;
+    private long remainingGameNanos;
+    private long moveStart;
+    private long moveBudget;
+
+    public TimeManager(SearchSettings settings) {
+        this.settings = settings;
+        newGame();
+    }
+
+    /**
+     * Сбрасывает часы партии.
+     */
+    public void newGame() {
+        remainingGameNanos = settings.getGameTimeMillis() * NANOS_IN_MILLI;
+    }
+
+    /**
+     * Начинает отсчет времени хода.
+     *
+     * @return абсолютный дедлайн хода в единицах System.nanoTime().
+     */
+    public long startMove() {
+        moveStart = System.nanoTime();
+        long budget;
+        if (settings.getGameTimeMillis() > 0) {
+            budget = (long) (remainingGameNanos * settings.getGameTimeFraction());
+        } else {
+            budget = settings.getMoveTimeMillis() * NANOS_IN_MILLI;
+        }
+        long maxMove = (settings.getMaxMoveTimeMillis() - settings.getSafetyMarginMillis()) * NANOS_IN_MILLI;
+        moveBudget = Math.max(MIN_MOVE_NANOS, Math.min(budget, maxMove));
+        return moveStart + moveBudget;
+    }
+
+    /**
+     * Заканчивает отсчет времени хода и списывает потраченное время с часов партии.
+     *
+     * @return потраченное на ход время в наносекундах.
+     */
+    public long endMove() {
+        long used = System.nanoTime() - moveStart;
+        remainingGameNanos = Math.max(0, remainingGameNanos - used);
+        return used;
+    }
+
+    /**
+     * Возвращает бюджет последнего хода в наносекундах.
+     */
+    public long getMoveBudget() {
+        return moveBudget;
+    }
+
+    public long getRemainingGameNanos() {
+        return remainingGameNanos;
+    }
+}
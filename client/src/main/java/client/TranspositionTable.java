@@ -0,0 +1,257 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.Symmetry;
+import logic.Zobrist;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Таблица транспозиций фиксированного размера для поиска бота.
+ *
+ * Таблица хранится в двух массивах long и разбита на корзины по две записи: первая запись заменяется только
+ * записью с не меньшей глубиной или записью из более нового поиска (depth-preferred), вторая заменяется всегда
+ * (always-replace). Поэтому таблица может жить всю партию, не забиваясь глубокими записями прошлых ходов.
+ * Каждая запись хранит глубину, тип оценки, оценку и лучший ход, упакованные в одно число.
+ * Ключ записи хранится как XOR с данными, поэтому запись, испорченная одновременной записью из другого потока,
+ * просто не найдется при чтении. Счетчики статистики тоже рассчитаны на несколько потоков, поэтому одна таблица
+ * может быть общей для всех потоков параллельного поиска без блокировок.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+    public static final int NO_MOVE = 64;
+    public static final long MISS = 0;
+
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int SCORE_OFFSET = 1 << 15;
+    private static final long VALID_BIT = 1L << 41;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Создает таблицу, которая занимает не больше указанного объема памяти.
+     *
+     * @param megabytes объем памяти в мегабайтах.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException();
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.max(2, Math.min(entries, 1 << 30));
+        keys = new long[(int) entries];
+        data = new long[(int) entries];
+        bucketMask = (int) (entries / 2 - 1);
+    }
+
+    /**
+     * Ищет позицию в таблице.
+     *
+     * @param key ключ Зобриста позиции.
+     * @return упакованная запись или MISS, если позиции нет в таблице.
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = (int) (key & bucketMask) << 1;
+        for (int slot = index; slot < index + 2; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key && entry != MISS) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Восстанавливает главный вариант: от позиции идет по лучшим ходам записей таблицы, пока запись есть
+     * и ее ход допустим. Позиция ищется по обычному ключу, а если его нет - по ключу канонической формы
+     * (ход записи переводится обратно). Пропуски хода в вариант не попадают. Статистика таблицы не меняется.
+     *
+     * @param black     маска черных фишек.
+     * @param white     маска белых фишек.
+     * @param side      цвет игрока, чей ход.
+     * @param maxLength наибольшая длина варианта.
+     * @return номера клеток ходов варианта.
+     */
+    public int[] principalVariation(long black, long white, Cell side, int maxLength) {
+        int[] moves = new int[maxLength];
+        int length = 0;
+        while (length < maxLength) {
+            long own = side == Cell.BLACK ? black : white;
+            long opp = side == Cell.BLACK ? white : black;
+            long legal = BitBoard.legalMoves(own, opp);
+            if (legal == 0) {
+                if (BitBoard.legalMoves(opp, own) == 0) {
+                    break;
+                }
+                side = side.reverse();
+                continue;
+            }
+            int move = peekMove(Zobrist.hash(black, white, side));
+            if (move == NO_MOVE) {
+                int symmetry = Symmetry.canonicalSymmetry(black, white);
+                move = peekMove(Zobrist.hash(Symmetry.transform(black, symmetry),
+                        Symmetry.transform(white, symmetry), side));
+                if (move != NO_MOVE) {
+                    move = Symmetry.transformSquare(move, Symmetry.inverse(symmetry));
+                }
+            }
+            if (move == NO_MOVE || (legal & (1L << move)) == 0) {
+                break;
+            }
+            moves[length++] = move;
+            long flipped = BitBoard.flips(own, opp, move);
+            own |= flipped | (1L << move);
+            opp &= ~flipped;
+            black = side == Cell.BLACK ? own : opp;
+            white = side == Cell.BLACK ? opp : own;
+            side = side.reverse();
+        }
+        return Arrays.copyOf(moves, length);
+    }
+
+    /**
+     * Возвращает лучший ход записи позиции без учета в статистике или NO_MOVE, если записи нет.
+     */
+    private int peekMove(long key) {
+        int index = (int) (key & bucketMask) << 1;
+        for (int slot = index; slot < index + 2; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key && entry != MISS) {
+                return bestMove(entry);
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Сохраняет результат поиска позиции.
+     *
+     * @param key      ключ Зобриста позиции.
+     * @param depth    оставшаяся глубина поиска.
+     * @param bound    тип оценки: EXACT, LOWER или UPPER.
+     * @param score    оценка позиции.
+     * @param bestMove номер клетки лучшего хода или NO_MOVE.
+     */
+    public void store(long key, int depth, int bound, int score, int bestMove) {
+        stores.increment();
+        long entry = pack(depth, bound, score, bestMove);
+        int index = (int) (key & bucketMask) << 1;
+        long deepEntry = data[index];
+        if ((keys[index] ^ deepEntry) == key || deepEntry == MISS || depth(deepEntry) <= depth
+                || generation(deepEntry) != generation) {
+            keys[index] = key ^ entry;
+            data[index] = entry;
+        } else {
+            keys[index + 1] = key ^ entry;
+            data[index + 1] = entry;
+        }
+    }
+
+    /**
+     * Начинает новый поиск: записи предыдущих поисков остаются доступными, но могут быть вытеснены.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Отмечает, что найденная запись позволила не искать позицию заново.
+     */
+    public void recordCutoff() {
+        cutoffs.increment();
+    }
+
+    /**
+     * Очищает таблицу и статистику.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        resetStatistics();
+    }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+        cutoffs.reset();
+        stores.reset();
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry & 0xFFFF) - SCORE_OFFSET;
+    }
+
+    public static int bestMove(long entry) {
+        return (int) (entry >>> 26) & 0x7F;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 33) & 0xFF;
+    }
+
+    private long pack(int depth, int bound, int score, int bestMove) {
+        return VALID_BIT
+                | ((long) generation << 33)
+                | ((long) bestMove << 26)
+                | ((long) bound << 24)
+                | ((long) (Math.min(depth, 0xFF)) << 16)
+                | ((score + SCORE_OFFSET) & 0xFFFF);
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public double getHitRate() {
+        long probeCount = getProbes();
+        return probeCount == 0 ? 0 : (double) getHits() / probeCount;
+    }
+
+    public double getCutoffRate() {
+        long probeCount = getProbes();
+        return probeCount == 0 ? 0 : (double) getCutoffs() / probeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TT probes: %d hits: %.1f%% cutoffs: %.1f%%", getProbes(), getHitRate() * 100, getCutoffRate() * 100);
+    }
+}
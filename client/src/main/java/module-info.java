@@ -10,7 +10,7 @@ module com.example.client {
     requires java.desktop;
 
 
-    opens client to javafx.fxml;
+    opens client to javafx.fxml, com.google.gson;
     opens clientrequest to com.google.gson;
     opens clientresponse to com.google.gson;
     exports client;
@@ -0,0 +1,83 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.RandomPlay;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    @Test
+    void testExactScoreMatchesFullDepthNegamax() {
+        Random random = new Random(5);
+        for (int game = 0; game < 20; game++) {
+            Board board = RandomPlay.randomPosition(random, 5 + random.nextInt(6));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            int empties = board.getQuantityOfEmpty();
+            NegamaxSearch negamax = new NegamaxSearch(new TranspositionTable(1), new SquareWeightEvaluator());
+            negamax.search(own, opp, side, empties);
+            EndgameSolver solver = new EndgameSolver(new TranspositionTable(1), new SearchSettings());
+            int move = solver.solve(own, opp, side, Long.MAX_VALUE);
+
+            assertEquals(SearchSettings.EndgameMode.EXACT, solver.getSolvedMode());
+            assertEquals(negamax.getBestScore(), solver.getBestScore());
+            assertTrue((BitBoard.legalMoves(own, opp) & (1L << move)) != 0);
+        }
+    }
+
+    @Test
+    void testStabilityCutoffsKeepExactScore() {
+        Random random = new Random(11);
+        long cutoffs = 0;
+        for (int game = 0; game < 20; game++) {
+            Board board = RandomPlay.randomPosition(random, 10 + random.nextInt(2));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            NegamaxSearch negamax = new NegamaxSearch(new TranspositionTable(1), new SquareWeightEvaluator());
+            negamax.search(own, opp, side, board.getQuantityOfEmpty());
+            EndgameSolver solver = new EndgameSolver(new TranspositionTable(1), new SearchSettings());
+            solver.solve(own, opp, side, Long.MAX_VALUE);
+
+            assertEquals(negamax.getBestScore(), solver.getBestScore());
+            cutoffs += solver.getStabilityCutoffs();
+        }
+        assertTrue(cutoffs > 0);
+    }
+
+    @Test
+    void testWinLossDrawModeKeepsSign() {
+        SearchSettings settings = new SearchSettings();
+        settings.setEndgameMode(SearchSettings.EndgameMode.WIN_LOSS_DRAW);
+        Random random = new Random(9);
+        for (int game = 0; game < 20; game++) {
+            Board board = RandomPlay.randomPosition(random, 8 + random.nextInt(4));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            EndgameSolver exact = new EndgameSolver(new TranspositionTable(1), new SearchSettings());
+            EndgameSolver winLossDraw = new EndgameSolver(new TranspositionTable(1), settings);
+            exact.solve(own, opp, side, Long.MAX_VALUE);
+            winLossDraw.solve(own, opp, side, Long.MAX_VALUE);
+
+            assertEquals(SearchSettings.EndgameMode.WIN_LOSS_DRAW, winLossDraw.getSolvedMode());
+            assertEquals(Integer.signum(exact.getBestScore()), Integer.signum(winLossDraw.getBestScore()));
+        }
+    }
+}
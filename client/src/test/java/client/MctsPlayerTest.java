@@ -0,0 +1,116 @@
+package client;
+
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsPlayerTest {
+
+    private static SearchSettings settings(int threads, long playouts) {
+        SearchSettings settings = new SearchSettings();
+        settings.setThreads(threads);
+        settings.setMctsPlayouts(playouts);
+        settings.setMctsNodes(1 << 16);
+        settings.setMoveTimeMillis(60_000);
+        return settings;
+    }
+
+    @Test
+    void testSingleThreadIsDeterministic() {
+        Board board = new Board();
+        board.placePiece(2, 3, Cell.BLACK);
+        MctsPlayer first = new MctsPlayer(Cell.WHITE, settings(1, 2000));
+        MctsPlayer second = new MctsPlayer(Cell.WHITE, settings(1, 2000));
+        List<Move> availableMoves = board.getAllAvailableMoves(Cell.WHITE);
+
+        Move move = first.makeMove(board.getBoardCopy());
+        assertTrue(availableMoves.contains(move));
+        assertEquals(move, second.makeMove(board.getBoardCopy()));
+        assertEquals(2000, first.getPlayouts());
+    }
+
+    @Test
+    void testTreeIsReusedAfterOpponentMove() {
+        MctsPlayer player = new MctsPlayer(Cell.BLACK, settings(1, 5000));
+        Board board = new Board();
+        Move move = player.makeMove(board.getBoardCopy());
+        board.placePiece(move.row, move.col, Cell.BLACK);
+        assertEquals(0, player.getReusedVisits());
+
+        Move reply = board.getAllAvailableMoves(Cell.WHITE).get(0);
+        board.placePiece(reply.row, reply.col, Cell.WHITE);
+        move = player.makeMove(board.getBoardCopy());
+        assertTrue(board.getAllAvailableMoves(Cell.BLACK).contains(move));
+        assertTrue(player.getReusedVisits() > 0);
+    }
+
+    @Test
+    void testParallelGameWithSmallPool() {
+        SearchSettings parallel = settings(4, 3000);
+        parallel.setMctsNodes(1000);
+        MctsPlayer black = new MctsPlayer(Cell.BLACK, parallel);
+        MctsPlayer white = new MctsPlayer(Cell.WHITE, settings(2, 1000));
+        try {
+            Board board = new Board();
+            while (!board.isGameOver()) {
+                for (MctsPlayer player : new MctsPlayer[]{black, white}) {
+                    if (board.hasAnyMove(player.playerCell)) {
+                        List<Move> availableMoves = board.getAllAvailableMoves(player.playerCell);
+                        Move move = player.makeMove(board.getBoardCopy());
+                        assertTrue(availableMoves.contains(move));
+                        board.placePiece(move.row, move.col, player.playerCell);
+                    }
+                }
+            }
+            assertTrue(black.getTreeSize() <= 1000);
+        } finally {
+            black.close();
+            white.close();
+        }
+    }
+
+    /**
+     * Соперник отвечает ходом, после которого у черных больше всего ходов, поэтому прежний узел становится корнем,
+     * когда в маленьком пуле для его потомков уже нет места.
+     */
+    @Test
+    void testReusedRootIsExpandedInNearlyFullPool() {
+        Random random = new Random(1);
+        for (int game = 0; game < 2000; game++) {
+            SearchSettings small = settings(1, 18 + game % 11);
+            small.setMctsNodes(game % 2 == 0 ? 64 : 72);
+            small.setTelemetry(SearchSettings.Telemetry.NONE);
+            MctsPlayer player = new MctsPlayer(Cell.BLACK, small);
+            Board board = new Board();
+            while (!board.isGameOver()) {
+                if (board.getSideToMove() == Cell.BLACK && board.hasAnyMove(Cell.BLACK)) {
+                    List<Move> availableMoves = board.getAllAvailableMoves(Cell.BLACK);
+                    Move move = player.makeMove(board.getBoardCopy());
+                    assertTrue(availableMoves.contains(move), "game " + game);
+                    board.placePiece(move.row, move.col, Cell.BLACK);
+                } else if (!board.hasAnyMove(Cell.WHITE)) {
+                    board.setSideToMove(Cell.BLACK);
+                } else {
+                    Move reply = null;
+                    int mobility = -1;
+                    for (Move move : board.getAllAvailableMoves(Cell.WHITE)) {
+                        Board after = board.placePieceAndGetCopy(move.row, move.col, Cell.WHITE);
+                        int blackMoves = after.getAllAvailableMoves(Cell.BLACK).size();
+                        if (blackMoves > mobility || blackMoves == mobility && random.nextBoolean()) {
+                            mobility = blackMoves;
+                            reply = move;
+                        }
+                    }
+                    board.placePiece(reply.row, reply.col, Cell.WHITE);
+                }
+            }
+            player.close();
+        }
+    }
+}
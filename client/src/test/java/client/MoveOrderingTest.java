@@ -0,0 +1,79 @@
+package client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveOrderingTest {
+    private static final long CORNER = 1L;
+    private static final long X_SQUARE = 1L << 9;
+    private static final long EDGE = 1L << 3;
+    private static final long CENTER = 1L << 20;
+
+    @Test
+    void testHashMoveCornerAndXSquare() {
+        MoveOrdering ordering = new MoveOrdering(new SearchSettings(), 4, 64);
+        int[] buffer = new int[64];
+        long moves = CORNER | X_SQUARE | EDGE | CENTER;
+
+        int count = ordering.order(buffer, moves, 0, 0, 20, 0, 1, 0);
+
+        assertEquals(4, count);
+        assertEquals(20, buffer[0]);
+        assertEquals(0, buffer[1]);
+        assertEquals(9, buffer[3]);
+    }
+
+    @Test
+    void testKillerAndHistory() {
+        SearchSettings settings = new SearchSettings();
+        settings.setSquarePriorityOrdering(false);
+        MoveOrdering ordering = new MoveOrdering(settings, 4, 64);
+        int[] buffer = new int[64];
+        long moves = EDGE | CENTER | (1L << 30);
+
+        ordering.recordCutoff(30, 1, 2, 0);
+        ordering.recordCutoff(20, 2, 3, 0);
+        ordering.order(buffer, moves, 0, 0, TranspositionTable.NO_MOVE, 1, 1, 0);
+        assertEquals(30, buffer[0]);
+        assertEquals(20, buffer[1]);
+
+        ordering.order(buffer, moves, 0, 0, TranspositionTable.NO_MOVE, 2, 1, 1);
+        assertEquals(20, buffer[0]);
+    }
+
+    @Test
+    void testDisabledHeuristicsKeepSquareOrder() {
+        SearchSettings settings = new SearchSettings();
+        settings.setHashMoveOrdering(false);
+        settings.setSquarePriorityOrdering(false);
+        settings.setKillerMoves(false);
+        settings.setHistoryHeuristic(false);
+        settings.setMobilityOrdering(false);
+        MoveOrdering ordering = new MoveOrdering(settings, 4, 64);
+        int[] buffer = new int[64];
+
+        ordering.recordCutoff(20, 0, 5, 0);
+        int count = ordering.order(buffer, CORNER | X_SQUARE | CENTER, 0, 0, 20, 0, 5, 0);
+
+        assertEquals(3, count);
+        assertArrayEquals(new int[]{0, 9, 20}, Arrays.copyOf(buffer, count));
+    }
+
+    @Test
+    void testClearForgetsKillersAndHistory() {
+        SearchSettings settings = new SearchSettings();
+        settings.setSquarePriorityOrdering(false);
+        MoveOrdering ordering = new MoveOrdering(settings, 4, 64);
+        int[] buffer = new int[64];
+        long moves = EDGE | CENTER | (1L << 30);
+
+        ordering.recordCutoff(30, 1, 2, 0);
+        ordering.recordCutoff(20, 2, 3, 0);
+        ordering.clear();
+        ordering.order(buffer, moves, 0, 0, TranspositionTable.NO_MOVE, 1, 1, 0);
+        assertArrayEquals(new int[]{3, 20, 30}, Arrays.copyOf(buffer, 3));
+    }
+}
@@ -0,0 +1,225 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.PatternEvaluator;
+import logic.RandomPlay;
+import logic.Symmetry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegamaxSearchTest {
+    private final Evaluator evaluator = new SquareWeightEvaluator();
+
+    @Test
+    void testScoreMatchesPlainMinimax() {
+        Random random = new Random(7);
+        for (int game = 0; game < 10; game++) {
+            Board board = RandomPlay.randomPosition(random, 50 - random.nextInt(30));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            NegamaxSearch search = new NegamaxSearch(new TranspositionTable(1), evaluator);
+            int bestMove = search.search(own, opp, side, 4);
+
+            assertEquals(minimax(own, opp, 4), search.getBestScore());
+            assertTrue((BitBoard.legalMoves(own, opp) & (1L << bestMove)) != 0);
+        }
+    }
+
+    @Test
+    void testMoveOrderingKeepsScoreAndSavesNodes() {
+        SearchSettings plain = new SearchSettings();
+        plain.setHashMoveOrdering(false);
+        plain.setSquarePriorityOrdering(false);
+        plain.setKillerMoves(false);
+        plain.setHistoryHeuristic(false);
+        plain.setMobilityOrdering(false);
+        Random random = new Random(11);
+        long orderedNodes = 0;
+        long plainNodes = 0;
+        for (int game = 0; game < 10; game++) {
+            Board board = RandomPlay.randomPosition(random, 50 - random.nextInt(20));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            NegamaxSearch ordered = new NegamaxSearch(new TranspositionTable(1), evaluator, new SearchSettings());
+            NegamaxSearch unordered = new NegamaxSearch(new TranspositionTable(1), evaluator, plain);
+            ordered.searchIterative(own, opp, side, 6, Long.MAX_VALUE);
+            unordered.searchIterative(own, opp, side, 6, Long.MAX_VALUE);
+
+            assertEquals(unordered.getBestScore(), ordered.getBestScore());
+            orderedNodes += ordered.getNodes();
+            plainNodes += unordered.getNodes();
+        }
+        assertTrue(orderedNodes < plainNodes);
+    }
+
+    @Test
+    void testPrincipalVariationSearchKeepsScore() {
+        SearchSettings plain = new SearchSettings();
+        plain.setPrincipalVariationSearch(false);
+        plain.setAspirationWindows(false);
+        Random random = new Random(17);
+        long researches = 0;
+        for (int game = 0; game < 10; game++) {
+            Board board = RandomPlay.randomPosition(random, 50 - random.nextInt(20));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            NegamaxSearch pvs = new NegamaxSearch(new TranspositionTable(1), evaluator, new SearchSettings());
+            NegamaxSearch alphaBeta = new NegamaxSearch(new TranspositionTable(1), evaluator, plain);
+            pvs.searchIterative(own, opp, side, 6, Long.MAX_VALUE);
+            alphaBeta.searchIterative(own, opp, side, 6, Long.MAX_VALUE);
+
+            assertEquals(alphaBeta.getBestScore(), pvs.getBestScore());
+            assertEquals(0, alphaBeta.getStatistics().getPvsResearches());
+            researches += pvs.getStatistics().getPvsResearches();
+        }
+        assertTrue(researches > 0);
+    }
+
+    @Test
+    void testSymmetricPositionsShareTableEntries() {
+        SearchSettings settings = new SearchSettings();
+        settings.setSymmetricTableEmpties(0);
+        TranspositionTable table = new TranspositionTable(1);
+        NegamaxSearch search = new NegamaxSearch(table, evaluator, settings);
+        Board board = new Board();
+        board.placePiece(2, 3, Cell.BLACK);
+        long black = board.getBlackMask();
+        long white = board.getWhiteMask();
+        int move = search.search(white, black, Cell.WHITE, 5);
+        int score = search.getBestScore();
+
+        for (int symmetry = 1; symmetry < Symmetry.SYMMETRIES; symmetry++) {
+            long symmetricBlack = Symmetry.transform(black, symmetry);
+            long symmetricWhite = Symmetry.transform(white, symmetry);
+            int[] variation = table.principalVariation(symmetricBlack, symmetricWhite, Cell.WHITE, 1);
+            assertArrayEquals(new int[]{Symmetry.transformSquare(move, symmetry)}, variation);
+
+            table.resetStatistics();
+            search.search(symmetricWhite, symmetricBlack, Cell.WHITE, 5);
+            assertEquals(score, search.getBestScore());
+            assertEquals(table.getProbes(), table.getHits());
+        }
+    }
+
+    @Test
+    void testIncrementalPatternsMatchFromScratchEvaluation() {
+        Random random = new Random(13);
+        float[][][] weights = new float[PatternEvaluator.PHASES][PatternEvaluator.TYPES][];
+        for (float[][] phaseWeights : weights) {
+            for (int type = 0; type < PatternEvaluator.TYPES; type++) {
+                phaseWeights[type] = new float[PatternEvaluator.getTypeSize(type)];
+                for (int index = 0; index < phaseWeights[type].length; index++) {
+                    phaseWeights[type][index] = (float) random.nextGaussian();
+                }
+            }
+        }
+        float[] mobility = new float[PatternEvaluator.PHASES];
+        float[] frontier = new float[PatternEvaluator.PHASES];
+        Arrays.fill(mobility, 0.5f);
+        Arrays.fill(frontier, -0.25f);
+        PatternEvaluator patterns = new PatternEvaluator(weights, mobility, frontier);
+        Evaluator fromScratch = patterns::evaluate;
+        for (int game = 0; game < 10; game++) {
+            Board board = RandomPlay.randomPosition(random, 50 - random.nextInt(30));
+            Cell side = board.getSideToMove();
+            if (!board.hasAnyMove(side)) {
+                continue;
+            }
+            long own = side == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+            long opp = side == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+            NegamaxSearch incremental = new NegamaxSearch(new TranspositionTable(1), new PatternWeightEvaluator(patterns));
+            NegamaxSearch plain = new NegamaxSearch(new TranspositionTable(1), fromScratch);
+            int move = incremental.search(own, opp, side, 4);
+
+            assertEquals(plain.search(own, opp, side, 4), move);
+            assertEquals(plain.getBestScore(), incremental.getBestScore());
+            assertEquals(plain.getNodes(), incremental.getNodes());
+        }
+    }
+
+    @Test
+    void testBotWithNegamaxEngineMakesLegalMoves() {
+        SearchSettings settings = new SearchSettings();
+        settings.setEngine(SearchSettings.Engine.NEGAMAX);
+        settings.setDepth(3);
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.BLACK, settings);
+        Board board = new Board();
+        List<Move> availableMoves = board.getAllAvailableMoves(Cell.BLACK);
+        Move move = bot.makeMove(board.getBoardCopy());
+        assertTrue(availableMoves.contains(move));
+    }
+
+    @Test
+    void testNewGameStartsCold() {
+        SearchSettings settings = new SearchSettings();
+        settings.setEngine(SearchSettings.Engine.NEGAMAX);
+        settings.setDepth(6);
+        settings.setMoveTimeMillis(60_000);
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        Random random = new Random(9);
+        Board played = RandomPlay.randomPosition(random, 40);
+        Board position = RandomPlay.randomPosition(random, 40);
+        while (position.getSideToMove() != played.getSideToMove()
+                || position.getAllAvailableMoves(position.getSideToMove()).size() < 2) {
+            position = RandomPlay.randomPosition(random, 40);
+        }
+        BotPlayerMinMaxRuslan used = new BotPlayerMinMaxRuslan(played.getSideToMove(), settings);
+        BotPlayerMinMaxRuslan fresh = new BotPlayerMinMaxRuslan(played.getSideToMove(), settings);
+        List<SearchTelemetry> usedMoves = new ArrayList<>();
+        List<SearchTelemetry> freshMoves = new ArrayList<>();
+        used.addSearchListener(usedMoves::add);
+        fresh.addSearchListener(freshMoves::add);
+
+        used.makeMove(played);
+        used.newGame();
+        Move usedMove = used.makeMove(position.getBoardCopy());
+        Move freshMove = fresh.makeMove(position.getBoardCopy());
+        used.close();
+        fresh.close();
+
+        assertEquals(freshMove, usedMove);
+        assertEquals(freshMoves.get(0).nodes, usedMoves.get(1).nodes);
+        assertEquals(1, usedMoves.get(1).moveNumber);
+    }
+
+    private int minimax(long own, long opp, int depth) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return NegamaxSearch.finalScore(own, opp);
+            }
+            return -minimax(opp, own, depth);
+        }
+        if (depth == 0) {
+            return evaluator.evaluate(own, opp);
+        }
+        int best = -NegamaxSearch.INFINITY;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, square);
+            best = Math.max(best, -minimax(opp & ~flipped, own | flipped | (1L << square), depth - 1));
+        }
+        return best;
+    }
+}
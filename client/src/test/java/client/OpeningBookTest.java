@@ -0,0 +1,73 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Symmetry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLookupInSymmetricPositions() throws IOException {
+        Path games = directory.resolve("games.txt");
+        Files.write(games, List.of("f5d6c3d3c4", "f5f6e6f4", "F5D6C3"));
+        OpeningBookGenerator generator = new OpeningBookGenerator(4);
+        for (int[] game : OpeningBookGenerator.importGames(games)) {
+            generator.addGame(game);
+        }
+        Path bookPath = directory.resolve("book.bin");
+        assertEquals(7, generator.write(bookPath));
+        OpeningBook book = OpeningBook.open(bookPath, 1);
+        assertEquals(7, book.size());
+
+        Board board = new Board();
+        board.placePiece(4, 5, Cell.BLACK);
+        int move = book.lookup(board.getBlackMask(), board.getWhiteMask(), Cell.WHITE);
+        assertTrue((board.getAvailableMovesMask(Cell.WHITE) & (1L << move)) != 0);
+        long expectedKey = keyAfterMove(board.getBlackMask(), board.getWhiteMask(), move);
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            long black = Symmetry.transform(board.getBlackMask(), symmetry);
+            long white = Symmetry.transform(board.getWhiteMask(), symmetry);
+            int symmetricMove = book.lookup(black, white, Cell.WHITE);
+            assertEquals(expectedKey, keyAfterMove(black, white, symmetricMove));
+        }
+
+        board.placePiece(0, 0, Cell.WHITE);
+        assertEquals(TranspositionTable.NO_MOVE, book.lookup(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK));
+    }
+
+    @Test
+    void testBotPlaysFromBook() throws IOException {
+        OpeningBookGenerator generator = new OpeningBookGenerator(6);
+        for (int[] game : generator.playGames(5, new Random(1))) {
+            generator.addGame(game);
+        }
+        Path bookPath = directory.resolve("book.bin");
+        generator.write(bookPath);
+        SearchSettings settings = new SearchSettings();
+        settings.setOpeningBookPath(bookPath.toString());
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.BLACK, settings);
+
+        Board board = new Board();
+        List<Move> availableMoves = board.getAllAvailableMoves(Cell.BLACK);
+        assertTrue(availableMoves.contains(bot.makeMove(board)));
+    }
+
+    private static long keyAfterMove(long black, long white, int move) {
+        long flipped = BitBoard.flips(white, black, move);
+        return Symmetry.canonicalKey(black & ~flipped, white | flipped | (1L << move), Cell.BLACK);
+    }
+}
@@ -0,0 +1,76 @@
+package client;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTest {
+    private final Evaluator evaluator = new SquareWeightEvaluator();
+
+    @Test
+    void testParallelScoreMatchesSingleThread() {
+        Board board = new Board();
+        board.placePiece(2, 3, Cell.BLACK);
+        board.placePiece(2, 2, Cell.WHITE);
+        long own = board.getBlackMask();
+        long opp = board.getWhiteMask();
+        SearchSettings settings = new SearchSettings();
+        settings.setThreads(4);
+        ParallelSearch parallel = new ParallelSearch(new TranspositionTable(4), evaluator, settings);
+        NegamaxSearch single = new NegamaxSearch(new TranspositionTable(4), evaluator);
+        try {
+            int move = parallel.searchIterative(own, opp, Cell.BLACK, 6, Long.MAX_VALUE);
+            single.searchIterative(own, opp, Cell.BLACK, 6, Long.MAX_VALUE);
+
+            assertEquals(6, parallel.getCompletedDepth());
+            assertEquals(single.getBestScore(), parallel.getBestScore());
+            assertTrue((BitBoard.legalMoves(own, opp) & (1L << move)) != 0);
+            assertEquals(4, parallel.getThreadNodes().length);
+            assertTrue(parallel.getThreadNodes()[0] > 0);
+        } finally {
+            parallel.close();
+        }
+    }
+
+    @Test
+    void testSingleThreadIsDeterministic() {
+        Board board = new Board();
+        SearchSettings settings = new SearchSettings();
+        ParallelSearch first = new ParallelSearch(new TranspositionTable(1), evaluator, settings);
+        ParallelSearch second = new ParallelSearch(new TranspositionTable(1), evaluator, settings);
+
+        int firstMove = first.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 7, Long.MAX_VALUE);
+        int secondMove = second.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 7, Long.MAX_VALUE);
+
+        assertEquals(firstMove, secondMove);
+        assertEquals(first.getNodes(), second.getNodes());
+        assertEquals(1, first.getThreads());
+    }
+
+    @Test
+    void testIterationsArePublishedInOrder() {
+        Board board = new Board();
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(1), evaluator, new SearchSettings());
+        List<int[]> iterations = new ArrayList<>();
+        search.setIterationListener((depth, move, score) -> iterations.add(new int[]{depth, move, score}));
+
+        int move = search.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 5, Long.MAX_VALUE);
+
+        assertEquals(5, iterations.size());
+        for (int i = 0; i < iterations.size(); i++) {
+            assertEquals(i + 1, iterations.get(i)[0]);
+        }
+        assertEquals(move, iterations.get(4)[1]);
+        assertEquals(search.getBestScore(), iterations.get(4)[2]);
+
+        search.setIterationListener(null);
+        search.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 5, Long.MAX_VALUE);
+        assertEquals(5, iterations.size());
+    }
+}
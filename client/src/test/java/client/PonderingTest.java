@@ -0,0 +1,63 @@
+package client;
+
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PonderingTest {
+
+    @Test
+    void testPonderHitIsCounted() throws InterruptedException {
+        SearchSettings settings = new SearchSettings();
+        settings.setPondering(true);
+        settings.setMoveTimeMillis(50);
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.BLACK, settings);
+        Board board = new Board();
+        bot.makeMove(board);
+
+        bot.startPondering(board);
+        Thread.sleep(50);
+        bot.stopPondering();
+        int predicted = bot.getPonderMove();
+        List<Move> replies = board.getAllAvailableMoves(Cell.WHITE);
+        assertTrue(replies.contains(new Move(predicted / 8, predicted % 8)));
+
+        board.placePiece(predicted / 8, predicted % 8, Cell.WHITE);
+        List<Move> availableMoves = board.getAllAvailableMoves(Cell.BLACK);
+        Move move = bot.makeMove(board.getBoardCopy());
+        assertTrue(availableMoves.contains(move));
+        assertEquals(1, bot.getPonderHits());
+        assertEquals(0, bot.getPonderMisses());
+    }
+
+    @Test
+    void testCloseStopsPondering() {
+        SearchSettings settings = new SearchSettings();
+        settings.setPondering(true);
+        settings.setThreads(2);
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.WHITE, settings);
+        Board board = new Board();
+        board.placePiece(2, 3, Cell.BLACK);
+        bot.makeMove(board);
+
+        bot.startPondering(board);
+        bot.close();
+        int predicted = bot.getPonderMove();
+        assertTrue(board.getAllAvailableMoves(Cell.BLACK).contains(new Move(predicted / 8, predicted % 8)));
+    }
+
+    @Test
+    void testPonderingIsOffByDefault() {
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.BLACK);
+        Board board = new Board();
+        bot.makeMove(board);
+        bot.startPondering(board);
+        bot.stopPondering();
+        assertEquals(TranspositionTable.NO_MOVE, bot.getPonderMove());
+    }
+}
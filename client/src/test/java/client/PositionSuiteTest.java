@@ -0,0 +1,102 @@
+package client;
+
+import logic.Cell;
+import logic.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSuiteTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWrittenSuiteReadsBack() throws IOException {
+        PositionSuite suite = new PositionSuiteGenerator().generate(4, 8, new Random(1));
+        Path file = directory.resolve("suite.txt");
+        suite.write(file, "test");
+        PositionSuite read = PositionSuite.read(file);
+
+        assertEquals(suite.getPositions().size(), read.getPositions().size());
+        for (int i = 0; i < suite.getPositions().size(); i++) {
+            PositionSuite.Position expected = suite.getPositions().get(i);
+            PositionSuite.Position actual = read.getPositions().get(i);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getBoard(), actual.getBoard());
+            assertEquals(expected.getSideToMove(), actual.getSideToMove());
+            assertEquals(expected.getBestMoves(), actual.getBestMoves());
+            assertEquals(expected.getScore(), actual.getScore());
+        }
+    }
+
+    @Test
+    void testWrongPositionsAreRejected() {
+        List<String> lines = new ArrayList<>();
+        lines.add("position start");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("_ _ _ W B _ _ _");
+        lines.add("_ _ _ B W _ _ _");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("_ _ _ _ _ _ _ _");
+        lines.add("side black");
+        lines.add("best d3 c4");
+        assertDoesNotThrow(() -> PositionSuite.parse(lines, "test"));
+
+        List<String> illegalMove = new ArrayList<>(lines);
+        illegalMove.set(10, "best a1");
+        assertThrows(IOException.class, () -> PositionSuite.parse(illegalMove, "test"));
+        List<String> noSide = new ArrayList<>(lines);
+        noSide.remove(9);
+        assertThrows(IOException.class, () -> PositionSuite.parse(noSide, "test"));
+        assertThrows(IOException.class, () -> PositionSuite.parse(lines.subList(0, 5), "test"));
+    }
+
+    @Test
+    void testSolverFindsReferenceAnswers() {
+        PositionSuite suite = new PositionSuiteGenerator().generate(6, 10, new Random(2));
+        SearchSettings settings = new SearchSettings();
+        settings.setMoveTimeMillis(60_000);
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        List<PositionSuiteRunner.Result> results =
+                new PositionSuiteRunner(cell -> new BotPlayerMinMaxRuslan(cell, settings), 2).run(suite);
+
+        assertEquals(suite.getPositions().size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            PositionSuiteRunner.Result result = results.get(i);
+            assertSame(suite.getPositions().get(i), result.position);
+            assertTrue(result.solved);
+            assertTrue(result.isScoreCorrect());
+            assertTrue(result.nodes > 0);
+            assertTrue(result.solutionTimeMillis >= 0 && result.solutionTimeMillis <= result.timeMillis);
+        }
+        assertTrue(PositionSuiteRunner.report(results).contains("solved 6/6"));
+    }
+
+    @Test
+    void testAnyPlayerCanRunSuite() {
+        PositionSuite suite = new PositionSuiteGenerator().generate(3, 12, new Random(3));
+        List<PositionSuiteRunner.Result> results =
+                new PositionSuiteRunner(Player.BotPlayer::new, 3).run(suite);
+
+        for (PositionSuiteRunner.Result result : results) {
+            assertTrue(result.position.getBoard().isValidMove(
+                    PositionSuite.squareIndex(result.move) / 8, PositionSuite.squareIndex(result.move) % 8,
+                    result.position.getSideToMove()));
+            assertNull(result.score);
+            assertEquals(0, result.nodes);
+            if (result.solved) {
+                assertEquals(result.timeMillis, result.solutionTimeMillis);
+            }
+        }
+    }
+}
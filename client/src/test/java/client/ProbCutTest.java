@@ -0,0 +1,73 @@
+package client;
+
+import logic.BitBoard;
+import logic.Cell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbCutTest {
+
+    @Test
+    void testFitSaveAndLoad(@TempDir Path directory) throws IOException {
+        ProbCutFitter fitter = new ProbCutFitter(new SquareWeightEvaluator(), 4);
+        fitter.addSelfPlayPositions(40, new Random(1));
+        ProbCut probCut = fitter.fit();
+        assertTrue(probCut.checks(0, 4).length > 0);
+        assertEquals(0, probCut.checks(0, 2).length);
+
+        Path path = directory.resolve("probcut.txt");
+        probCut.save(path);
+        ProbCut loaded = ProbCut.load(path);
+        ProbCut.Check expected = probCut.checks(0, 4)[0];
+        ProbCut.Check actual = loaded.checks(0, 4)[0];
+        assertEquals(ProbCut.shallowDepth(4), actual.shallowDepth);
+        assertEquals(expected.a, actual.a, 1e-3);
+        assertEquals(expected.sigma, actual.sigma, 1e-3);
+    }
+
+    @Test
+    void testWrongLine(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("probcut.txt");
+        Files.writeString(path, "0 4 5 1.0 0.0 10.0\n");
+        assertThrows(IOException.class, () -> ProbCut.load(path));
+    }
+
+    @Test
+    void testThresholdTradesNodesForAccuracy() {
+        ProbCut probCut = new ProbCut();
+        for (int depth = ProbCut.MIN_DEPTH; depth <= ProbCut.MAX_DEPTH; depth++) {
+            probCut.add(0, depth, new ProbCut.Check(ProbCut.shallowDepth(depth), 1, 0, 10));
+            probCut.add(1, depth, new ProbCut.Check(ProbCut.shallowDepth(depth), 1, 0, 10));
+        }
+        BitBoard initial = new BitBoard();
+        long own = initial.getBlack();
+        long opp = initial.getWhite();
+
+        NegamaxSearch plain = new NegamaxSearch(new TranspositionTable(4), new SquareWeightEvaluator());
+        plain.search(own, opp, Cell.BLACK, 7);
+
+        SearchSettings safe = new SearchSettings();
+        safe.setProbCutThreshold(1000);
+        NegamaxSearch safeSearch = new NegamaxSearch(new TranspositionTable(4), new SquareWeightEvaluator(), safe);
+        safeSearch.setProbCut(probCut);
+        safeSearch.search(own, opp, Cell.BLACK, 7);
+        assertEquals(plain.getBestScore(), safeSearch.getBestScore());
+        assertEquals(0, safeSearch.getStatistics().getProbCuts());
+
+        SearchSettings aggressive = new SearchSettings();
+        aggressive.setProbCutThreshold(0.5);
+        NegamaxSearch selective = new NegamaxSearch(new TranspositionTable(4), new SquareWeightEvaluator(), aggressive);
+        selective.setProbCut(probCut);
+        int move = selective.search(own, opp, Cell.BLACK, 7);
+        assertTrue((BitBoard.legalMoves(own, opp) & (1L << move)) != 0);
+        assertTrue(selective.getStatistics().getProbCuts() > 0);
+        assertTrue(selective.getNodes() < plain.getNodes());
+    }
+}
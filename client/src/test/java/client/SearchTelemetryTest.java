@@ -0,0 +1,122 @@
+package client;
+
+import com.google.gson.Gson;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.RandomPlay;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTelemetryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testJsonLinesGetOneLinePerMove() throws IOException {
+        Path file = directory.resolve("telemetry.jsonl");
+        SearchSettings settings = new SearchSettings();
+        settings.setDepth(5);
+        settings.setMoveTimeMillis(60_000);
+        settings.setTelemetry(SearchSettings.Telemetry.JSON_LINES);
+        settings.setTelemetryPath(file.toString());
+        BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(Cell.BLACK, settings);
+        Board board = new Board();
+        Move first = bot.makeMove(board);
+        Move reply = board.getAllAvailableMoves(Cell.WHITE).get(0);
+        board.placePiece(reply.row, reply.col, Cell.WHITE);
+        bot.makeMove(board);
+        bot.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        SearchTelemetry telemetry = new Gson().fromJson(lines.get(0), SearchTelemetry.class);
+        assertEquals(1, telemetry.moveNumber);
+        assertEquals("BLACK", telemetry.color);
+        assertEquals(SearchTelemetry.Source.NEGAMAX, telemetry.source);
+        assertEquals(SearchTelemetry.squareName(first.row * 8 + first.col), telemetry.move);
+        assertEquals(telemetry.move, telemetry.principalVariation.get(0));
+        assertTrue(telemetry.principalVariation.size() > 1);
+        assertEquals(5, telemetry.depth);
+        assertTrue(telemetry.selectiveDepth >= telemetry.depth);
+        assertTrue(telemetry.nodes > 0);
+        assertTrue(telemetry.ttProbes >= telemetry.ttHits);
+        assertEquals(SearchStatistics.CUTOFF_HISTOGRAM_SIZE, telemetry.cutoffHistogram.length);
+        assertTrue(telemetry.cutoffHistogram[0] > 0);
+        assertTrue(telemetry.firstMoveCutoffRate > 0 && telemetry.firstMoveCutoffRate <= 1);
+        assertTrue(telemetry.effectiveBranchingFactor > 0);
+        assertTrue(telemetry.pvsResearches >= 0 && telemetry.aspirationResearches >= 0);
+        assertEquals(settings.getThreads(), telemetry.threadNodes.length);
+        assertEquals(telemetry.nodes, Arrays.stream(telemetry.threadNodes).sum());
+        assertEquals(2, new Gson().fromJson(lines.get(1), SearchTelemetry.class).moveNumber);
+    }
+
+    @Test
+    void testEndgameMovesHaveNoNegamaxStatistics() {
+        SearchSettings settings = new SearchSettings();
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        settings.setMoveTimeMillis(60_000);
+        settings.setEndgameEmpties(14);
+        Random random = new Random(4);
+        for (int i = 0; i < 10; i++) {
+            Board board = RandomPlay.randomPosition(random, 12);
+            if (board.getQuantityOfEmpty() != 12 || board.getAllAvailableMoves(board.getSideToMove()).size() < 2) {
+                continue;
+            }
+            BotPlayerMinMaxRuslan bot = new BotPlayerMinMaxRuslan(board.getSideToMove(), settings);
+            List<SearchTelemetry> moves = new ArrayList<>();
+            bot.addSearchListener(moves::add);
+            bot.makeMove(board);
+            bot.close();
+
+            SearchTelemetry telemetry = moves.get(0);
+            assertEquals(SearchTelemetry.Source.ENDGAME, telemetry.source);
+            assertTrue(telemetry.exact);
+            assertEquals(12, telemetry.depth);
+            assertEquals(0, telemetry.selectiveDepth);
+            assertNull(telemetry.cutoffHistogram);
+            assertEquals(0, telemetry.effectiveBranchingFactor);
+            assertTrue(telemetry.nodes > Arrays.stream(telemetry.threadNodes).sum());
+        }
+    }
+
+    @Test
+    void testListenerGetsMctsMoves() {
+        SearchSettings settings = new SearchSettings();
+        settings.setTelemetry(SearchSettings.Telemetry.NONE);
+        settings.setThreads(1);
+        settings.setMctsPlayouts(2000);
+        settings.setMctsNodes(1 << 16);
+        settings.setMoveTimeMillis(60_000);
+        MctsPlayer player = new MctsPlayer(Cell.BLACK, settings);
+        List<SearchTelemetry> moves = new ArrayList<>();
+        player.addSearchListener(moves::add);
+        Move move = player.makeMove(new Board());
+        player.close();
+
+        assertEquals(1, moves.size());
+        SearchTelemetry telemetry = moves.get(0);
+        assertEquals(SearchTelemetry.Source.MCTS, telemetry.source);
+        assertEquals(SearchTelemetry.squareName(move.row * 8 + move.col), telemetry.move);
+        assertEquals(2000, telemetry.nodes);
+        assertEquals(telemetry.principalVariation.size(), telemetry.depth);
+        assertTrue(telemetry.score >= 0 && telemetry.score <= 100);
+    }
+
+    @Test
+    void testSquareName() {
+        assertEquals("a1", SearchTelemetry.squareName(0));
+        assertEquals("d3", SearchTelemetry.squareName(2 * 8 + 3));
+        assertEquals("h8", SearchTelemetry.squareName(63));
+    }
+}
@@ -0,0 +1,51 @@
+package client;
+
+import logic.Board;
+import logic.Cell;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeManagerTest {
+
+    @Test
+    void testFixedMoveTime() {
+        SearchSettings settings = new SearchSettings();
+        settings.setMoveTimeMillis(200);
+        TimeManager timeManager = new TimeManager(settings);
+        long before = System.nanoTime();
+        long deadline = timeManager.startMove();
+        assertEquals(200_000_000L, timeManager.getMoveBudget());
+        assertTrue(deadline >= before + 200_000_000L);
+    }
+
+    @Test
+    void testFractionOfGameClockIsCappedByMoveTimeout() {
+        SearchSettings settings = new SearchSettings();
+        settings.setGameTimeMillis(60_000);
+        settings.setGameTimeFraction(0.5);
+        settings.setMaxMoveTimeMillis(1000);
+        settings.setSafetyMarginMillis(100);
+        TimeManager timeManager = new TimeManager(settings);
+        timeManager.startMove();
+        assertEquals(900_000_000L, timeManager.getMoveBudget());
+
+        settings.setMaxMoveTimeMillis(100_000);
+        timeManager.startMove();
+        long used = timeManager.endMove();
+        assertEquals(60_000_000_000L - used, timeManager.getRemainingGameNanos());
+        timeManager.startMove();
+        assertEquals((long) (timeManager.getRemainingGameNanos() * 0.5), timeManager.getMoveBudget());
+    }
+
+    @Test
+    void testIterativeDeepeningReturnsMoveWhenDeadlinePassed() {
+        NegamaxSearch search = new NegamaxSearch(new TranspositionTable(1), new SquareWeightEvaluator());
+        Board board = new Board();
+        int move = search.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 60, System.nanoTime());
+        assertTrue((board.getAvailableMovesMask(Cell.BLACK) & (1L << move)) != 0);
+
+        search.searchIterative(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK, 60, System.nanoTime() + 50_000_000L);
+        assertTrue(search.getCompletedDepth() >= 4);
+    }
+}
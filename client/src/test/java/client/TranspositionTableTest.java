@@ -0,0 +1,45 @@
+package client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.getCapacity());
+        assertEquals(TranspositionTable.MISS, table.probe(42L));
+
+        table.store(42L, 5, TranspositionTable.LOWER, -1234, 63);
+        long entry = table.probe(42L);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(5, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(63, TranspositionTable.bestMove(entry));
+        assertEquals(0.5, table.getHitRate());
+    }
+
+    @Test
+    void testDepthPreferredAndAlwaysReplace() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStep = table.getCapacity() / 2;
+        long deepKey = 7L;
+        long shallowKey = 7L + bucketStep;
+        long newerKey = 7L + 2 * bucketStep;
+
+        table.store(deepKey, 8, TranspositionTable.EXACT, 10, 0);
+        table.store(shallowKey, 2, TranspositionTable.EXACT, 20, 1);
+        table.store(newerKey, 3, TranspositionTable.EXACT, 30, 2);
+        assertEquals(10, TranspositionTable.score(table.probe(deepKey)));
+        assertEquals(TranspositionTable.MISS, table.probe(shallowKey));
+        assertEquals(30, TranspositionTable.score(table.probe(newerKey)));
+
+        table.newSearch();
+        table.store(shallowKey, 1, TranspositionTable.UPPER, 40, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(deepKey));
+        assertEquals(40, TranspositionTable.score(table.probe(shallowKey)));
+    }
+}
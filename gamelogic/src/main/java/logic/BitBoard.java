@@ -0,0 +1,232 @@
+package logic;
+
+/**
+ * Класс BitBoard хранит позицию в виде двух 64-битных масок (черные и белые фишки) и выполняет генерацию ходов
+ * и переворот фишек сдвигами и масками.
+ *
+ * Клетка (row, col) соответствует биту с номером row * 8 + col.
+ */
+public final class BitBoard {
+    private static final int BOARD_SIZE = 8;
+    private static final long NOT_A_FILE = 0xFEFEFEFEFEFEFEFEL;
+    private static final long NOT_H_FILE = 0x7F7F7F7F7F7F7F7FL;
+    private static final long INITIAL_BLACK = (1L << 28) | (1L << 35);
+    private static final long INITIAL_WHITE = (1L << 27) | (1L << 36);
+
+    /**
+     * Сдвиги для восьми направлений: положительный - сдвиг влево, отрицательный - вправо.
+     */
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    private static final long[] MASKS = {NOT_A_FILE, NOT_H_FILE, -1L, -1L, NOT_A_FILE, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE};
+
+    private long black;
+    private long white;
+
+    /**
+     * Создает доску с начальной расстановкой четырех фишек по центру.
+     */
+    public BitBoard() {
+        this(INITIAL_BLACK, INITIAL_WHITE);
+    }
+
+    public BitBoard(long black, long white) {
+        if ((black & white) != 0) {
+            throw new IllegalArgumentException();
+        }
+        this.black = black;
+        this.white = white;
+    }
+
+    public BitBoard(BitBoard other) {
+        this(other.black, other.white);
+    }
+
+    /**
+     * Возвращает номер бита для клетки (row, col).
+     */
+    public static int square(int row, int col) {
+        return row * BOARD_SIZE + col;
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    /**
+     * Возвращает маску фишек указанного цвета.
+     */
+    public long getDiscs(Cell cell) {
+        return cell == Cell.BLACK ? black : cell == Cell.WHITE ? white : getEmpty();
+    }
+
+    public long getEmpty() {
+        return ~(black | white);
+    }
+
+    public Cell get(int square) {
+        long bit = 1L << square;
+        if ((black & bit) != 0) {
+            return Cell.BLACK;
+        }
+        if ((white & bit) != 0) {
+            return Cell.WHITE;
+        }
+        return Cell.EMPTY;
+    }
+
+    public void set(int square, Cell cell) {
+        long bit = 1L << square;
+        black &= ~bit;
+        white &= ~bit;
+        if (cell == Cell.BLACK) {
+            black |= bit;
+        } else if (cell == Cell.WHITE) {
+            white |= bit;
+        }
+    }
+
+    public int countBlack() {
+        return Long.bitCount(black);
+    }
+
+    public int countWhite() {
+        return Long.bitCount(white);
+    }
+
+    public int countEmpty() {
+        return Long.bitCount(getEmpty());
+    }
+
+    /**
+     * Возвращает маску всех допустимых ходов для указанного цвета.
+     *
+     * @param cell цвет игрока, для которого ищутся ходы.
+     * @return маска клеток, куда можно поставить фишку.
+     */
+    public long legalMoves(Cell cell) {
+        return cell == Cell.BLACK ? legalMoves(black, white) : legalMoves(white, black);
+    }
+
+    /**
+     * Возвращает маску фишек, которые перевернутся при ходе в клетку square.
+     */
+    public long flips(int square, Cell cell) {
+        return cell == Cell.BLACK ? flips(black, white, square) : flips(white, black, square);
+    }
+
+    /**
+     * Ставит фишку в клетку square и переворачивает фишки соперника.
+     *
+     * @param square     номер клетки.
+     * @param playerCell цвет игрока, который делает ход.
+     * @return маска перевернутых фишек.
+     */
+    public long play(int square, Cell playerCell) {
+        long flipped = flips(square, playerCell);
+        long bit = 1L << square;
+        if (playerCell == Cell.BLACK) {
+            black |= flipped | bit;
+            white &= ~(flipped | bit);
+        } else {
+            white |= flipped | bit;
+            black &= ~(flipped | bit);
+        }
+        return flipped;
+    }
+
+    /**
+     * Отменяет ход, сделанный методом play.
+     *
+     * @param square     номер клетки, куда была поставлена фишка.
+     * @param flipped    маска перевернутых фишек, которую вернул play.
+     * @param playerCell цвет игрока, который делал ход.
+     */
+    public void undo(int square, long flipped, Cell playerCell) {
+        long bit = 1L << square;
+        if (playerCell == Cell.BLACK) {
+            black &= ~(flipped | bit);
+            white |= flipped;
+        } else {
+            white &= ~(flipped | bit);
+            black |= flipped;
+        }
+    }
+
+    /**
+     * Генерирует маску допустимых ходов для фишек own против фишек opp за один проход по восьми направлениям.
+     */
+    public static long legalMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int dir = 0; dir < SHIFTS.length; dir++) {
+            long candidates = shift(own, dir) & opp;
+            candidates |= shift(candidates, dir) & opp;
+            candidates |= shift(candidates, dir) & opp;
+            candidates |= shift(candidates, dir) & opp;
+            candidates |= shift(candidates, dir) & opp;
+            candidates |= shift(candidates, dir) & opp;
+            moves |= shift(candidates, dir) & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * Возвращает маску фишек opp, которые окажутся между клеткой square и фишками own.
+     */
+    public static long flips(long own, long opp, int square) {
+        long flipped = 0;
+        long start = 1L << square;
+        for (int dir = 0; dir < SHIFTS.length; dir++) {
+            long line = 0;
+            long cursor = shift(start, dir);
+            while ((cursor & opp) != 0) {
+                line |= cursor;
+                cursor = shift(cursor, dir);
+            }
+            if ((cursor & own) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Возвращает маску клеток, соседних хотя бы с одной клеткой из discs по одному из восьми направлений.
+     */
+    public static long neighbours(long discs) {
+        long result = 0;
+        for (int dir = 0; dir < SHIFTS.length; dir++) {
+            result |= shift(discs, dir);
+        }
+        return result;
+    }
+
+    static long shift(long discs, int dir) {
+        int shift = SHIFTS[dir];
+        return (shift > 0 ? discs << shift : discs >>> -shift) & MASKS[dir];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BitBoard bitBoard)) return false;
+        return black == bitBoard.black && white == bitBoard.white;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(black) + Long.hashCode(white);
+    }
+}
@@ -5,17 +5,27 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 public class Board {
-    private final Cell[][] board;
+    private final BitBoard board;
     private static final int BOARD_SIZE = 8;
+    private static final int MAX_UNDO_DEPTH = BOARD_SIZE * BOARD_SIZE;
     private int quantityOfWhite = 2;
     private int quantityOfBlack = 2;
-    private final Logger logger = LogManager.getLogger(Board.class);
-
+    private static final Logger logger = LogManager.getLogger(Board.class);
+    private long[] undoFlipped;
+    private int[] undoSquares;
+    private Cell[] undoCells;
+    private Cell[] undoSidesToMove;
+    private long[] undoZobristKeys;
+    private int undoSize;
+    private Cell sideToMove = Cell.BLACK;
+    private long zobristKey;
+    private long stableBlack;
+    private long stableWhite;
+    private boolean stabilityKnown;
 
     public void setQuantityOfWhite(int quantityOfWhite) {
         this.quantityOfWhite = quantityOfWhite;
@@ -29,18 +39,15 @@ public class Board {
      * Создает доску и четыре фишки по центру карты.
      */
     public Board() {
+        board = new BitBoard();
+        zobristKey = Zobrist.hash(board.getBlack(), board.getWhite(), sideToMove);
+    }
 
-        board = new Cell[BOARD_SIZE][BOARD_SIZE];
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int cow = 0; cow < BOARD_SIZE; cow++) {
-                board[row][cow] = Cell.EMPTY;
-            }
-        }
-
-        board[3][3] = Cell.WHITE;
-        board[4][4] = Cell.WHITE;
-        board[3][4] = Cell.BLACK;
-        board[4][3] = Cell.BLACK;
+    private Board(BitBoard board, Cell sideToMove, long zobristKey) {
+        this.board = board;
+        this.sideToMove = sideToMove;
+        this.zobristKey = zobristKey;
+        updateQuantities();
     }
 
 
@@ -53,24 +60,11 @@ public class Board {
      */
     public void set(int row, int col, Cell cell) {
         checkArgument(row, col);
-
-        if (!board[row][col].equals(cell)) {
-            if (board[row][col] == Cell.BLACK) {
-                quantityOfWhite++;
-                quantityOfBlack--;
-            }
-            if (board[row][col] == Cell.WHITE) {
-                quantityOfWhite--;
-                quantityOfBlack++;
-            }
-            if (board[row][col] == Cell.EMPTY) {
-                if (cell == Cell.WHITE) quantityOfWhite++;
-                if (cell == Cell.BLACK) quantityOfBlack++;
-            }
-        }
-
-        board[row][col] = cell;
-
+        int square = BitBoard.square(row, col);
+        zobristKey ^= Zobrist.discKey(square, board.get(square)) ^ Zobrist.discKey(square, cell);
+        board.set(square, cell);
+        updateQuantities();
+        resetStability();
     }
 
     /**
@@ -82,38 +76,12 @@ public class Board {
      */
     public Cell get(int row, int col) {
         checkArgument(row, col);
-        return board[row][col];
+        return board.get(BitBoard.square(row, col));
     }
 
     public boolean isValidMove(int row, int col, Cell cell) {
-
         checkArgument(row, col);
-        if (board[row][col] != Cell.EMPTY) {
-            return false;
-        }
-
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) {
-                    continue;
-                }
-
-                int r = row + dr;
-                int c = col + dc;
-                boolean isValidDirection = false;
-
-                while (r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE && board[r][c] == cell.reverse()) {
-                    r += dr;
-                    c += dc;
-                    isValidDirection = true;
-                }
-
-                if (isValidDirection && r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE && board[r][c] == cell) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return (board.legalMoves(cell) & (1L << BitBoard.square(row, col))) != 0;
     }
 
     /**
@@ -124,17 +92,99 @@ public class Board {
      * @return список ходов типа List<Move>, представляющий все доступные ходы для указанной фишки.
      */
     public List<Move> getAllAvailableMoves(Cell cell) {
-        List<Move> moves = new ArrayList<>();
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (isValidMove(i, j, cell)) {
-                    moves.add(new Move(i, j));
-                }
-            }
+        long legalMoves = getAvailableMovesMask(cell);
+        List<Move> moves = new ArrayList<>(Long.bitCount(legalMoves));
+        while (legalMoves != 0) {
+            int square = Long.numberOfTrailingZeros(legalMoves);
+            moves.add(new Move(BitBoard.row(square), BitBoard.col(square)));
+            legalMoves &= legalMoves - 1;
         }
         return moves;
     }
 
+    /**
+     * Возвращает все доступные ходы для указанной фишки одной маской за один проход по доске.
+     * Клетке (row, col) соответствует бит с номером row * 8 + col.
+     *
+     * @param cell тип фишки (цвет), для которой нужно получить доступные ходы.
+     * @return маска доступных ходов.
+     */
+    public long getAvailableMovesMask(Cell cell) {
+        return board.legalMoves(cell);
+    }
+
+    /**
+     * Возвращает маску черных фишек (клетке (row, col) соответствует бит row * 8 + col).
+     */
+    public long getBlackMask() {
+        return board.getBlack();
+    }
+
+    /**
+     * Возвращает маску белых фишек (клетке (row, col) соответствует бит row * 8 + col).
+     */
+    public long getWhiteMask() {
+        return board.getWhite();
+    }
+
+    /**
+     * Проверяет, есть ли у указанной фишки хотя бы один ход. Не создает список ходов.
+     */
+    public boolean hasAnyMove(Cell cell) {
+        return board.legalMoves(cell) != 0;
+    }
+
+    /**
+     * Возвращает количество доступных ходов для указанной фишки. Не создает список ходов.
+     */
+    public int mobilityCount(Cell cell) {
+        return Long.bitCount(board.legalMoves(cell));
+    }
+
+    /**
+     * Возвращает маску стабильных фишек указанного цвета (см. Stability). Результат кэшируется до изменения доски,
+     * а после placePiece и makeMove поиск начинается с уже известных стабильных фишек.
+     */
+    public long getStableMask(Cell cell) {
+        if (!stabilityKnown) {
+            long black = board.getBlack();
+            long white = board.getWhite();
+            stableBlack = Stability.stableDiscs(black, white, stableBlack);
+            stableWhite = Stability.stableDiscs(white, black, stableWhite);
+            stabilityKnown = true;
+        }
+        if (cell == Cell.EMPTY) {
+            logger.log(Level.ERROR, "Стабильность считается только для фишек.");
+            throw new IllegalArgumentException();
+        }
+        return cell == Cell.BLACK ? stableBlack : stableWhite;
+    }
+
+    /**
+     * Возвращает количество стабильных фишек указанного цвета.
+     */
+    public int stableCount(Cell cell) {
+        return Long.bitCount(getStableMask(cell));
+    }
+
+    /**
+     * Возвращает количество фишек указанного цвета, соседних с пустыми клетками.
+     */
+    public int frontierCount(Cell cell) {
+        long black = board.getBlack();
+        long white = board.getWhite();
+        return Long.bitCount(cell == Cell.BLACK ? Stability.frontierDiscs(black, white)
+                : cell == Cell.WHITE ? Stability.frontierDiscs(white, black) : 0);
+    }
+
+    /**
+     * Забывает стабильные фишки: после set и unmakeMove найденные раньше фишки могут быть уже не стабильны.
+     */
+    private void resetStability() {
+        stableBlack = 0;
+        stableWhite = 0;
+        stabilityKnown = false;
+    }
 
     /**
      * Возвращает количество белых клеток.
@@ -157,6 +207,11 @@ public class Board {
         return BOARD_SIZE * BOARD_SIZE - quantityOfBlack - quantityOfWhite;
     }
 
+    private void updateQuantities() {
+        quantityOfBlack = board.countBlack();
+        quantityOfWhite = board.countWhite();
+    }
+
     private void checkArgument(int row, int col) {
         if (row >= BOARD_SIZE || row < 0 || col >= BOARD_SIZE || col < 0) {
             logger.log(Level.ERROR, "Ошибка в передачи координат на доску.");
@@ -175,13 +230,13 @@ public class Board {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Board board1)) return false;
-        return Arrays.deepEquals(board, board1.board);
+        return board.equals(board1.board);
     }
 
     @Override
     public int hashCode() {
         int result = Objects.hash(BOARD_SIZE);
-        result = 31 * result + Arrays.deepHashCode(board);
+        result = 31 * result + board.hashCode();
         return result;
     }
 
@@ -191,12 +246,12 @@ public class Board {
      * @return копия доски.
      */
     public Board getBoardCopy() {
-        Board copy = new Board();
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            System.arraycopy(this.board[i], 0, copy.board[i], 0, BOARD_SIZE);
-        }
+        Board copy = new Board(new BitBoard(board), sideToMove, zobristKey);
         copy.setQuantityOfBlack(this.getQuantityOfBlack());
         copy.setQuantityOfWhite(this.getQuantityOfWhite());
+        copy.stableBlack = stableBlack;
+        copy.stableWhite = stableWhite;
+        copy.stabilityKnown = stabilityKnown;
         return copy;
     }
 
@@ -207,35 +262,48 @@ public class Board {
      * @param col - колонна.
      */
     public void placePiece(int row, int col, Cell playerCell) {
-        set(row, col, playerCell);
+        checkArgument(row, col);
+        int square = BitBoard.square(row, col);
+        long previousKey = Zobrist.discKey(square, board.get(square));
+        long flipped = board.play(square, playerCell);
+        zobristKey ^= previousKey ^ Zobrist.discKey(square, playerCell) ^ Zobrist.flipKeys(flipped);
+        setSideToMove(playerCell.reverse());
+        updateQuantities();
+        stabilityKnown = false;
+    }
 
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) {
-                    continue;
-                }
+    /**
+     * Возвращает номер симметрии (см. Symmetry), которая переводит доску в каноническую форму.
+     */
+    public int getCanonicalSymmetry() {
+        return Symmetry.canonicalSymmetry(board.getBlack(), board.getWhite());
+    }
 
-                int r = row + dr;
-                int c = col + dc;
-                boolean isValidDirection = false;
-                boolean hasOpponentPiece = false;
+    /**
+     * Возвращает ключ Зобриста канонической формы доски с учетом очереди хода. Ключ одинаков у всех
+     * восьми симметричных позиций.
+     */
+    public long getCanonicalKey() {
+        return Symmetry.canonicalKey(board.getBlack(), board.getWhite(), sideToMove);
+    }
 
-                while (r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE && board[r][c] == playerCell.reverse()) {
-                    r += dr;
-                    c += dc;
-                    isValidDirection = true;
-                    hasOpponentPiece = true;
-                }
+    /**
+     * Создает копию доски в канонической форме с той же очередью хода. Ход, найденный на копии,
+     * переводится на эту доску методом fromCanonical.
+     */
+    public Board getCanonicalBoard() {
+        int symmetry = getCanonicalSymmetry();
+        long black = Symmetry.transform(board.getBlack(), symmetry);
+        long white = Symmetry.transform(board.getWhite(), symmetry);
+        return new Board(new BitBoard(black, white), sideToMove, Zobrist.hash(black, white, sideToMove));
+    }
 
-                if (isValidDirection && r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE && board[r][c] == playerCell && hasOpponentPiece) {
-                    while (r != row || c != col) {
-                        r -= dr;
-                        c -= dc;
-                        set(r, c, playerCell);
-                    }
-                }
-            }
-        }
+    /**
+     * Переводит ход на канонической доске (getCanonicalBoard) в ход на этой доске.
+     */
+    public Move fromCanonical(Move move) {
+        checkArgument(move.row, move.col);
+        return Symmetry.transformMove(move, Symmetry.inverse(getCanonicalSymmetry()));
     }
 
     /**
@@ -252,11 +320,98 @@ public class Board {
         return copy;
     }
 
-    public boolean isGameOver() {
-        List<Move> blackMoves = getAllAvailableMoves(Cell.BLACK);
-        List<Move> whiteMoves = getAllAvailableMoves(Cell.WHITE);
+    /**
+     * Делает ход на этой же доске без создания копии и запоминает его в стеке отмены.
+     * Ход должен быть допустимым: фишка ставится на пустую клетку и переворачивает хотя бы одну фишку.
+     *
+     * @param row        - строка.
+     * @param col        - колонна.
+     * @param playerCell - клетка цвета игрока, осуществляющего ход.
+     * @return маска перевернутых фишек (клетке (row, col) соответствует бит row * 8 + col).
+     */
+    public long makeMove(int row, int col, Cell playerCell) {
+        checkArgument(row, col);
+        if (undoFlipped == null) {
+            undoFlipped = new long[MAX_UNDO_DEPTH];
+            undoSquares = new int[MAX_UNDO_DEPTH];
+            undoCells = new Cell[MAX_UNDO_DEPTH];
+            undoSidesToMove = new Cell[MAX_UNDO_DEPTH];
+            undoZobristKeys = new long[MAX_UNDO_DEPTH];
+        }
+        undoSidesToMove[undoSize] = sideToMove;
+        undoZobristKeys[undoSize] = zobristKey;
+        int square = BitBoard.square(row, col);
+        long flipped = board.play(square, playerCell);
+        zobristKey ^= Zobrist.discKey(square, playerCell) ^ Zobrist.flipKeys(flipped);
+        setSideToMove(playerCell.reverse());
+        int flippedCount = Long.bitCount(flipped);
+        if (playerCell == Cell.BLACK) {
+            quantityOfBlack += flippedCount + 1;
+            quantityOfWhite -= flippedCount;
+        } else {
+            quantityOfWhite += flippedCount + 1;
+            quantityOfBlack -= flippedCount;
+        }
+        undoFlipped[undoSize] = flipped;
+        undoSquares[undoSize] = square;
+        undoCells[undoSize] = playerCell;
+        undoSize++;
+        stabilityKnown = false;
+        return flipped;
+    }
+
+    /**
+     * Отменяет последний ход, сделанный методом makeMove, и восстанавливает доску и счетчики фишек.
+     */
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            logger.log(Level.ERROR, "Нет ходов для отмены.");
+            throw new IllegalStateException();
+        }
+        undoSize--;
+        long flipped = undoFlipped[undoSize];
+        Cell playerCell = undoCells[undoSize];
+        board.undo(undoSquares[undoSize], flipped, playerCell);
+        sideToMove = undoSidesToMove[undoSize];
+        zobristKey = undoZobristKeys[undoSize];
+        int flippedCount = Long.bitCount(flipped);
+        if (playerCell == Cell.BLACK) {
+            quantityOfBlack -= flippedCount + 1;
+            quantityOfWhite += flippedCount;
+        } else {
+            quantityOfWhite -= flippedCount + 1;
+            quantityOfBlack += flippedCount;
+        }
+        resetStability();
+    }
 
-        return blackMoves.isEmpty() && whiteMoves.isEmpty();
+    /**
+     * Возвращает цвет игрока, чей сейчас ход. После placePiece и makeMove ход переходит к сопернику.
+     */
+    public Cell getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Устанавливает цвет игрока, чей сейчас ход (например, при пропуске хода).
+     */
+    public void setSideToMove(Cell sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            zobristKey ^= Zobrist.sideChangeKey();
+            this.sideToMove = sideToMove;
+        }
+    }
+
+    /**
+     * Возвращает 64-битный ключ Зобриста текущей позиции с учетом очереди хода.
+     * Ключ поддерживается инкрементально в set, placePiece, makeMove и unmakeMove.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public boolean isGameOver() {
+        return !hasAnyMove(Cell.BLACK) && !hasAnyMove(Cell.WHITE);
     }
 
     public Cell getWinner() {
@@ -317,8 +472,17 @@ public class Board {
         return boardInSrting;
     }
 
+    /**
+     * Возвращает снимок доски в виде двумерного массива. Изменения массива не влияют на доску.
+     */
     public Cell[][] getBoard() {
-        return board;
+        Cell[][] cells = new Cell[BOARD_SIZE][BOARD_SIZE];
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                cells[row][col] = board.get(BitBoard.square(row, col));
+            }
+        }
+        return cells;
     }
 }
 
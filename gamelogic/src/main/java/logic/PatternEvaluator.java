@@ -0,0 +1,422 @@
+package logic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Оценка позиции по шаблонам: край с X-клетками, угол 3x3, горизонтали 2-4 и диагонали длиной от 4 до 8.
+ *
+ * Каждый шаблон - упорядоченный набор клеток, состояние шаблона кодируется числом в троичной системе
+ * (0 - пусто, 1 - черная фишка, 2 - белая), и это число - индекс в таблице весов типа шаблона.
+ * Шаблоны одного типа получены поворотами доски и делят одну таблицу. Веса свои для каждой фазы партии
+ * (фаза определяется числом пустых клеток), к шаблонам добавляются разница мобильности и разница фронтира.
+ *
+ * Индексы шаблонов можно не пересчитывать в каждом листе: play и undo обновляют их по поставленной
+ * и перевернутым фишкам, а evaluate только складывает веса из таблиц. Веса хранятся в целых единицах
+ * (SCALE единиц на фишку), оценка - с точки зрения черных. Таблицы после создания не меняются,
+ * поэтому один объект можно использовать из нескольких потоков.
+ */
+public final class PatternEvaluator {
+    public static final int PHASES = 6;
+    public static final int SCALE = 16;
+    public static final int MAX_SCORE = 4000;
+    private static final int MAGIC = 0x50415457;
+    private static final int EMPTIES_PER_PHASE = 10;
+
+    private static final int[][][] BASE_PATTERNS = {
+            {{0, 0}, {0, 1}, {0, 2}, {0, 3}, {0, 4}, {0, 5}, {0, 6}, {0, 7}, {1, 1}, {1, 6}},
+            {{0, 0}, {0, 1}, {0, 2}, {1, 0}, {1, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}},
+            {{1, 0}, {1, 1}, {1, 2}, {1, 3}, {1, 4}, {1, 5}, {1, 6}, {1, 7}},
+            {{2, 0}, {2, 1}, {2, 2}, {2, 3}, {2, 4}, {2, 5}, {2, 6}, {2, 7}},
+            {{3, 0}, {3, 1}, {3, 2}, {3, 3}, {3, 4}, {3, 5}, {3, 6}, {3, 7}},
+            {{0, 0}, {1, 1}, {2, 2}, {3, 3}, {4, 4}, {5, 5}, {6, 6}, {7, 7}},
+            {{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 5}, {5, 6}, {6, 7}},
+            {{0, 2}, {1, 3}, {2, 4}, {3, 5}, {4, 6}, {5, 7}},
+            {{0, 3}, {1, 4}, {2, 5}, {3, 6}, {4, 7}},
+            {{0, 4}, {1, 5}, {2, 6}, {3, 7}}};
+    public static final int TYPES = BASE_PATTERNS.length;
+
+    private static final int[] TYPE_SIZES = new int[TYPES];
+    private static final int[][] SWAPPED = new int[TYPES][];
+    private static final int[][] INSTANCE_SQUARES;
+    private static final int[] INSTANCE_TYPES;
+    private static final int[][] SQUARE_INSTANCES = new int[64][];
+    private static final int[][] SQUARE_POWERS = new int[64][];
+
+    static {
+        List<int[]> squares = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        List<Long> masks = new ArrayList<>();
+        for (int type = 0; type < TYPES; type++) {
+            int[][] pattern = BASE_PATTERNS[type];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                int[] instance = new int[pattern.length];
+                long mask = 0;
+                for (int k = 0; k < pattern.length; k++) {
+                    int row = pattern[k][0];
+                    int col = pattern[k][1];
+                    for (int turn = 0; turn < rotation; turn++) {
+                        int previousRow = row;
+                        row = col;
+                        col = 7 - previousRow;
+                    }
+                    instance[k] = BitBoard.square(row, col);
+                    mask |= 1L << instance[k];
+                }
+                if (!masks.contains(mask)) {
+                    masks.add(mask);
+                    squares.add(instance);
+                    types.add(type);
+                }
+            }
+            TYPE_SIZES[type] = power3(pattern.length);
+            SWAPPED[type] = swappedIndices(pattern.length);
+        }
+        INSTANCE_SQUARES = squares.toArray(new int[0][]);
+        INSTANCE_TYPES = types.stream().mapToInt(Integer::intValue).toArray();
+
+        for (int square = 0; square < 64; square++) {
+            List<int[]> entries = new ArrayList<>();
+            for (int instance = 0; instance < INSTANCE_SQUARES.length; instance++) {
+                int[] instanceSquares = INSTANCE_SQUARES[instance];
+                for (int k = 0; k < instanceSquares.length; k++) {
+                    if (instanceSquares[k] == square) {
+                        entries.add(new int[]{instance, power3(k)});
+                    }
+                }
+            }
+            SQUARE_INSTANCES[square] = entries.stream().mapToInt(entry -> entry[0]).toArray();
+            SQUARE_POWERS[square] = entries.stream().mapToInt(entry -> entry[1]).toArray();
+        }
+    }
+
+    private final int[][][] weights;
+    private final int[] mobilityWeights;
+    private final int[] frontierWeights;
+
+    /**
+     * Создает оценку из весов в фишках. Веса шаблонов делаются антисимметричными (вес позиции с переставленными
+     * цветами равен весу с обратным знаком), чтобы оценка для белых была оценкой для черных с обратным знаком.
+     *
+     * @param patternWeights веса шаблонов [фаза][тип шаблона][индекс].
+     * @param mobility       вес разницы мобильности для каждой фазы.
+     * @param frontier       вес разницы фронтира для каждой фазы.
+     */
+    public PatternEvaluator(float[][][] patternWeights, float[] mobility, float[] frontier) {
+        if (patternWeights.length != PHASES || mobility.length != PHASES || frontier.length != PHASES) {
+            throw new IllegalArgumentException();
+        }
+        this.weights = new int[PHASES][TYPES][];
+        this.mobilityWeights = new int[PHASES];
+        this.frontierWeights = new int[PHASES];
+        for (int phase = 0; phase < PHASES; phase++) {
+            if (patternWeights[phase].length != TYPES) {
+                throw new IllegalArgumentException();
+            }
+            for (int type = 0; type < TYPES; type++) {
+                float[] source = patternWeights[phase][type];
+                if (source.length != TYPE_SIZES[type]) {
+                    throw new IllegalArgumentException();
+                }
+                int[] table = new int[source.length];
+                for (int index = 0; index < table.length; index++) {
+                    table[index] = Math.round((source[index] - source[SWAPPED[type][index]]) / 2 * SCALE);
+                }
+                weights[phase][type] = table;
+            }
+            mobilityWeights[phase] = Math.round(mobility[phase] * SCALE);
+            frontierWeights[phase] = Math.round(frontier[phase] * SCALE);
+        }
+    }
+
+    /**
+     * Создает оценку с весами по умолчанию: пока пустых клеток больше десяти, шаблоны повторяют веса клеток
+     * SquareWeightEvaluator из клиента, дальше каждая фишка стоит одну фишку. Мобильность и фронтир не учитываются.
+     */
+    public static PatternEvaluator withDefaultWeights() {
+        int[] coverage = new int[64];
+        for (int[] instanceSquares : INSTANCE_SQUARES) {
+            for (int square : instanceSquares) {
+                coverage[square]++;
+            }
+        }
+        float[][][] patternWeights = new float[PHASES][TYPES][];
+        for (int phase = 0; phase < PHASES; phase++) {
+            for (int type = 0; type < TYPES; type++) {
+                int[] instanceSquares = INSTANCE_SQUARES[firstInstance(type)];
+                float[] table = new float[TYPE_SIZES[type]];
+                for (int index = 0; index < table.length; index++) {
+                    int rest = index;
+                    for (int square : instanceSquares) {
+                        int state = rest % 3;
+                        rest /= 3;
+                        if (state != 0) {
+                            float value = phase == PHASES - 1 ? 1 : (float) defaultSquareWeight(square) / SCALE;
+                            table[index] += (state == 1 ? value : -value) / coverage[square];
+                        }
+                    }
+                }
+                patternWeights[phase][type] = table;
+            }
+        }
+        return new PatternEvaluator(patternWeights, new float[PHASES], new float[PHASES]);
+    }
+
+    private static int defaultSquareWeight(int square) {
+        int row = Math.min(BitBoard.row(square), 7 - BitBoard.row(square));
+        int col = Math.min(BitBoard.col(square), 7 - BitBoard.col(square));
+        if (row == 0 && col == 0) {
+            return 25;
+        }
+        if (row <= 1 && col <= 1) {
+            return -15;
+        }
+        if (row <= 2 && col <= 2) {
+            return 7;
+        }
+        return 0;
+    }
+
+    /**
+     * Читает веса из двоичного файла, записанного методом save.
+     *
+     * @throws IOException если файл не читается или его формат не совпадает с набором шаблонов.
+     */
+    public static PatternEvaluator load(Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != PHASES || input.readInt() != TYPES) {
+                throw new IOException("Not a pattern weights file: " + path);
+            }
+            for (int type = 0; type < TYPES; type++) {
+                if (input.readInt() != TYPE_SIZES[type]) {
+                    throw new IOException("Pattern set mismatch: " + path);
+                }
+            }
+            float[][][] patternWeights = new float[PHASES][TYPES][];
+            for (int phase = 0; phase < PHASES; phase++) {
+                for (int type = 0; type < TYPES; type++) {
+                    patternWeights[phase][type] = readFloats(input, TYPE_SIZES[type]);
+                }
+            }
+            float[] mobility = readFloats(input, PHASES);
+            float[] frontier = readFloats(input, PHASES);
+            return new PatternEvaluator(patternWeights, mobility, frontier);
+        }
+    }
+
+    /**
+     * Записывает веса в двоичный файл: заголовок (MAGIC, число фаз, число типов, размеры таблиц),
+     * затем веса шаблонов по фазам и типам, веса мобильности и веса фронтира.
+     */
+    public static void save(Path path, float[][][] patternWeights, float[] mobility, float[] frontier)
+            throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(PHASES);
+            output.writeInt(TYPES);
+            for (int size : TYPE_SIZES) {
+                output.writeInt(size);
+            }
+            for (int phase = 0; phase < PHASES; phase++) {
+                for (int type = 0; type < TYPES; type++) {
+                    writeFloats(output, patternWeights[phase][type]);
+                }
+            }
+            writeFloats(output, mobility);
+            writeFloats(output, frontier);
+        }
+    }
+
+    private static float[] readFloats(DataInputStream input, int count) throws IOException {
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = input.readFloat();
+        }
+        return values;
+    }
+
+    private static void writeFloats(DataOutputStream output, float[] values) throws IOException {
+        for (float value : values) {
+            output.writeFloat(value);
+        }
+    }
+
+    /**
+     * Вычисляет индексы всех шаблонов позиции заново.
+     *
+     * @param indices массив длиной getInstanceCount() для индексов.
+     */
+    public static void computeIndices(long black, long white, int[] indices) {
+        for (int instance = 0; instance < INSTANCE_SQUARES.length; instance++) {
+            indices[instance] = index(INSTANCE_SQUARES[instance], black, white);
+        }
+    }
+
+    private static int index(int[] instanceSquares, long black, long white) {
+        int index = 0;
+        for (int k = instanceSquares.length - 1; k >= 0; k--) {
+            long bit = 1L << instanceSquares[k];
+            index = index * 3 + ((black & bit) != 0 ? 1 : (white & bit) != 0 ? 2 : 0);
+        }
+        return index;
+    }
+
+    /**
+     * Обновляет индексы шаблонов после хода.
+     *
+     * @param square  клетка, на которую поставлена фишка.
+     * @param flipped маска перевернутых фишек.
+     * @param mover   цвет сходившего игрока.
+     */
+    public static void play(int[] indices, int square, long flipped, Cell mover) {
+        boolean black = mover == Cell.BLACK;
+        update(indices, square, black ? 1 : 2);
+        for (; flipped != 0; flipped &= flipped - 1) {
+            update(indices, Long.numberOfTrailingZeros(flipped), black ? -1 : 1);
+        }
+    }
+
+    /**
+     * Возвращает индексы шаблонов к позиции до хода, переданного в play.
+     */
+    public static void undo(int[] indices, int square, long flipped, Cell mover) {
+        boolean black = mover == Cell.BLACK;
+        update(indices, square, black ? -1 : -2);
+        for (; flipped != 0; flipped &= flipped - 1) {
+            update(indices, Long.numberOfTrailingZeros(flipped), black ? 1 : -1);
+        }
+    }
+
+    private static void update(int[] indices, int square, int delta) {
+        int[] instances = SQUARE_INSTANCES[square];
+        int[] powers = SQUARE_POWERS[square];
+        for (int i = 0; i < instances.length; i++) {
+            indices[instances[i]] += delta * powers[i];
+        }
+    }
+
+    /**
+     * Оценивает позицию по готовым индексам шаблонов.
+     *
+     * @param indices индексы шаблонов этой позиции.
+     * @param black   маска черных фишек.
+     * @param white   маска белых фишек.
+     * @return оценка с точки зрения черных, по модулю не больше MAX_SCORE.
+     */
+    public int evaluate(int[] indices, long black, long white) {
+        int phase = phase(64 - Long.bitCount(black | white));
+        int[][] phaseWeights = weights[phase];
+        int score = 0;
+        for (int instance = 0; instance < INSTANCE_TYPES.length; instance++) {
+            score += phaseWeights[INSTANCE_TYPES[instance]][indices[instance]];
+        }
+        return finish(score, phase, black, white);
+    }
+
+    /**
+     * Оценивает позицию, вычисляя индексы шаблонов заново.
+     *
+     * @return оценка с точки зрения черных, по модулю не больше MAX_SCORE.
+     */
+    public int evaluate(long black, long white) {
+        int phase = phase(64 - Long.bitCount(black | white));
+        int[][] phaseWeights = weights[phase];
+        int score = 0;
+        for (int instance = 0; instance < INSTANCE_TYPES.length; instance++) {
+            score += phaseWeights[INSTANCE_TYPES[instance]][index(INSTANCE_SQUARES[instance], black, white)];
+        }
+        return finish(score, phase, black, white);
+    }
+
+    private int finish(int score, int phase, long black, long white) {
+        if (mobilityWeights[phase] != 0) {
+            score += mobilityWeights[phase] * mobility(black, white);
+        }
+        if (frontierWeights[phase] != 0) {
+            score += frontierWeights[phase] * frontier(black, white);
+        }
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    /**
+     * Возвращает разницу числа ходов черных и белых.
+     */
+    public static int mobility(long black, long white) {
+        return Long.bitCount(BitBoard.legalMoves(black, white)) - Long.bitCount(BitBoard.legalMoves(white, black));
+    }
+
+    /**
+     * Возвращает разницу числа черных и белых фишек, соседних с пустыми клетками.
+     */
+    public static int frontier(long black, long white) {
+        long frontier = BitBoard.neighbours(~(black | white));
+        return Long.bitCount(black & frontier) - Long.bitCount(white & frontier);
+    }
+
+    /**
+     * Возвращает фазу партии по числу пустых клеток: 0 в начале, PHASES - 1 в последних десяти ходах.
+     */
+    public static int phase(int empties) {
+        return Math.max(0, Math.min(PHASES - 1, (60 - empties) / EMPTIES_PER_PHASE));
+    }
+
+    public static int getInstanceCount() {
+        return INSTANCE_SQUARES.length;
+    }
+
+    public static int getInstanceType(int instance) {
+        return INSTANCE_TYPES[instance];
+    }
+
+    /**
+     * Возвращает размер таблицы весов типа шаблона: 3 в степени числа клеток шаблона.
+     */
+    public static int getTypeSize(int type) {
+        return TYPE_SIZES[type];
+    }
+
+    /**
+     * Возвращает индекс того же шаблона с переставленными цветами фишек.
+     */
+    public static int swapColors(int type, int index) {
+        return SWAPPED[type][index];
+    }
+
+    private static int firstInstance(int type) {
+        for (int instance = 0; ; instance++) {
+            if (INSTANCE_TYPES[instance] == type) {
+                return instance;
+            }
+        }
+    }
+
+    private static int[] swappedIndices(int length) {
+        int[] swapped = new int[power3(length)];
+        for (int index = 0; index < swapped.length; index++) {
+            int rest = index;
+            int result = 0;
+            for (int k = 0; k < length; k++) {
+                int state = rest % 3;
+                rest /= 3;
+                result += (state == 0 ? 0 : 3 - state) * power3(k);
+            }
+            swapped[index] = result;
+        }
+        return swapped;
+    }
+
+    private static int power3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+}
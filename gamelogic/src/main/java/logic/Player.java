@@ -105,8 +105,15 @@ public abstract class Player {
         private final Random random;
 
         public BotPlayer(Cell playerCell) {
+            this(playerCell, new Random());
+        }
+
+        /**
+         * Создает бота с заданным генератором случайных чисел: с одним и тем же seed бот делает одни и те же ходы.
+         */
+        public BotPlayer(Cell playerCell, Random random) {
             super(playerCell);
-            this.random = new Random();
+            this.random = random;
         }
 
         @Override
@@ -124,7 +131,6 @@ public abstract class Player {
     }
 
     public static class BotPlayerMinMaxRuslan extends Player {
-        int moveCounter = 1;
 
         public BotPlayerMinMaxRuslan(Cell playerCell) {
             super(playerCell);
@@ -142,19 +148,7 @@ public abstract class Player {
             }
             Move zeroMove = new Move(-1, -1);
 
-            long time1 = System.nanoTime();
             Tree father = new Tree(zeroMove, playerCell.reverse(), board, 1, 5000, playerCell, isCornersEmpty(board), board.getQuantityOfEmpty());
-            long time2 = System.nanoTime();
-
-            float timeLastMoves = (float) (time2 - time1) / 1000000000;
-            String result = String.format("%.2f", timeLastMoves);
-            if (isCornersEmpty(board) && board.getQuantityOfEmpty() > 10)
-                System.out.print(moveCounter + " poisk uglov: ");
-            else {
-                System.out.print(moveCounter + " endspil: ");
-            }
-            moveCounter++;
-            System.out.println(result);
             Move move = father.getGoldMove();
             board.placePiece(move.row, move.col, playerCell);
             return move;
@@ -277,7 +271,6 @@ public abstract class Player {
                 ) {
                     long timeEnd = System.nanoTime();
                     if ((timeEnd - timeStart) / 100000000 > MAX_TIME) {
-                        System.out.println((timeEnd - timeStart) / 100000000);
                         break;
                     }
                     Board boardAfterMove = board.placePieceAndGetCopy(thisMove.row, thisMove.col, whoMadeMove.reverse());
@@ -348,7 +341,7 @@ public abstract class Player {
             }
 
             private int winOrLose(Board board, Cell cell) {
-                if (!board.getAllAvailableMoves(Cell.BLACK).isEmpty() || !board.getAllAvailableMoves(Cell.WHITE).isEmpty()) {
+                if (!board.isGameOver()) {
                     return 0;
                 }
                 if (board.getQuantityOfBlack() > board.getQuantityOfWhite()) {
@@ -0,0 +1,43 @@
+package logic;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Случайные партии для тестов, генераторов и бенчмарков: с одним и тем же генератором случайных чисел
+ * получаются одни и те же позиции.
+ */
+public final class RandomPlay {
+
+    private RandomPlay() {
+    }
+
+    /**
+     * Делает случайный ход стороны, которая ходит, а если ходов нет - пропуск хода.
+     *
+     * @return сделанный ход или null, если ход пропущен.
+     */
+    public static Move playRandomMove(Board board, Random random) {
+        Cell side = board.getSideToMove();
+        List<Move> moves = board.getAllAvailableMoves(side);
+        if (moves.isEmpty()) {
+            board.setSideToMove(side.reverse());
+            return null;
+        }
+        Move move = moves.get(random.nextInt(moves.size()));
+        board.placePiece(move.row, move.col, side);
+        return move;
+    }
+
+    /**
+     * Играет случайную партию от начальной позиции, пока на доске не останется empties пустых клеток или партия
+     * не закончится. Сторона, которая ходит, записана в доске.
+     */
+    public static Board randomPosition(Random random, int empties) {
+        Board board = new Board();
+        while (!board.isGameOver() && board.getQuantityOfEmpty() > empties) {
+            playRandomMove(board, random);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,103 @@
+package logic;
+
+/**
+ * Анализ позиции на масках фишек: стабильные фишки (которые уже нельзя перевернуть до конца партии)
+ * и фишки фронтира (соседние с пустыми клетками).
+ *
+ * Фишка стабильна, если по каждой из четырех линий (горизонталь, вертикаль, две диагонали) ее нельзя
+ * перевернуть: линия через нее заполнена целиком, фишка стоит на краю доски поперек этой линии или рядом
+ * с ней на этой линии стоит стабильная фишка того же цвета. Множество стабильных фишек строится заливкой
+ * от углов и заполненных линий, пока оно растет. Результат - нижняя оценка: настоящих стабильных фишек
+ * может быть больше.
+ *
+ * Стабильная фишка остается стабильной во всех позициях, которые получаются из данной ходами, поэтому
+ * стабильные фишки позиции-предка можно передать как уже известные и не искать их заново.
+ */
+public final class Stability {
+    /**
+     * Пары противоположных направлений BitBoard.shift для четырех линий.
+     */
+    private static final int[][] AXES = {{0, 1}, {2, 3}, {4, 7}, {5, 6}};
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+    /**
+     * Клетки, у которых нет соседа по направлению BitBoard.shift с тем же номером.
+     */
+    private static final long[] EDGES = new long[8];
+    private static final int LINE_LENGTH = 7;
+
+    static {
+        for (int dir = 0; dir < EDGES.length; dir++) {
+            EDGES[dir] = ~BitBoard.shift(-1L, OPPOSITE[dir]);
+        }
+    }
+
+    private Stability() {
+    }
+
+    /**
+     * Возвращает маску стабильных фишек own.
+     *
+     * @param own маска фишек, стабильность которых ищется.
+     * @param opp маска фишек соперника.
+     */
+    public static long stableDiscs(long own, long opp) {
+        return stableDiscs(own, opp, 0);
+    }
+
+    /**
+     * Возвращает маску стабильных фишек own, начиная заливку с уже известных стабильных фишек.
+     *
+     * @param own   маска фишек, стабильность которых ищется.
+     * @param opp   маска фишек соперника.
+     * @param known стабильные фишки own, найденные в этой позиции или в позиции, из которой она получена ходами.
+     */
+    public static long stableDiscs(long own, long opp, long known) {
+        long occupied = own | opp;
+        long bounded0 = boundedLines(occupied, AXES[0]);
+        long bounded1 = boundedLines(occupied, AXES[1]);
+        long bounded2 = boundedLines(occupied, AXES[2]);
+        long bounded3 = boundedLines(occupied, AXES[3]);
+        long stable = known & own;
+        long previous;
+        do {
+            previous = stable;
+            stable |= own
+                    & (bounded0 | BitBoard.shift(stable, 0) | BitBoard.shift(stable, 1))
+                    & (bounded1 | BitBoard.shift(stable, 2) | BitBoard.shift(stable, 3))
+                    & (bounded2 | BitBoard.shift(stable, 4) | BitBoard.shift(stable, 7))
+                    & (bounded3 | BitBoard.shift(stable, 5) | BitBoard.shift(stable, 6));
+        } while (stable != previous);
+        return stable;
+    }
+
+    /**
+     * Возвращает разницу числа стабильных черных и белых фишек.
+     */
+    public static int stability(long black, long white) {
+        return Long.bitCount(stableDiscs(black, white)) - Long.bitCount(stableDiscs(white, black));
+    }
+
+    /**
+     * Возвращает маску фишек own, соседних хотя бы с одной пустой клеткой.
+     */
+    public static long frontierDiscs(long own, long opp) {
+        return own & BitBoard.neighbours(~(own | opp));
+    }
+
+    /**
+     * Возвращает маску клеток, заполненных по линии {@code axis} целиком, вместе с клетками края доски поперек
+     * этой линии: по этой линии такие фишки перевернуть нельзя.
+     */
+    private static long boundedLines(long occupied, int[] axis) {
+        long full = -1L;
+        for (int dir : axis) {
+            // клетки, от которых до края доски по направлению dir все клетки заняты
+            long filled = occupied & EDGES[dir];
+            for (int i = 0; i < LINE_LENGTH; i++) {
+                filled |= occupied & BitBoard.shift(filled, OPPOSITE[dir]);
+            }
+            full &= filled;
+        }
+        return full | EDGES[axis[0]] | EDGES[axis[1]];
+    }
+}
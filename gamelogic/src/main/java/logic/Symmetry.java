@@ -0,0 +1,142 @@
+package logic;
+
+/**
+ * Восемь симметрий доски (повороты и отражения) на масках фишек и каноническая форма позиции.
+ *
+ * Симметрия задается номером от 0 до 7: бит 0 - отражение столбцов, бит 1 - отражение строк, бит 2 - отражение
+ * относительно главной диагонали; отражения применяются в этом порядке. Симметрия 0 ничего не меняет.
+ * Каноническая форма - вариант позиции с наименьшей маской черных фишек (при равенстве - белых) при сравнении
+ * без знака. Симметричные позиции имеют одну каноническую форму и один канонический ключ, поэтому таблицы,
+ * индексированные каноническим ключом, делят записи между симметричными позициями. Ход, найденный
+ * в канонической форме, переводится обратно симметрией inverse(symmetry).
+ */
+public final class Symmetry {
+    public static final int SYMMETRIES = 8;
+    public static final int IDENTITY = 0;
+    private static final int[] INVERSE = new int[SYMMETRIES];
+
+    static {
+        long probe = 0x123456789ABCDEF1L;
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            for (int inverse = 0; inverse < SYMMETRIES; inverse++) {
+                if (transform(transform(probe, symmetry), inverse) == probe) {
+                    INVERSE[symmetry] = inverse;
+                    break;
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * Применяет к маске симметрию с номером symmetry.
+     */
+    public static long transform(long discs, int symmetry) {
+        if ((symmetry & 1) != 0) {
+            discs = mirrorColumns(discs);
+        }
+        if ((symmetry & 2) != 0) {
+            discs = Long.reverseBytes(discs);
+        }
+        if ((symmetry & 4) != 0) {
+            discs = transpose(discs);
+        }
+        return discs;
+    }
+
+    /**
+     * Возвращает номер клетки, в которую симметрия переводит клетку square (0..63).
+     */
+    public static int transformSquare(int square, int symmetry) {
+        return Long.numberOfTrailingZeros(transform(1L << square, symmetry));
+    }
+
+    public static Move transformMove(Move move, int symmetry) {
+        int square = transformSquare(BitBoard.square(move.row, move.col), symmetry);
+        return new Move(BitBoard.row(square), BitBoard.col(square));
+    }
+
+    /**
+     * Возвращает симметрию, обратную к symmetry.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /**
+     * Возвращает номер симметрии, которая переводит позицию в каноническую форму. Все восемь вариантов
+     * строятся из отражения столбцов каждой маски, посчитанного один раз, без выделения памяти.
+     */
+    public static int canonicalSymmetry(long black, long white) {
+        long mirroredBlack = mirrorColumns(black);
+        long mirroredWhite = mirrorColumns(white);
+        int best = IDENTITY;
+        long bestBlack = black;
+        long bestWhite = white;
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            long candidateBlack = variant(black, mirroredBlack, symmetry);
+            int order = Long.compareUnsigned(candidateBlack, bestBlack);
+            if (order > 0) {
+                continue;
+            }
+            long candidateWhite = variant(white, mirroredWhite, symmetry);
+            if (order < 0 || Long.compareUnsigned(candidateWhite, bestWhite) < 0) {
+                best = symmetry;
+                bestBlack = candidateBlack;
+                bestWhite = candidateWhite;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Возвращает ключ Зобриста канонической формы позиции.
+     */
+    public static long canonicalKey(long black, long white, Cell sideToMove) {
+        int symmetry = canonicalSymmetry(black, white);
+        return Zobrist.hash(transform(black, symmetry), transform(white, symmetry), sideToMove);
+    }
+
+    /**
+     * То же, что transform(discs, symmetry), когда отражение столбцов mirrored = mirrorColumns(discs) уже известно.
+     */
+    private static long variant(long discs, long mirrored, int symmetry) {
+        switch (symmetry) {
+            case 0:
+                return discs;
+            case 1:
+                return mirrored;
+            case 2:
+                return Long.reverseBytes(discs);
+            case 3:
+                return Long.reverseBytes(mirrored);
+            case 4:
+                return transpose(discs);
+            case 5:
+                return transpose(mirrored);
+            case 6:
+                return transpose(Long.reverseBytes(discs));
+            case 7:
+                return transpose(Long.reverseBytes(mirrored));
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    private static long mirrorColumns(long discs) {
+        discs = ((discs >>> 1) & 0x5555555555555555L) | ((discs & 0x5555555555555555L) << 1);
+        discs = ((discs >>> 2) & 0x3333333333333333L) | ((discs & 0x3333333333333333L) << 2);
+        return ((discs >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((discs & 0x0F0F0F0F0F0F0F0FL) << 4);
+    }
+
+    private static long transpose(long discs) {
+        long t = 0x0F0F0F0F00000000L & (discs ^ (discs << 28));
+        discs ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (discs ^ (discs << 14));
+        discs ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (discs ^ (discs << 7));
+        return discs ^ t ^ (t >>> 7);
+    }
+}
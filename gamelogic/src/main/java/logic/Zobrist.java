@@ -0,0 +1,87 @@
+package logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Класс Zobrist содержит случайные 64-битные ключи для хэширования позиции по Зобристу.
+ * Ключ позиции - это XOR ключей всех фишек на доске и ключа очереди хода, если ходят белые.
+ *
+ * Ключи генерируются из фиксированного зерна, поэтому хэш позиции одинаков между запусками
+ * и может храниться в файлах (например, в дебютной книге).
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long[] BLACK_KEYS = new long[64];
+    private static final long[] WHITE_KEYS = new long[64];
+    private static final long WHITE_TO_MOVE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int square = 0; square < 64; square++) {
+            BLACK_KEYS[square] = random.nextLong();
+            WHITE_KEYS[square] = random.nextLong();
+        }
+        WHITE_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Возвращает ключ фишки цвета cell в клетке square. Для пустой клетки ключ равен нулю.
+     */
+    public static long discKey(int square, Cell cell) {
+        return cell == Cell.BLACK ? BLACK_KEYS[square] : cell == Cell.WHITE ? WHITE_KEYS[square] : 0;
+    }
+
+    /**
+     * Возвращает ключ, который нужно применить (XOR) к хэшу, чтобы перевернуть фишку в клетке square.
+     */
+    public static long flipKey(int square) {
+        return BLACK_KEYS[square] ^ WHITE_KEYS[square];
+    }
+
+    /**
+     * Возвращает ключ очереди хода.
+     */
+    public static long sideKey(Cell sideToMove) {
+        return sideToMove == Cell.WHITE ? WHITE_TO_MOVE_KEY : 0;
+    }
+
+    /**
+     * Возвращает ключ, который нужно применить (XOR) к хэшу при каждой смене очереди хода.
+     */
+    public static long sideChangeKey() {
+        return WHITE_TO_MOVE_KEY;
+    }
+
+    /**
+     * Вычисляет хэш позиции с нуля.
+     *
+     * @param black      маска черных фишек.
+     * @param white      маска белых фишек.
+     * @param sideToMove цвет игрока, чей ход.
+     * @return 64-битный ключ позиции.
+     */
+    public static long hash(long black, long white, Cell sideToMove) {
+        long key = sideKey(sideToMove);
+        for (long discs = black; discs != 0; discs &= discs - 1) {
+            key ^= BLACK_KEYS[Long.numberOfTrailingZeros(discs)];
+        }
+        for (long discs = white; discs != 0; discs &= discs - 1) {
+            key ^= WHITE_KEYS[Long.numberOfTrailingZeros(discs)];
+        }
+        return key;
+    }
+
+    /**
+     * Вычисляет ключ, который нужно применить (XOR) к хэшу для всех фишек маски flipped.
+     */
+    public static long flipKeys(long flipped) {
+        long key = 0;
+        for (long discs = flipped; discs != 0; discs &= discs - 1) {
+            key ^= flipKey(Long.numberOfTrailingZeros(discs));
+        }
+        return key;
+    }
+}
@@ -3,5 +3,6 @@ module reversi.deeplay.gamelogic.main {
     exports logic;
     exports gamelogging;
     exports parsing;
+    exports perft;
 
 }
\ No newline at end of file
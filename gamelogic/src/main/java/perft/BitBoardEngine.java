@@ -0,0 +1,55 @@
+package perft;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+
+/**
+ * Perft прямо на масках фишек статическими методами BitBoard, без объекта доски: предел скорости
+ * генерации ходов, с которым сравнивается Board.
+ */
+public class BitBoardEngine implements PerftEngine {
+    private static final int MAX_PLY = 64;
+
+    private final long[] blackStack = new long[MAX_PLY];
+    private final long[] whiteStack = new long[MAX_PLY];
+    private int ply;
+    private long black;
+    private long white;
+
+    @Override
+    public void setPosition(Board board) {
+        black = board.getBlackMask();
+        white = board.getWhiteMask();
+        ply = 0;
+    }
+
+    @Override
+    public long legalMoves(Cell side) {
+        return side == Cell.BLACK ? BitBoard.legalMoves(black, white) : BitBoard.legalMoves(white, black);
+    }
+
+    @Override
+    public void makeMove(int square, Cell side) {
+        blackStack[ply] = black;
+        whiteStack[ply] = white;
+        ply++;
+        long bit = 1L << square;
+        if (side == Cell.BLACK) {
+            long flipped = BitBoard.flips(black, white, square);
+            black |= flipped | bit;
+            white &= ~flipped;
+        } else {
+            long flipped = BitBoard.flips(white, black, square);
+            white |= flipped | bit;
+            black &= ~flipped;
+        }
+    }
+
+    @Override
+    public void unmakeMove() {
+        ply--;
+        black = blackStack[ply];
+        white = whiteStack[ply];
+    }
+}
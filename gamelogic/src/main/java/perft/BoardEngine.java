@@ -0,0 +1,32 @@
+package perft;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+
+/**
+ * Perft через методы Board: getAvailableMovesMask, makeMove и unmakeMove.
+ */
+public class BoardEngine implements PerftEngine {
+    private Board board;
+
+    @Override
+    public void setPosition(Board board) {
+        this.board = board.getBoardCopy();
+    }
+
+    @Override
+    public long legalMoves(Cell side) {
+        return board.getAvailableMovesMask(side);
+    }
+
+    @Override
+    public void makeMove(int square, Cell side) {
+        board.makeMove(BitBoard.row(square), BitBoard.col(square), side);
+    }
+
+    @Override
+    public void unmakeMove() {
+        board.unmakeMove();
+    }
+}
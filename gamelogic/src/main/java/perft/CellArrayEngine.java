@@ -0,0 +1,107 @@
+package perft;
+
+import logic.Board;
+import logic.Cell;
+
+/**
+ * Эталонная реализация правил на массиве Cell[][]: ход ищется обходом лучей от каждой пустой клетки,
+ * как это делала доска до перехода на маски. Медленная, но простая, поэтому по ней проверяются быстрые реализации.
+ */
+public class CellArrayEngine implements PerftEngine {
+    private static final int SIZE = 8;
+    private static final int MAX_PLY = 64;
+
+    private Cell[][] cells;
+    /**
+     * Для каждого сделанного хода: клетка хода и перевернутые клетки, первым элементом - их число.
+     */
+    private final int[][] undoStack = new int[MAX_PLY][SIZE * SIZE + 2];
+    private int ply;
+
+    @Override
+    public void setPosition(Board board) {
+        cells = board.getBoard();
+        ply = 0;
+    }
+
+    @Override
+    public long legalMoves(Cell side) {
+        long moves = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (cells[row][col] == Cell.EMPTY && flipsAny(row, col, side)) {
+                    moves |= 1L << (row * SIZE + col);
+                }
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public void makeMove(int square, Cell side) {
+        int row = square / SIZE;
+        int col = square % SIZE;
+        int[] undo = undoStack[ply++];
+        int count = 0;
+        undo[1] = square;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue;
+                }
+                int r = row + dr;
+                int c = col + dc;
+                while (inside(r, c) && cells[r][c] == side.reverse()) {
+                    r += dr;
+                    c += dc;
+                }
+                if (inside(r, c) && cells[r][c] == side) {
+                    for (r -= dr, c -= dc; r != row || c != col; r -= dr, c -= dc) {
+                        cells[r][c] = side;
+                        undo[2 + count++] = r * SIZE + c;
+                    }
+                }
+            }
+        }
+        undo[0] = count;
+        cells[row][col] = side;
+    }
+
+    @Override
+    public void unmakeMove() {
+        int[] undo = undoStack[--ply];
+        int square = undo[1];
+        Cell side = cells[square / SIZE][square % SIZE];
+        for (int i = 0; i < undo[0]; i++) {
+            int flipped = undo[2 + i];
+            cells[flipped / SIZE][flipped % SIZE] = side.reverse();
+        }
+        cells[square / SIZE][square % SIZE] = Cell.EMPTY;
+    }
+
+    private boolean flipsAny(int row, int col, Cell side) {
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue;
+                }
+                int r = row + dr;
+                int c = col + dc;
+                boolean between = false;
+                while (inside(r, c) && cells[r][c] == side.reverse()) {
+                    r += dr;
+                    c += dc;
+                    between = true;
+                }
+                if (between && inside(r, c) && cells[r][c] == side) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean inside(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+}
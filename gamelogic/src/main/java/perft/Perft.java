@@ -0,0 +1,242 @@
+package perft;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import parsing.BoardParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Perft: число листьев дерева всех партий заданной глубины из позиции. Служит и замером скорости генерации ходов,
+ * и проверкой правил: разные реализации PerftEngine обязаны давать одинаковые числа.
+ *
+ * Пропуск хода считается полуходом. Законченная партия - лист на том полуходе, где она закончилась.
+ * Из начальной позиции числа для глубин 1..10: 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288, 24571284.
+ *
+ * Запуск: Perft <глубина> [divide] [compare] [bitboard|board|cells] [файл позиции].
+ * Файл позиции - восемь строк доски в формате BoardParser ('B' - черные, 'W' - белые, '_' - пусто)
+ * и необязательная девятая строка "W", если ходят белые. divide печатает число листьев после каждого хода
+ * из корня, compare сравнивает выбранную реализацию с эталонной CellArrayEngine.
+ */
+public final class Perft {
+    private static final Logger logger = LogManager.getLogger(Perft.class);
+    public static final String PASS = "pass";
+    private static final int SIZE = 8;
+
+    private final PerftEngine engine;
+
+    public Perft(PerftEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Считает листья дерева глубины depth из позиции доски; ходит игрок board.getSideToMove().
+     */
+    public long count(Board board, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException();
+        }
+        engine.setPosition(board);
+        return count(board.getSideToMove(), depth);
+    }
+
+    /**
+     * Считает листья отдельно для каждого хода из корня (или для пропуска хода).
+     *
+     * @return число листьев по обозначению хода ("d3" или PASS) в порядке клеток; пустая карта, если партия
+     * закончена.
+     */
+    public Map<String, Long> divide(Board board, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException();
+        }
+        engine.setPosition(board);
+        Cell side = board.getSideToMove();
+        Map<String, Long> result = new LinkedHashMap<>();
+        long moves = engine.legalMoves(side);
+        if (moves == 0) {
+            if (engine.legalMoves(side.reverse()) != 0) {
+                result.put(PASS, count(side.reverse(), depth - 1));
+            }
+            return result;
+        }
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            engine.makeMove(square, side);
+            result.put(squareName(square), count(side.reverse(), depth - 1));
+            engine.unmakeMove();
+        }
+        return result;
+    }
+
+    private long count(Cell side, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = engine.legalMoves(side);
+        if (moves == 0) {
+            if (engine.legalMoves(side.reverse()) == 0) {
+                return 1;
+            }
+            return count(side.reverse(), depth - 1);
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long nodes = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            engine.makeMove(square, side);
+            nodes += count(side.reverse(), depth - 1);
+            engine.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Сравнивает две реализации. Если числа расходятся, спускается по ходу с разными числами до позиции,
+     * где реализации расходятся уже в ходах.
+     *
+     * @return null, если числа совпали, иначе путь ходов из корня до позиции расхождения и ее ходы у обеих реализаций.
+     */
+    public static String compare(Board board, int depth, PerftEngine first, PerftEngine second) {
+        Perft firstPerft = new Perft(first);
+        Perft secondPerft = new Perft(second);
+        List<String> path = new ArrayList<>();
+        Board position = board.getBoardCopy();
+        for (int remaining = depth; remaining > 0; remaining--) {
+            Map<String, Long> firstDivide = firstPerft.divide(position, remaining);
+            Map<String, Long> secondDivide = secondPerft.divide(position, remaining);
+            if (!firstDivide.keySet().equals(secondDivide.keySet())) {
+                return "path " + path + ": moves " + firstDivide.keySet() + " vs " + secondDivide.keySet();
+            }
+            String differing = null;
+            for (Map.Entry<String, Long> entry : firstDivide.entrySet()) {
+                if (!Objects.equals(entry.getValue(), secondDivide.get(entry.getKey()))) {
+                    differing = entry.getKey();
+                    break;
+                }
+            }
+            if (differing == null) {
+                return null;
+            }
+            path.add(differing);
+            Cell side = position.getSideToMove();
+            if (differing.equals(PASS)) {
+                position.setSideToMove(side.reverse());
+            } else {
+                int square = squareIndex(differing);
+                position.placePiece(BitBoard.row(square), BitBoard.col(square), side);
+            }
+        }
+        return "path " + path + ": counts differ";
+    }
+
+    /**
+     * Возвращает обозначение клетки: столбец буквой, строка числом с единицы ("d3").
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + BitBoard.col(square)) + (BitBoard.row(square) + 1);
+    }
+
+    private static int squareIndex(String name) {
+        return BitBoard.square(name.charAt(1) - '1', name.charAt(0) - 'a');
+    }
+
+    /**
+     * Читает позицию: восемь строк доски для BoardParser и необязательную строку "W", если ходят белые.
+     *
+     * @throws IOException если файл не читается.
+     */
+    public static Board readPosition(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        if (lines.size() < SIZE) {
+            throw new IOException("Position needs " + SIZE + " board lines: " + path);
+        }
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < SIZE; row++) {
+            StringBuilder line = new StringBuilder(lines.get(row));
+            while (line.length() < 2 * SIZE) {
+                line.append(' ');
+            }
+            text.append(line).append('\n');
+        }
+        Board board;
+        try {
+            board = BoardParser.parse(text.toString(), 'B', 'W', '_');
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Wrong position: " + path, e);
+        }
+        if (lines.size() > SIZE && lines.get(SIZE).trim().equals("W")) {
+            board.setSideToMove(Cell.WHITE);
+        }
+        return board;
+    }
+
+    private static PerftEngine engine(String name) {
+        switch (name) {
+            case "bitboard":
+                return new BitBoardEngine();
+            case "board":
+                return new BoardEngine();
+            case "cells":
+                return new CellArrayEngine();
+            default:
+                return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            logger.log(Level.ERROR, "Usage: Perft <depth> [divide] [compare] [bitboard|board|cells] [position file]");
+            throw new IllegalArgumentException();
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        boolean compare = false;
+        PerftEngine engine = new BitBoardEngine();
+        Board board = new Board();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("divide")) {
+                divide = true;
+            } else if (args[i].equals("compare")) {
+                compare = true;
+            } else if (engine(args[i]) != null) {
+                engine = engine(args[i]);
+            } else {
+                board = readPosition(Path.of(args[i]));
+            }
+        }
+
+        Perft perft = new Perft(engine);
+        long start = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Map.Entry<String, Long> entry : perft.divide(board, depth).entrySet()) {
+                System.out.println(entry.getKey() + " " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = perft.count(board, depth);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s depth %d nodes %d time %.3f s nodes/s %.0f%n",
+                engine.getClass().getSimpleName(), depth, nodes, seconds, nodes / Math.max(seconds, 1e-9));
+        if (compare) {
+            String mismatch = compare(board, depth, engine, new CellArrayEngine());
+            System.out.println(mismatch == null ? "CellArrayEngine: same counts" : "CellArrayEngine: " + mismatch);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package perft;
+
+import logic.Board;
+import logic.Cell;
+
+/**
+ * Реализация правил, которую проверяет и измеряет Perft: генерация ходов, ход и его отмена.
+ * Клетке (row, col) соответствует бит row * 8 + col.
+ */
+public interface PerftEngine {
+
+    /**
+     * Загружает позицию с доски.
+     */
+    void setPosition(Board board);
+
+    /**
+     * Возвращает маску допустимых ходов игрока side.
+     */
+    long legalMoves(Cell side);
+
+    /**
+     * Делает допустимый ход игрока side в клетку square.
+     */
+    void makeMove(int square, Cell side);
+
+    /**
+     * Отменяет последний ход, сделанный makeMove.
+     */
+    void unmakeMove();
+}
@@ -0,0 +1,127 @@
+package test;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import org.junit.jupiter.api.Test;
+import parsing.BoardParser;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    @Test
+    void testInitialPosition() {
+        BitBoard bitBoard = new BitBoard();
+        assertEquals(Cell.WHITE, bitBoard.get(BitBoard.square(3, 3)));
+        assertEquals(Cell.BLACK, bitBoard.get(BitBoard.square(3, 4)));
+        assertEquals(Cell.BLACK, bitBoard.get(BitBoard.square(4, 3)));
+        assertEquals(Cell.WHITE, bitBoard.get(BitBoard.square(4, 4)));
+        assertEquals(60, bitBoard.countEmpty());
+
+        long expected = (1L << BitBoard.square(2, 3)) | (1L << BitBoard.square(3, 2))
+                | (1L << BitBoard.square(4, 5)) | (1L << BitBoard.square(5, 4));
+        assertEquals(expected, bitBoard.legalMoves(Cell.BLACK));
+    }
+
+    @Test
+    void testPlay() {
+        BitBoard bitBoard = new BitBoard();
+        long flipped = bitBoard.play(BitBoard.square(2, 3), Cell.BLACK);
+        assertEquals(1L << BitBoard.square(3, 3), flipped);
+        assertEquals(4, bitBoard.countBlack());
+        assertEquals(1, bitBoard.countWhite());
+    }
+
+    @Test
+    void testNoWrapAroundEdges() {
+        final Board board = BoardParser.parse(
+                "_ _ _ _ _ _ _ W \n" +
+                        "B _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n", 'B', 'W', '_');
+        assertTrue(board.getAllAvailableMoves(Cell.BLACK).isEmpty());
+        assertTrue(board.getAllAvailableMoves(Cell.WHITE).isEmpty());
+    }
+
+    @Test
+    void testRandomGamesMatchRayWalk() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            Board board = new Board();
+            Cell cell = Cell.BLACK;
+            while (!board.isGameOver()) {
+                List<Move> moves = board.getAllAvailableMoves(cell);
+                for (int row = 0; row < 8; row++) {
+                    for (int col = 0; col < 8; col++) {
+                        assertEquals(isValidMoveByRayWalk(board, row, col, cell), moves.contains(new Move(row, col)));
+                    }
+                }
+                if (!moves.isEmpty()) {
+                    Move move = moves.get(random.nextInt(moves.size()));
+                    Board expected = board.getBoardCopy();
+                    placePieceByRayWalk(expected, move.row, move.col, cell);
+                    board.placePiece(move.row, move.col, cell);
+                    assertEquals(expected, board);
+                    assertEquals(64, board.getQuantityOfBlack() + board.getQuantityOfWhite() + board.getQuantityOfEmpty());
+                }
+                cell = cell.reverse();
+            }
+        }
+    }
+
+    private static boolean isValidMoveByRayWalk(Board board, int row, int col, Cell cell) {
+        if (board.get(row, col) != Cell.EMPTY) {
+            return false;
+        }
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue;
+                }
+                int r = row + dr;
+                int c = col + dc;
+                boolean isValidDirection = false;
+                while (r >= 0 && r < 8 && c >= 0 && c < 8 && board.get(r, c) == cell.reverse()) {
+                    r += dr;
+                    c += dc;
+                    isValidDirection = true;
+                }
+                if (isValidDirection && r >= 0 && r < 8 && c >= 0 && c < 8 && board.get(r, c) == cell) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void placePieceByRayWalk(Board board, int row, int col, Cell cell) {
+        board.set(row, col, cell);
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) {
+                    continue;
+                }
+                int r = row + dr;
+                int c = col + dc;
+                while (r >= 0 && r < 8 && c >= 0 && c < 8 && board.get(r, c) == cell.reverse()) {
+                    r += dr;
+                    c += dc;
+                }
+                if (r >= 0 && r < 8 && c >= 0 && c < 8 && board.get(r, c) == cell) {
+                    for (r -= dr, c -= dc; r != row || c != col; r -= dr, c -= dc) {
+                        board.set(r, c, cell);
+                    }
+                }
+            }
+        }
+    }
+}
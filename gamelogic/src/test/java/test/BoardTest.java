@@ -188,4 +188,84 @@ class BoardTest {
         assertTrue(board4.isValidMove(0, 4, Cell.BLACK));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testMovesMaskAndMobility() {
+        long mask = board.getAvailableMovesMask(Cell.BLACK);
+        assertEquals(4, Long.bitCount(mask));
+        assertEquals(4, board.mobilityCount(Cell.BLACK));
+        assertTrue(board.hasAnyMove(Cell.WHITE));
+        for (Move move : board.getAllAvailableMoves(Cell.BLACK)) {
+            assertTrue((mask & (1L << (move.row * 8 + move.col))) != 0);
+        }
+
+        final Board finalBoard = BoardParser.parse(
+                "b b b b b b b b \n" +
+                        "w b w w w b b b \n" +
+                        "w w b b w b w b \n" +
+                        "w b b b b b w b \n" +
+                        "w b b b b b w b \n" +
+                        "w b w b b b w b \n" +
+                        "w w w w w b w b \n" +
+                        "w w w b b b b b \n", 'b', 'w', '_');
+        assertEquals(0, finalBoard.getAvailableMovesMask(Cell.WHITE));
+        assertFalse(finalBoard.hasAnyMove(Cell.BLACK));
+        assertEquals(0, finalBoard.mobilityCount(Cell.WHITE));
+        assertTrue(finalBoard.isGameOver());
+    }
+
+    @Test
+    void testMakeAndUnmakeMove() {
+        Board original = board.getBoardCopy();
+        long flipped = board.makeMove(2, 3, Cell.BLACK);
+        assertEquals(1L << (3 * 8 + 3), flipped);
+        assertEquals(Cell.BLACK, board.get(3, 3));
+        assertEquals(4, board.getQuantityOfBlack());
+        assertEquals(1, board.getQuantityOfWhite());
+
+        Board afterFirst = board.getBoardCopy();
+        Board expected = afterFirst.placePieceAndGetCopy(2, 2, Cell.WHITE);
+        board.makeMove(2, 2, Cell.WHITE);
+        assertEquals(expected, board);
+        assertEquals(expected.getQuantityOfWhite(), board.getQuantityOfWhite());
+        assertEquals(expected.getQuantityOfBlack(), board.getQuantityOfBlack());
+        assertEquals(expected.getZobristKey(), board.getZobristKey());
+
+        board.unmakeMove();
+        assertEquals(afterFirst, board);
+        assertEquals(4, board.getQuantityOfBlack());
+        assertEquals(1, board.getQuantityOfWhite());
+        assertEquals(afterFirst.getZobristKey(), board.getZobristKey());
+        assertEquals(afterFirst.getSideToMove(), board.getSideToMove());
+        board.unmakeMove();
+        assertEquals(original, board);
+        assertEquals(2, board.getQuantityOfBlack());
+        assertEquals(2, board.getQuantityOfWhite());
+        assertThrows(IllegalStateException.class, () -> board.unmakeMove());
+    }
+
+    @Test
+    void testZobristKey() {
+        long initialKey = board.getZobristKey();
+        assertEquals(Zobrist.hash(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK), initialKey);
+
+        board.makeMove(2, 3, Cell.BLACK);
+        assertEquals(Cell.WHITE, board.getSideToMove());
+        assertEquals(Zobrist.hash(board.getBlackMask(), board.getWhiteMask(), Cell.WHITE), board.getZobristKey());
+        Board copy = board.getBoardCopy();
+        assertEquals(board.getZobristKey(), copy.getZobristKey());
+
+        board.unmakeMove();
+        assertEquals(initialKey, board.getZobristKey());
+
+        board.placePiece(2, 3, Cell.BLACK);
+        assertEquals(copy.getZobristKey(), board.getZobristKey());
+
+        board.set(0, 0, Cell.WHITE);
+        board.setSideToMove(Cell.BLACK);
+        assertEquals(Zobrist.hash(board.getBlackMask(), board.getWhiteMask(), Cell.BLACK), board.getZobristKey());
+        board.set(0, 0, Cell.EMPTY);
+        board.setSideToMove(Cell.WHITE);
+        assertEquals(copy.getZobristKey(), board.getZobristKey());
+    }
+
+}
@@ -0,0 +1,133 @@
+package test;
+
+import logic.BitBoard;
+import logic.Cell;
+import logic.PatternEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternEvaluatorTest {
+
+    @Test
+    void testIncrementalIndicesMatchComputedIndices() {
+        Random random = new Random(3);
+        int[] indices = new int[PatternEvaluator.getInstanceCount()];
+        int[] expected = new int[PatternEvaluator.getInstanceCount()];
+        for (int game = 0; game < 20; game++) {
+            BitBoard initial = new BitBoard();
+            long black = initial.getBlack();
+            long white = initial.getWhite();
+            Cell side = Cell.BLACK;
+            PatternEvaluator.computeIndices(black, white, indices);
+            while (true) {
+                long own = side == Cell.BLACK ? black : white;
+                long opp = side == Cell.BLACK ? white : black;
+                long legal = BitBoard.legalMoves(own, opp);
+                if (legal == 0) {
+                    if (BitBoard.legalMoves(opp, own) == 0) {
+                        break;
+                    }
+                    side = side.reverse();
+                    continue;
+                }
+                for (int skip = random.nextInt(Long.bitCount(legal)); skip > 0; skip--) {
+                    legal &= legal - 1;
+                }
+                int square = Long.numberOfTrailingZeros(legal);
+                long flipped = BitBoard.flips(own, opp, square);
+
+                int[] before = indices.clone();
+                PatternEvaluator.play(indices, square, flipped, side);
+                PatternEvaluator.undo(indices, square, flipped, side);
+                assertArrayEquals(before, indices);
+
+                PatternEvaluator.play(indices, square, flipped, side);
+                own |= flipped | (1L << square);
+                opp &= ~flipped;
+                black = side == Cell.BLACK ? own : opp;
+                white = side == Cell.BLACK ? opp : own;
+                side = side.reverse();
+                PatternEvaluator.computeIndices(black, white, expected);
+                assertArrayEquals(expected, indices);
+            }
+        }
+    }
+
+    @Test
+    void testEvaluationIsAntisymmetric() {
+        PatternEvaluator patterns = randomPatterns(new Random(5));
+        Random random = new Random(9);
+        for (int i = 0; i < 200; i++) {
+            long black = random.nextLong();
+            long white = random.nextLong() & ~black;
+            int[] indices = new int[PatternEvaluator.getInstanceCount()];
+            PatternEvaluator.computeIndices(black, white, indices);
+
+            assertEquals(-patterns.evaluate(white, black), patterns.evaluate(black, white));
+            assertEquals(patterns.evaluate(black, white), patterns.evaluate(indices, black, white));
+        }
+    }
+
+    @Test
+    void testDefaultWeightsPreferCorners() {
+        PatternEvaluator patterns = PatternEvaluator.withDefaultWeights();
+        BitBoard initial = new BitBoard();
+        long corner = 1L << BitBoard.square(0, 0);
+        long xSquare = 1L << BitBoard.square(1, 1);
+
+        assertEquals(0, patterns.evaluate(initial.getBlack(), initial.getWhite()));
+        assertTrue(patterns.evaluate(initial.getBlack() | corner, initial.getWhite()) > 0);
+        assertTrue(patterns.evaluate(initial.getBlack() | xSquare, initial.getWhite()) < 0);
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path directory) throws IOException {
+        Random random = new Random(8);
+        float[][][] weights = randomWeights(random);
+        float[] mobility = new float[PatternEvaluator.PHASES];
+        float[] frontier = new float[PatternEvaluator.PHASES];
+        Arrays.fill(mobility, 0.75f);
+        Arrays.fill(frontier, -0.5f);
+        Path path = directory.resolve("weights.bin");
+        PatternEvaluator.save(path, weights, mobility, frontier);
+        PatternEvaluator expected = new PatternEvaluator(weights, mobility, frontier);
+        PatternEvaluator loaded = PatternEvaluator.load(path);
+        for (int i = 0; i < 100; i++) {
+            long black = random.nextLong();
+            long white = random.nextLong() & ~black;
+            assertEquals(expected.evaluate(black, white), loaded.evaluate(black, white));
+        }
+    }
+
+    @Test
+    void testWrongWeightsSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PatternEvaluator(
+                new float[PatternEvaluator.PHASES - 1][PatternEvaluator.TYPES][],
+                new float[PatternEvaluator.PHASES], new float[PatternEvaluator.PHASES]));
+    }
+
+    private static PatternEvaluator randomPatterns(Random random) {
+        return new PatternEvaluator(randomWeights(random), new float[PatternEvaluator.PHASES],
+                new float[PatternEvaluator.PHASES]);
+    }
+
+    private static float[][][] randomWeights(Random random) {
+        float[][][] weights = new float[PatternEvaluator.PHASES][PatternEvaluator.TYPES][];
+        for (float[][] phaseWeights : weights) {
+            for (int type = 0; type < PatternEvaluator.TYPES; type++) {
+                phaseWeights[type] = new float[PatternEvaluator.getTypeSize(type)];
+                for (int index = 0; index < phaseWeights[type].length; index++) {
+                    phaseWeights[type][index] = (float) random.nextGaussian();
+                }
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,98 @@
+package test;
+
+import logic.Board;
+import logic.Cell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import parsing.BoardParser;
+import perft.BitBoardEngine;
+import perft.BoardEngine;
+import perft.CellArrayEngine;
+import perft.Perft;
+import perft.PerftEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+    private static final long[] INITIAL_COUNTS = {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testInitialPositionCounts() {
+        for (PerftEngine engine : List.of(new BitBoardEngine(), new BoardEngine(), new CellArrayEngine())) {
+            Perft perft = new Perft(engine);
+            int maxDepth = engine instanceof CellArrayEngine ? 6 : INITIAL_COUNTS.length - 1;
+            for (int depth = 0; depth <= maxDepth; depth++) {
+                assertEquals(INITIAL_COUNTS[depth], perft.count(new Board(), depth));
+            }
+        }
+    }
+
+    @Test
+    void testDivideSumsToCount() {
+        Perft perft = new Perft(new BitBoardEngine());
+        Map<String, Long> divide = perft.divide(new Board(), 5);
+        assertEquals(List.of("d3", "c4", "f5", "e6"), List.copyOf(divide.keySet()));
+        assertEquals(perft.count(new Board(), 5), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void testPassAndGameEnd() {
+        Board board = BoardParser.parse(
+                "B W _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n" +
+                        "_ _ _ _ _ _ _ _ \n", 'B', 'W', '_');
+        board.setSideToMove(Cell.WHITE);
+        Perft perft = new Perft(new BoardEngine());
+        assertEquals(Map.of(Perft.PASS, 1L), perft.divide(board, 1));
+        assertEquals(1, perft.count(board, 2));
+        assertEquals(1, perft.count(board, 5));
+        assertNull(Perft.compare(board, 5, new BitBoardEngine(), new CellArrayEngine()));
+    }
+
+    @Test
+    void testCompareFindsBrokenEngine() {
+        PerftEngine broken = new BitBoardEngine() {
+            @Override
+            public long legalMoves(Cell side) {
+                return super.legalMoves(side) & ~(1L << 18);
+            }
+        };
+        assertNull(Perft.compare(new Board(), 5, new BoardEngine(), new CellArrayEngine()));
+        String mismatch = Perft.compare(new Board(), 5, broken, new CellArrayEngine());
+        assertNotNull(mismatch);
+        assertTrue(mismatch.contains("c3"));
+    }
+
+    @Test
+    void testReadPosition() throws IOException {
+        Path file = directory.resolve("position.txt");
+        Files.write(file, List.of(
+                "_ _ _ _ _ _ _ _",
+                "_ _ _ _ _ _ _ _",
+                "_ _ _ _ _ _ _ _",
+                "_ _ _ W B _ _ _",
+                "_ _ _ B W _ _ _",
+                "_ _ _ _ _ _ _ _",
+                "_ _ _ _ _ _ _ _",
+                "_ _ _ _ _ _ _ _",
+                "W"));
+        Board board = Perft.readPosition(file);
+        assertEquals(Cell.WHITE, board.getSideToMove());
+        assertEquals(new Board().getBlackMask(), board.getBlackMask());
+        assertEquals(1396, new Perft(new BitBoardEngine()).count(board, 5));
+    }
+}
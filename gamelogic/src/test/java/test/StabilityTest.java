@@ -0,0 +1,85 @@
+package test;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.RandomPlay;
+import logic.Stability;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StabilityTest {
+
+    @Test
+    void testStableDiscsNeverFlip() {
+        Random random = new Random(1);
+        for (int game = 0; game < 200; game++) {
+            Board board = new Board();
+            long knownBlack = 0;
+            long knownWhite = 0;
+            while (!board.isGameOver()) {
+                long black = board.getBlackMask();
+                long white = board.getWhiteMask();
+                long stableBlack = Stability.stableDiscs(black, white);
+                long stableWhite = Stability.stableDiscs(white, black);
+                knownBlack = Stability.stableDiscs(black, white, knownBlack);
+                knownWhite = Stability.stableDiscs(white, black, knownWhite);
+                assertEquals(stableBlack, stableBlack & knownBlack);
+                assertEquals(stableWhite, stableWhite & knownWhite);
+                assertEquals(knownBlack, knownBlack & black);
+                assertEquals(knownWhite, knownWhite & white);
+
+                RandomPlay.playRandomMove(board, random);
+            }
+            assertEquals(knownBlack, knownBlack & board.getBlackMask());
+            assertEquals(knownWhite, knownWhite & board.getWhiteMask());
+        }
+    }
+
+    @Test
+    void testCornersAndFullBoard() {
+        long corner = 1L;
+        long xSquare = 1L << BitBoard.square(1, 1);
+        assertEquals(corner, Stability.stableDiscs(corner | xSquare, 1L << BitBoard.square(2, 2)));
+
+        long black = 0x00000000FFFFFFFFL;
+        long white = ~black;
+        assertEquals(black, Stability.stableDiscs(black, white));
+        assertEquals(white, Stability.stableDiscs(white, black));
+        assertEquals(0, Stability.stability(black, white));
+    }
+
+    @Test
+    void testEdgeRunFromCorner() {
+        long black = 0xFL;
+        long white = 1L << 4;
+        assertEquals(0xFL, Stability.stableDiscs(black, white));
+        assertEquals(0, Stability.stableDiscs(white, black));
+    }
+
+    @Test
+    void testBoardCountsFollowMoves() {
+        Board board = new Board();
+        assertEquals(0, board.stableCount(Cell.BLACK));
+        assertEquals(2, board.frontierCount(Cell.WHITE));
+        Random random = new Random(2);
+        while (!board.isGameOver()) {
+            RandomPlay.playRandomMove(board, random);
+            long black = board.getBlackMask();
+            long white = board.getWhiteMask();
+            assertEquals(Stability.stableDiscs(black, white),
+                    Stability.stableDiscs(black, white) & board.getStableMask(Cell.BLACK));
+            assertEquals(board.getStableMask(Cell.WHITE), board.getStableMask(Cell.WHITE) & white);
+            assertEquals(Long.bitCount(Stability.frontierDiscs(black, white)), board.frontierCount(Cell.BLACK));
+        }
+        if (board.getQuantityOfEmpty() == 0) {
+            assertEquals(board.getQuantityOfBlack(), board.stableCount(Cell.BLACK));
+            assertEquals(board.getQuantityOfWhite(), board.stableCount(Cell.WHITE));
+        }
+        board.set(0, 0, Cell.EMPTY);
+        assertEquals(Stability.stableDiscs(board.getWhiteMask(), board.getBlackMask()), board.getStableMask(Cell.WHITE));
+    }
+}
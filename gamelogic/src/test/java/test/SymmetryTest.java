@@ -0,0 +1,74 @@
+package test;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Symmetry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+
+    @Test
+    void testSymmetriesKeepMoves() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            long black = random.nextLong();
+            long white = random.nextLong() & ~black;
+            for (int symmetry = 0; symmetry < Symmetry.SYMMETRIES; symmetry++) {
+                long transformedBlack = Symmetry.transform(black, symmetry);
+                long transformedWhite = Symmetry.transform(white, symmetry);
+                assertEquals(Long.bitCount(black), Long.bitCount(transformedBlack));
+                assertEquals(black, Symmetry.transform(transformedBlack, Symmetry.inverse(symmetry)));
+                assertEquals(Symmetry.transform(BitBoard.legalMoves(black, white), symmetry),
+                        BitBoard.legalMoves(transformedBlack, transformedWhite));
+                assertEquals(Symmetry.canonicalKey(black, white, Cell.BLACK),
+                        Symmetry.canonicalKey(transformedBlack, transformedWhite, Cell.BLACK));
+            }
+        }
+    }
+
+    @Test
+    void testCanonicalSymmetryGivesSmallestMasks() {
+        Random random = new Random(4);
+        for (int i = 0; i < 100; i++) {
+            long black = random.nextLong();
+            long white = random.nextLong() & ~black;
+            int canonical = Symmetry.canonicalSymmetry(black, white);
+            long canonicalBlack = Symmetry.transform(black, canonical);
+            long canonicalWhite = Symmetry.transform(white, canonical);
+            for (int symmetry = 0; symmetry < Symmetry.SYMMETRIES; symmetry++) {
+                long transformedBlack = Symmetry.transform(black, symmetry);
+                int order = Long.compareUnsigned(canonicalBlack, transformedBlack);
+                assertTrue(order < 0 || order == 0
+                        && Long.compareUnsigned(canonicalWhite, Symmetry.transform(white, symmetry)) <= 0);
+            }
+        }
+    }
+
+    @Test
+    void testOpeningMovesShareCanonicalBoard() {
+        Board initial = new Board();
+        List<Move> moves = initial.getAllAvailableMoves(Cell.BLACK);
+        assertEquals(4, moves.size());
+        long key = initial.placePieceAndGetCopy(moves.get(0).row, moves.get(0).col, Cell.BLACK).getCanonicalKey();
+        for (Move move : moves) {
+            Board board = initial.placePieceAndGetCopy(move.row, move.col, Cell.BLACK);
+            assertEquals(key, board.getCanonicalKey());
+            Board canonical = board.getCanonicalBoard();
+            assertEquals(key, canonical.getZobristKey());
+            assertEquals(board.getSideToMove(), canonical.getSideToMove());
+            for (Move reply : canonical.getAllAvailableMoves(Cell.WHITE)) {
+                Move original = board.fromCanonical(reply);
+                assertTrue(board.isValidMove(original.row, original.col, Cell.WHITE));
+                assertEquals(canonical.placePieceAndGetCopy(reply.row, reply.col, Cell.WHITE).getCanonicalKey(),
+                        board.placePieceAndGetCopy(original.row, original.col, Cell.WHITE).getCanonicalKey());
+            }
+        }
+    }
+}
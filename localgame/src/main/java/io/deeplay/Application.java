@@ -16,6 +16,9 @@ import java.util.Scanner;
 import static logic.Player.HumanPlayer.scanner;
 
 public class Application {
+    private static final int BOT_VS_BOT_GAMES = 100;
+    private static final long BOT_VS_BOT_SEED = 1;
+
     public static void main(String[] args) {
        /* System.out.println("Выберите режим интерфейса:");
         System.out.println("1. Консольный интерфейс");
@@ -90,19 +93,10 @@ public class Application {
                 Integer.parseInt(nonStableId), "fileForHuman", "systemFile");
     }
     private static void startBotVsBotGame() {
-        String winner;
-        int winnerW=0;
-        int winnerB=0;
-        int winnerT=0;
-        for (int i = 0; i < 100; i++) {
-            final String nonStableId = new SimpleDateFormat("MMddHHmmss").format(Calendar.getInstance().getTime());
-            winner = new Game().startGame(new Board(), new Player.BotPlayerMinMaxRuslan(Cell.BLACK), new Player.BotPlayer(Cell.WHITE),
-                    Integer.parseInt(nonStableId), "fileForHuman", "systemFile");
-            if (winner=="B"){winnerB++;}
-            if (winner=="W"){winnerW++;}
-            if (winner=="T"){winnerT++;}
-        }
-        System.out.println("B: "+ winnerB +"  W: "+winnerW+"  T: "+winnerT);
+        TournamentResult result = new Tournament((color, random) -> new Player.BotPlayerMinMaxRuslan(color),
+                Player.BotPlayer::new, Runtime.getRuntime().availableProcessors(), BOT_VS_BOT_SEED)
+                .play(BOT_VS_BOT_GAMES);
+        System.out.println(result);
     }
 
     public static void startGUIInterface() {
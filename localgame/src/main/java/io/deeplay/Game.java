@@ -36,7 +36,7 @@ public class Game {
              FileWriter writerForBot = new FileWriter(sessionSystemFile, true)) {
             GameLogger.logStart(gameId, sessionPlayerFile, sessionSystemFile);
             int moveNumber = 1;
-            while (!board.getAllAvailableMoves(black.playerCell).isEmpty() || !board.getAllAvailableMoves(white.playerCell).isEmpty()) {
+            while (!board.isGameOver()) {
                 Board copyBoard = board.getBoardCopy();
                 moveNumber = makeMoveOnBoard(board, black, moveNumber, copyBoard, writeForHuman, writerForBot);
                 copyBoard = board.getBoardCopy();
@@ -67,7 +67,7 @@ public class Game {
 
     public void startGameWithOutLog(Board board, final Player black, final Player white) throws IOException {
         int moveNumber = 1;
-        while (!board.getAllAvailableMoves(black.playerCell).isEmpty() || !board.getAllAvailableMoves(white.playerCell).isEmpty()) {
+        while (!board.isGameOver()) {
             Board copyBoard = board.getBoardCopy();
             moveNumber = makeMoveOnBoardWithOutLog(board, black, moveNumber, copyBoard);
             moveNumber = makeMoveOnBoardWithOutLog(board, white, moveNumber, copyBoard);
@@ -77,7 +77,7 @@ public class Game {
 
     public static int makeMoveOnBoardWithOutLog(final Board board, final Player player,
                                                 int moveNumber, final Board copyBoard) throws IOException {
-        if (!board.getAllAvailableMoves(player.playerCell).isEmpty()) {
+        if (board.hasAnyMove(player.playerCell)) {
             final Move move = player.makeMove(copyBoard);
             board.placePiece(move.row, move.col, player.playerCell);
             //      UI.displayMove(moveNumber, board, player, move);
@@ -88,7 +88,7 @@ public class Game {
 
     private static int makeMoveOnBoard(final Board board, final Player player,
                                        int moveNumber, final Board copyBoard, final FileWriter writeForHuman, final FileWriter writerForBot) throws IOException {
-        if (!board.getAllAvailableMoves(player.playerCell).isEmpty()) {
+        if (board.hasAnyMove(player.playerCell)) {
             final Move blackMove = player.makeMove(copyBoard);
             board.placePiece(blackMove.row, blackMove.col, player.playerCell);
          //   GameLogger.logMove(board, blackMove.row, blackMove.col, player, blackMove.getTimeOnMove(), writeForHuman, writerForBot);
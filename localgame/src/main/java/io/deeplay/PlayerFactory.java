@@ -0,0 +1,22 @@
+package io.deeplay;
+
+import logic.Cell;
+import logic.Player;
+
+import java.util.Random;
+
+/**
+ * Создает игроков для партий турнира.
+ */
+@FunctionalInterface
+public interface PlayerFactory {
+
+    /**
+     * Создает игрока для одной партии.
+     *
+     * @param color  цвет игрока в партии.
+     * @param random генератор случайных чисел партии. Игрок берет случайность только из него, тогда турнир
+     *               с тем же seed повторяется ход в ход.
+     */
+    Player create(Cell color, Random random);
+}
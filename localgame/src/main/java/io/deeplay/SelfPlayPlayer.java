@@ -0,0 +1,100 @@
+package io.deeplay;
+
+import logic.BitBoard;
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.PatternEvaluator;
+import logic.Player;
+
+import java.util.Random;
+
+/**
+ * Бот для самоигры при настройке весов: перебор на небольшую глубину с оценкой по шаблонам,
+ * но с вероятностью randomness ход случайный, чтобы партии не повторяли друг друга.
+ */
+public class SelfPlayPlayer extends Player {
+    private static final int WIN_SCORE = 1 << 20;
+
+    private final PatternEvaluator evaluator;
+    private final int depth;
+    private final double randomness;
+    private final Random random;
+
+    /**
+     * @param playerCell цвет бота.
+     * @param evaluator  оценка позиции.
+     * @param depth      глубина перебора в полуходах.
+     * @param randomness вероятность случайного хода.
+     * @param random     генератор случайных чисел (с заданным seed партии воспроизводимы).
+     */
+    public SelfPlayPlayer(Cell playerCell, PatternEvaluator evaluator, int depth, double randomness, Random random) {
+        super(playerCell);
+        if (depth <= 0 || randomness < 0 || randomness > 1) {
+            throw new IllegalArgumentException();
+        }
+        this.evaluator = evaluator;
+        this.depth = depth;
+        this.randomness = randomness;
+        this.random = random;
+    }
+
+    @Override
+    public Move makeMove(Board board) {
+        long own = playerCell == Cell.BLACK ? board.getBlackMask() : board.getWhiteMask();
+        long opp = playerCell == Cell.BLACK ? board.getWhiteMask() : board.getBlackMask();
+        long moves = BitBoard.legalMoves(own, opp);
+        int square;
+        if (random.nextDouble() < randomness) {
+            for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                moves &= moves - 1;
+            }
+            square = Long.numberOfTrailingZeros(moves);
+        } else {
+            square = Long.numberOfTrailingZeros(moves);
+            int best = -Integer.MAX_VALUE;
+            for (; moves != 0; moves &= moves - 1) {
+                int candidate = Long.numberOfTrailingZeros(moves);
+                long flipped = BitBoard.flips(own, opp, candidate);
+                int score = -negamax(opp & ~flipped, own | flipped | (1L << candidate), playerCell.reverse(),
+                        depth - 1, -Integer.MAX_VALUE, -best);
+                if (score > best) {
+                    best = score;
+                    square = candidate;
+                }
+            }
+        }
+        Move move = new Move(BitBoard.row(square), BitBoard.col(square));
+        board.placePiece(move.row, move.col, playerCell);
+        return move;
+    }
+
+    private int negamax(long own, long opp, Cell side, int depth, int alpha, int beta) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return Integer.signum(Long.bitCount(own) - Long.bitCount(opp)) * WIN_SCORE;
+            }
+            return -negamax(opp, own, side.reverse(), depth, -beta, -alpha);
+        }
+        if (depth == 0) {
+            int score = side == Cell.BLACK ? evaluator.evaluate(own, opp) : evaluator.evaluate(opp, own);
+            return side == Cell.BLACK ? score : -score;
+        }
+        int best = -Integer.MAX_VALUE;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, square);
+            best = Math.max(best, -negamax(opp & ~flipped, own | flipped | (1L << square), side.reverse(),
+                    depth - 1, -beta, -Math.max(alpha, best)));
+            if (best >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    public String getPlayerID() {
+        return "SelfPlay" + playerId;
+    }
+}
@@ -0,0 +1,104 @@
+package io.deeplay;
+
+import logic.Board;
+import logic.Cell;
+import logic.Move;
+import logic.Player;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Турнир двух игроков без интерфейса и логов: партии играются в потоках ForkJoinPool, каждая партия -
+ * с новыми игроками из фабрик.
+ *
+ * В четных партиях первый игрок играет черными, в нечетных - белыми. Генераторы случайных чисел игроков
+ * партии создаются из seed турнира и номера партии, поэтому итоги не зависят от числа потоков и порядка,
+ * в котором потоки разбирают партии. Потоки берут партии из общего счетчика и копят итоги в своих
+ * TournamentResult, которые складываются в конце.
+ */
+public final class Tournament {
+    private final PlayerFactory first;
+    private final PlayerFactory second;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * @param first   фабрика первого игрока; итоги считаются с его точки зрения.
+     * @param second  фабрика второго игрока.
+     * @param threads число потоков.
+     * @param seed    seed генераторов случайных чисел игроков.
+     */
+    public Tournament(PlayerFactory first, PlayerFactory second, int threads, long seed) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.first = first;
+        this.second = second;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Играет games партий и возвращает итоги.
+     */
+    public TournamentResult play(int games) {
+        if (games < 0) {
+            throw new IllegalArgumentException();
+        }
+        long start = System.nanoTime();
+        AtomicInteger nextGame = new AtomicInteger();
+        TournamentResult[] parts = new TournamentResult[threads];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                TournamentResult part = new TournamentResult();
+                parts[i] = part;
+                tasks[i] = pool.submit(() -> {
+                    for (int game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                        playGame(game, part);
+                    }
+                });
+            }
+            TournamentResult result = new TournamentResult();
+            for (int i = 0; i < threads; i++) {
+                tasks[i].join();
+                result.merge(parts[i]);
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void playGame(int game, TournamentResult result) {
+        boolean firstIsBlack = game % 2 == 0;
+        Player firstPlayer = first.create(firstIsBlack ? Cell.BLACK : Cell.WHITE, new Random(seed + 2L * game));
+        Player secondPlayer = second.create(firstIsBlack ? Cell.WHITE : Cell.BLACK, new Random(seed + 2L * game + 1));
+        Player black = firstIsBlack ? firstPlayer : secondPlayer;
+        Player white = firstIsBlack ? secondPlayer : firstPlayer;
+
+        Board board = new Board();
+        Cell side = Cell.BLACK;
+        while (!board.isGameOver()) {
+            if (board.hasAnyMove(side)) {
+                Player player = side == Cell.BLACK ? black : white;
+                long start = System.nanoTime();
+                Move move = player.makeMove(board.getBoardCopy());
+                result.addMove(player == firstPlayer, System.nanoTime() - start);
+                if (move == null || !board.isValidMove(move.row, move.col, side)) {
+                    throw new IllegalStateException("Illegal move " + move + " by " + player.getPlayerID()
+                            + " in game " + game);
+                }
+                board.placePiece(move.row, move.col, side);
+            }
+            side = side.reverse();
+        }
+        int difference = board.getQuantityOfBlack() - board.getQuantityOfWhite();
+        result.addGame(firstIsBlack ? difference : -difference, firstIsBlack);
+    }
+}
@@ -0,0 +1,145 @@
+package io.deeplay;
+
+/**
+ * Итоги турнира двух игроков с точки зрения первого: победы, поражения и ничьи (всего и по цвету),
+ * суммарная разница фишек и время ходов каждого игрока.
+ */
+public final class TournamentResult {
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+    private static final double NANOS_IN_MINUTE = 60_000_000_000.0;
+
+    private int games;
+    private int wins;
+    private int losses;
+    private int draws;
+    private int winsAsBlack;
+    private int gamesAsBlack;
+    private long discDifference;
+    private long firstMoves;
+    private long firstMoveNanos;
+    private long secondMoves;
+    private long secondMoveNanos;
+    private long elapsedNanos;
+
+    /**
+     * Учитывает законченную партию.
+     *
+     * @param difference   разница фишек первого и второго игрока в конце партии.
+     * @param firstIsBlack играл ли первый игрок черными.
+     */
+    void addGame(int difference, boolean firstIsBlack) {
+        games++;
+        if (difference > 0) {
+            wins++;
+            if (firstIsBlack) {
+                winsAsBlack++;
+            }
+        } else if (difference < 0) {
+            losses++;
+        } else {
+            draws++;
+        }
+        if (firstIsBlack) {
+            gamesAsBlack++;
+        }
+        discDifference += difference;
+    }
+
+    void addMove(boolean first, long nanos) {
+        if (first) {
+            firstMoves++;
+            firstMoveNanos += nanos;
+        } else {
+            secondMoves++;
+            secondMoveNanos += nanos;
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Добавляет итоги other, например итоги партий другого потока.
+     */
+    void merge(TournamentResult other) {
+        games += other.games;
+        wins += other.wins;
+        losses += other.losses;
+        draws += other.draws;
+        winsAsBlack += other.winsAsBlack;
+        gamesAsBlack += other.gamesAsBlack;
+        discDifference += other.discDifference;
+        firstMoves += other.firstMoves;
+        firstMoveNanos += other.firstMoveNanos;
+        secondMoves += other.secondMoves;
+        secondMoveNanos += other.secondMoveNanos;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getWinsAsBlack() {
+        return winsAsBlack;
+    }
+
+    public int getWinsAsWhite() {
+        return wins - winsAsBlack;
+    }
+
+    public int getGamesAsBlack() {
+        return gamesAsBlack;
+    }
+
+    /**
+     * Возвращает сумму разниц фишек первого и второго игрока по всем партиям.
+     */
+    public long getDiscDifference() {
+        return discDifference;
+    }
+
+    public double getMeanDiscDifference() {
+        return games == 0 ? 0 : (double) discDifference / games;
+    }
+
+    /**
+     * Возвращает долю очков первого игрока: победа - очко, ничья - пол-очка.
+     */
+    public double getScore() {
+        return games == 0 ? 0 : (wins + draws / 2.0) / games;
+    }
+
+    public double getFirstMillisPerMove() {
+        return firstMoves == 0 ? 0 : firstMoveNanos / NANOS_IN_MILLI / firstMoves;
+    }
+
+    public double getSecondMillisPerMove() {
+        return secondMoves == 0 ? 0 : secondMoveNanos / NANOS_IN_MILLI / secondMoves;
+    }
+
+    public double getGamesPerMinute() {
+        return elapsedNanos == 0 ? 0 : games * NANOS_IN_MINUTE / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games: %d W/L/D: %d/%d/%d score: %.1f%% wins as black: %d/%d wins as white: %d/%d"
+                        + " mean disc difference: %+.2f ms per move: %.3f / %.3f games per minute: %.0f",
+                games, wins, losses, draws, 100 * getScore(), winsAsBlack, gamesAsBlack, getWinsAsWhite(),
+                games - gamesAsBlack, getMeanDiscDifference(), getFirstMillisPerMove(), getSecondMillisPerMove(),
+                getGamesPerMinute());
+    }
+}
@@ -0,0 +1,72 @@
+package io.deeplay;
+
+import java.util.Arrays;
+
+/**
+ * Набор позиций для настройки весов: маски черных и белых фишек и итоговая разница фишек партии
+ * (черные минус белые). Позиции хранятся в массивах примитивов, 17 байт на позицию,
+ * поэтому в памяти помещаются десятки миллионов позиций.
+ */
+public final class TrainingPositions {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] black = new long[INITIAL_CAPACITY];
+    private long[] white = new long[INITIAL_CAPACITY];
+    private byte[] results = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    public void add(long blackMask, long whiteMask, int result) {
+        if (result < -64 || result > 64) {
+            throw new IllegalArgumentException();
+        }
+        ensureCapacity(size + 1);
+        black[size] = blackMask;
+        white[size] = whiteMask;
+        results[size] = (byte) result;
+        size++;
+    }
+
+    public void addAll(TrainingPositions other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.black, 0, black, size, other.size);
+        System.arraycopy(other.white, 0, white, size, other.size);
+        System.arraycopy(other.results, 0, results, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Задает итоговую разницу фишек всем позициям, начиная с from: позиции партии добавляются по ходу игры,
+     * а результат становится известен только в конце.
+     */
+    void setResults(int from, int result) {
+        if (result < -64 || result > 64) {
+            throw new IllegalArgumentException();
+        }
+        Arrays.fill(results, from, size, (byte) result);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > black.length) {
+            int newCapacity = Math.max(capacity, black.length + (black.length >> 1));
+            black = Arrays.copyOf(black, newCapacity);
+            white = Arrays.copyOf(white, newCapacity);
+            results = Arrays.copyOf(results, newCapacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getBlack(int index) {
+        return black[index];
+    }
+
+    public long getWhite(int index) {
+        return white[index];
+    }
+
+    public int getResult(int index) {
+        return results[index];
+    }
+}
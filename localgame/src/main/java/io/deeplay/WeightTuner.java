@@ -0,0 +1,334 @@
+package io.deeplay;
+
+import logic.Board;
+import logic.Cell;
+import logic.PatternEvaluator;
+import logic.Player;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Настройка весов оценки по шаблонам (PatternEvaluator) на партиях самоигры.
+ *
+ * Партии играются через Game двумя SelfPlayPlayer, каждая позиция партии помечается итоговой разницей фишек.
+ * Веса подбираются мини-батчевым градиентным спуском по методу наименьших квадратов (цель - разница фишек)
+ * или логистической регрессией (цель - победа, ничья или поражение). Батч делится между потоками, каждый
+ * поток копит градиент в своем массиве, затем потоки складывают градиенты по своим частям массива весов.
+ * Шаг по каждому весу делится на сумму квадратов его признака в батче, поэтому редкие шаблоны учатся так же
+ * быстро, как частые. Все веса лежат в одном массиве float: сначала шаблоны по фазам и типам, затем
+ * мобильность и фронтир.
+ *
+ * Запуск: WeightTuner <файл весов> <число партий> <число эпох> [число потоков].
+ */
+public final class WeightTuner {
+    private static final Logger logger = LogManager.getLogger(WeightTuner.class);
+
+    /**
+     * Функция потерь: квадрат отклонения от итоговой разницы фишек или логистическая функция от исхода партии.
+     */
+    public enum Loss {
+        LEAST_SQUARES, LOGISTIC
+    }
+
+    static final int SELF_PLAY_DEPTH = 2;
+    static final double SELF_PLAY_RANDOMNESS = 0.1;
+    static final long SEED = 1;
+    static final int BATCH_SIZE = 1 << 14;
+    /**
+     * Шаг спуска. В каждой позиции активны около сорока признаков, и шаг по каждому из них нормирован отдельно,
+     * поэтому шаг должен быть меньше единицы, деленной на число признаков, иначе спуск расходится.
+     */
+    static final float LEARNING_RATE = 0.04f;
+    static final float DAMPING = 1;
+    static final float LOGISTIC_SCALE = 8;
+
+    private static final int[] TYPE_OFFSETS = new int[PatternEvaluator.TYPES];
+    private static final int PHASE_SIZE;
+    private static final int MOBILITY_OFFSET;
+    private static final int FRONTIER_OFFSET;
+    private static final int WEIGHT_COUNT;
+
+    static {
+        int offset = 0;
+        for (int type = 0; type < PatternEvaluator.TYPES; type++) {
+            TYPE_OFFSETS[type] = offset;
+            offset += PatternEvaluator.getTypeSize(type);
+        }
+        PHASE_SIZE = offset;
+        MOBILITY_OFFSET = PatternEvaluator.PHASES * PHASE_SIZE;
+        FRONTIER_OFFSET = MOBILITY_OFFSET + PatternEvaluator.PHASES;
+        WEIGHT_COUNT = FRONTIER_OFFSET + PatternEvaluator.PHASES;
+    }
+
+    private final int threads;
+    private final Loss loss;
+    private final ForkJoinPool pool;
+    private final Worker[] workers;
+    private final float[] weights = new float[WEIGHT_COUNT];
+
+    /**
+     * @param threads число потоков для самоигры и градиентного спуска.
+     * @param loss    функция потерь.
+     */
+    public WeightTuner(int threads, Loss loss) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.threads = threads;
+        this.loss = loss;
+        this.pool = new ForkJoinPool(threads);
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            logger.log(Level.ERROR, "Usage: WeightTuner <weights file> <games> <epochs> [threads]");
+            throw new IllegalArgumentException();
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        WeightTuner tuner = new WeightTuner(threads, Loss.LEAST_SQUARES);
+        try {
+            long start = System.nanoTime();
+            TrainingPositions positions = tuner.playGames(Integer.parseInt(args[1]), PatternEvaluator.withDefaultWeights());
+            System.out.printf("positions: %d self-play: %.1f s%n", positions.size(), (System.nanoTime() - start) / 1e9);
+            for (int epoch = 1; epoch <= Integer.parseInt(args[2]); epoch++) {
+                start = System.nanoTime();
+                double error = tuner.trainEpoch(positions, new Random(SEED + epoch));
+                System.out.printf("epoch: %d error: %.3f time: %.1f s%n", epoch, error, (System.nanoTime() - start) / 1e9);
+            }
+            tuner.save(Path.of(args[0]));
+        } finally {
+            tuner.close();
+        }
+    }
+
+    /**
+     * Играет партии самоигры во всех потоках и собирает их позиции.
+     *
+     * @param games     число партий.
+     * @param evaluator оценка, которой играют боты.
+     * @return позиции, в которых у игрока, чей ход, есть ход, с итоговой разницей фишек партии.
+     */
+    public TrainingPositions playGames(int games, PatternEvaluator evaluator) {
+        TrainingPositions[] parts = new TrainingPositions[threads];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            parts[thread] = new TrainingPositions();
+            tasks[thread] = pool.submit(() -> {
+                for (int game = thread; game < games; game += threads) {
+                    playGame(parts[thread], evaluator, new Random(SEED + game));
+                }
+            });
+        }
+        TrainingPositions positions = new TrainingPositions();
+        for (int i = 0; i < threads; i++) {
+            tasks[i].join();
+            positions.addAll(parts[i]);
+        }
+        return positions;
+    }
+
+    private static void playGame(TrainingPositions positions, PatternEvaluator evaluator, Random random) {
+        Player[] players = {
+                new SelfPlayPlayer(Cell.BLACK, evaluator, SELF_PLAY_DEPTH, SELF_PLAY_RANDOMNESS, random),
+                new SelfPlayPlayer(Cell.WHITE, evaluator, SELF_PLAY_DEPTH, SELF_PLAY_RANDOMNESS, random)};
+        Board board = new Board();
+        int first = positions.size();
+        int moveNumber = 1;
+        try {
+            while (!board.isGameOver()) {
+                for (Player player : players) {
+                    if (board.hasAnyMove(player.playerCell)) {
+                        positions.add(board.getBlackMask(), board.getWhiteMask(), 0);
+                    }
+                    moveNumber = Game.makeMoveOnBoardWithOutLog(board, player, moveNumber, board.getBoardCopy());
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Self-play game failed");
+            throw new IllegalStateException(e);
+        }
+        positions.setResults(first, board.getQuantityOfBlack() - board.getQuantityOfWhite());
+    }
+
+    /**
+     * Проходит все позиции один раз в случайном порядке мини-батчами по BATCH_SIZE позиций.
+     *
+     * @return средний квадрат ошибки за эпоху (в фишках для LEAST_SQUARES, в вероятности для LOGISTIC).
+     */
+    public double trainEpoch(TrainingPositions positions, Random random) {
+        int[] order = new int[positions.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        double error = 0;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[threads];
+        for (int batch = 0; batch < order.length; batch += BATCH_SIZE) {
+            int batchEnd = Math.min(order.length, batch + BATCH_SIZE);
+            for (int i = 0; i < threads; i++) {
+                Worker worker = workers[i];
+                int from = batch + (int) ((long) (batchEnd - batch) * i / threads);
+                int to = batch + (int) ((long) (batchEnd - batch) * (i + 1) / threads);
+                tasks[i] = pool.submit(() -> worker.accumulate(positions, order, from, to));
+            }
+            joinAll(tasks);
+            for (int i = 0; i < threads; i++) {
+                int from = (int) ((long) WEIGHT_COUNT * i / threads);
+                int to = (int) ((long) WEIGHT_COUNT * (i + 1) / threads);
+                tasks[i] = pool.submit(() -> applyGradient(from, to));
+            }
+            joinAll(tasks);
+        }
+        for (Worker worker : workers) {
+            error += worker.error;
+            worker.error = 0;
+        }
+        return order.length == 0 ? 0 : error / order.length;
+    }
+
+    private static void joinAll(ForkJoinTask<?>[] tasks) {
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private void applyGradient(int from, int to) {
+        for (int j = from; j < to; j++) {
+            float gradient = 0;
+            float norm = 0;
+            for (Worker worker : workers) {
+                gradient += worker.gradient[j];
+                norm += worker.norm[j];
+                worker.gradient[j] = 0;
+                worker.norm[j] = 0;
+            }
+            if (norm > 0) {
+                weights[j] -= LEARNING_RATE * gradient / (norm + DAMPING);
+            }
+        }
+    }
+
+    /**
+     * Оценивает позицию текущими весами, так же как PatternEvaluator, но в фишках и без округления.
+     */
+    float predict(long black, long white, int[] indices) {
+        PatternEvaluator.computeIndices(black, white, indices);
+        int phase = PatternEvaluator.phase(64 - Long.bitCount(black | white));
+        int base = phase * PHASE_SIZE;
+        float prediction = 0;
+        for (int instance = 0; instance < indices.length; instance++) {
+            int type = PatternEvaluator.getInstanceType(instance);
+            int offset = base + TYPE_OFFSETS[type];
+            prediction += (weights[offset + indices[instance]]
+                    - weights[offset + PatternEvaluator.swapColors(type, indices[instance])]) / 2;
+        }
+        prediction += weights[MOBILITY_OFFSET + phase] * PatternEvaluator.mobility(black, white);
+        prediction += weights[FRONTIER_OFFSET + phase] * PatternEvaluator.frontier(black, white);
+        return prediction;
+    }
+
+    /**
+     * Градиент и сумма квадратов признаков одного потока за батч.
+     */
+    private final class Worker {
+        final float[] gradient = new float[WEIGHT_COUNT];
+        final float[] norm = new float[WEIGHT_COUNT];
+        final int[] indices = new int[PatternEvaluator.getInstanceCount()];
+        double error;
+
+        void accumulate(TrainingPositions positions, int[] order, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int position = order[i];
+                long black = positions.getBlack(position);
+                long white = positions.getWhite(position);
+                int result = positions.getResult(position);
+                float prediction = predict(black, white, indices);
+                float residual;
+                if (loss == Loss.LEAST_SQUARES) {
+                    residual = prediction - result;
+                    error += residual * residual;
+                } else {
+                    float target = result > 0 ? 1 : result < 0 ? 0 : 0.5f;
+                    float probability = (float) (1 / (1 + Math.exp(-prediction / LOGISTIC_SCALE)));
+                    error += (probability - target) * (probability - target);
+                    // Шаг Ньютона для логистической функции при вероятности 1/2.
+                    residual = 4 * LOGISTIC_SCALE * (probability - target);
+                }
+
+                int phase = PatternEvaluator.phase(64 - Long.bitCount(black | white));
+                int base = phase * PHASE_SIZE;
+                for (int instance = 0; instance < indices.length; instance++) {
+                    int type = PatternEvaluator.getInstanceType(instance);
+                    int j = base + TYPE_OFFSETS[type] + indices[instance];
+                    int swapped = base + TYPE_OFFSETS[type] + PatternEvaluator.swapColors(type, indices[instance]);
+                    if (j != swapped) {
+                        gradient[j] += residual / 2;
+                        gradient[swapped] -= residual / 2;
+                        norm[j] += 0.25f;
+                        norm[swapped] += 0.25f;
+                    }
+                }
+                addFeature(MOBILITY_OFFSET + phase, PatternEvaluator.mobility(black, white), residual);
+                addFeature(FRONTIER_OFFSET + phase, PatternEvaluator.frontier(black, white), residual);
+            }
+        }
+
+        private void addFeature(int j, int value, float residual) {
+            gradient[j] += residual * value;
+            norm[j] += value * value;
+        }
+    }
+
+    /**
+     * Записывает текущие веса в файл, который загружает PatternEvaluator.load.
+     */
+    public void save(Path path) throws IOException {
+        PatternEvaluator.save(path, getPatternWeights(), getMobilityWeights(), getFrontierWeights());
+    }
+
+    public float[][][] getPatternWeights() {
+        float[][][] patternWeights = new float[PatternEvaluator.PHASES][PatternEvaluator.TYPES][];
+        for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+            for (int type = 0; type < PatternEvaluator.TYPES; type++) {
+                int offset = phase * PHASE_SIZE + TYPE_OFFSETS[type];
+                float[] table = new float[PatternEvaluator.getTypeSize(type)];
+                System.arraycopy(weights, offset, table, 0, table.length);
+                patternWeights[phase][type] = table;
+            }
+        }
+        return patternWeights;
+    }
+
+    public float[] getMobilityWeights() {
+        float[] mobility = new float[PatternEvaluator.PHASES];
+        System.arraycopy(weights, MOBILITY_OFFSET, mobility, 0, mobility.length);
+        return mobility;
+    }
+
+    public float[] getFrontierWeights() {
+        float[] frontier = new float[PatternEvaluator.PHASES];
+        System.arraycopy(weights, FRONTIER_OFFSET, frontier, 0, frontier.length);
+        return frontier;
+    }
+
+    public void close() {
+        pool.shutdownNow();
+    }
+}
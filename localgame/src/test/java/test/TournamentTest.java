@@ -0,0 +1,55 @@
+package test;
+
+import io.deeplay.SelfPlayPlayer;
+import io.deeplay.Tournament;
+import io.deeplay.TournamentResult;
+import logic.Cell;
+import logic.PatternEvaluator;
+import logic.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    @Test
+    public void testSameSeedGivesSameResults() {
+        TournamentResult single = new Tournament(Player.BotPlayer::new, Player.BotPlayer::new, 1, 7).play(200);
+        TournamentResult parallel = new Tournament(Player.BotPlayer::new, Player.BotPlayer::new, 4, 7).play(200);
+
+        assertEquals(200, single.getGames());
+        assertEquals(200, single.getWins() + single.getLosses() + single.getDraws());
+        assertEquals(single.getWins(), parallel.getWins());
+        assertEquals(single.getLosses(), parallel.getLosses());
+        assertEquals(single.getWinsAsBlack(), parallel.getWinsAsBlack());
+        assertEquals(single.getDiscDifference(), parallel.getDiscDifference());
+    }
+
+    @Test
+    public void testColorsAlternate() {
+        AtomicInteger blackGames = new AtomicInteger();
+        TournamentResult result = new Tournament((color, random) -> {
+            if (color == Cell.BLACK) {
+                blackGames.incrementAndGet();
+            }
+            return new Player.BotPlayer(color, random);
+        }, Player.BotPlayer::new, 2, 1).play(51);
+
+        assertEquals(26, blackGames.get());
+        assertEquals(26, result.getGamesAsBlack());
+        assertEquals(result.getWins(), result.getWinsAsBlack() + result.getWinsAsWhite());
+    }
+
+    @Test
+    public void testSearchBeatsRandomPlayer() {
+        TournamentResult result = new Tournament(
+                (color, random) -> new SelfPlayPlayer(color, PatternEvaluator.withDefaultWeights(), 2, 0, random),
+                Player.BotPlayer::new, 2, 3).play(40);
+
+        assertTrue(result.getScore() > 0.75);
+        assertTrue(result.getMeanDiscDifference() > 0);
+        assertTrue(result.getFirstMillisPerMove() > 0);
+    }
+}
@@ -0,0 +1,61 @@
+package test;
+
+import io.deeplay.TrainingPositions;
+import io.deeplay.WeightTuner;
+import logic.PatternEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightTunerTest {
+
+    @Test
+    public void testTrainingReducesErrorAndSavesWeights(@TempDir Path directory) throws IOException {
+        WeightTuner tuner = new WeightTuner(2, WeightTuner.Loss.LEAST_SQUARES);
+        try {
+            TrainingPositions positions = tuner.playGames(40, PatternEvaluator.withDefaultWeights());
+            assertTrue(positions.size() > 40 * 50);
+            for (int i = 0; i < positions.size(); i++) {
+                assertEquals(0, positions.getBlack(i) & positions.getWhite(i));
+            }
+
+            double first = tuner.trainEpoch(positions, new Random(1));
+            double last = first;
+            for (int epoch = 0; epoch < 5; epoch++) {
+                last = tuner.trainEpoch(positions, new Random(2 + epoch));
+            }
+            assertTrue(last < first);
+
+            Path path = directory.resolve("weights.bin");
+            tuner.save(path);
+            PatternEvaluator loaded = PatternEvaluator.load(path);
+            PatternEvaluator expected = new PatternEvaluator(tuner.getPatternWeights(), tuner.getMobilityWeights(),
+                    tuner.getFrontierWeights());
+            assertEquals(expected.evaluate(positions.getBlack(0), positions.getWhite(0)),
+                    loaded.evaluate(positions.getBlack(0), positions.getWhite(0)));
+        } finally {
+            tuner.close();
+        }
+    }
+
+    @Test
+    public void testSelfPlayIsReproducible() {
+        WeightTuner tuner = new WeightTuner(2, WeightTuner.Loss.LEAST_SQUARES);
+        try {
+            TrainingPositions first = tuner.playGames(4, PatternEvaluator.withDefaultWeights());
+            TrainingPositions second = tuner.playGames(4, PatternEvaluator.withDefaultWeights());
+            assertEquals(first.size(), second.size());
+            for (int i = 0; i < first.size(); i++) {
+                assertEquals(first.getBlack(i), second.getBlack(i));
+                assertEquals(first.getResult(i), second.getResult(i));
+            }
+        } finally {
+            tuner.close();
+        }
+    }
+}